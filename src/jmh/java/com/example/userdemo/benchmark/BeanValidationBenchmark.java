@@ -0,0 +1,59 @@
+package com.example.userdemo.benchmark;
+
+import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.model.User;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the full Bean Validation of a {@link User} and a
+ * {@link UserUpdateDto}, as done for every request body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanValidationBenchmark {
+    private Validator validator;
+    private User validUser;
+    private User invalidUser;
+    private UserUpdateDto userUpdateDto;
+
+    @Setup
+    public void setUp() {
+        validator = BenchmarkUsers.validator();
+        validUser = BenchmarkUsers.validUser(1);
+        invalidUser = BenchmarkUsers.invalidUser();
+        userUpdateDto = BenchmarkUsers.userUpdateDto();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<User>> validUser() {
+        return validator.validate(validUser);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<User>> invalidUser() {
+        return validator.validate(invalidUser);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserUpdateDto>> userUpdateDto() {
+        return validator.validate(userUpdateDto);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.userdemo.benchmark;
+
+import com.example.userdemo.UserdemoApplication;
+import com.example.userdemo.model.User;
+import com.example.userdemo.repository.UserRepository;
+import com.example.userdemo.service.DateOfBirthIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Date of birth range queries answered by the database next to the same
+ * queries answered by the in-memory DateOfBirthIndex. The range covers
+ * {@code days} days of the seeded users, about {@code rows / 20000} users per
+ * day. The estimated size of the index is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DateOfBirthIndexBenchmark {
+    private static final LocalDate FROM = LocalDate.of(1980, 1, 1);
+
+    @Param({"100000"})
+    private int rows;
+
+    @Param({"1", "30", "365"})
+    private int days;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private DateOfBirthIndex dateOfBirthIndex;
+    private LocalDate to;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(UserdemoApplication.class)
+            .properties("server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:benchmark",
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN")
+            .run();
+        userRepository = context.getBean(UserRepository.class);
+        BenchmarkUsers.seed(context.getBean(JdbcTemplate.class), rows);
+        dateOfBirthIndex = new DateOfBirthIndex();
+        dateOfBirthIndex.load(userRepository.findAllDetached());
+        to = FROM.plusDays(days - 1);
+        System.out.printf("%nIndex of %d users: about %d KB%n", dateOfBirthIndex.size(),
+            dateOfBirthIndex.memoryBytes() / 1024);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<User> database() {
+        return userRepository.findDetachedByDateOfBirthBetween(FROM, to);
+    }
+
+    @Benchmark
+    public List<User> index() {
+        return dateOfBirthIndex.findByDateOfBirthBetween(FROM, to);
+    }
+}
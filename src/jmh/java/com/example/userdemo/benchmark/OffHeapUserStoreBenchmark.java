@@ -0,0 +1,67 @@
+package com.example.userdemo.benchmark;
+
+import com.example.userdemo.cache.OffHeapUserStore;
+import com.example.userdemo.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a cached user from the on-heap Caffeine cache next to decoding it
+ * from the OffHeapUserStore. The off-heap and heap bytes per user of the store
+ * are printed at setup; run with {@code -prof gc} to compare the allocation
+ * per read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OffHeapUserStoreBenchmark {
+    @Param({"1000000"})
+    private int users;
+
+    private Cache<Long, User> caffeine;
+    private OffHeapUserStore offHeapUserStore;
+
+    @Setup
+    public void setUp() {
+        caffeine = Caffeine.newBuilder().build();
+        offHeapUserStore = OffHeapUserStore.allocate(Integer.MAX_VALUE - 8);
+        for (long id = 1; id <= users; id++) {
+            User user = BenchmarkUsers.validUser(id);
+            caffeine.put(id, user);
+            offHeapUserStore.put(user);
+        }
+        System.out.printf("%nOff-heap store: %d off-heap and %d heap bytes per user%n",
+            offHeapUserStore.liveBytes() / users, offHeapUserStore.heapBytes() / users);
+    }
+
+    @Benchmark
+    public User caffeine() {
+        return caffeine.getIfPresent(nextId());
+    }
+
+    @Benchmark
+    public User offHeapStore() {
+        return offHeapUserStore.get(nextId());
+    }
+
+    private long nextId() {
+        return ThreadLocalRandom.current().nextLong(1, users + 1);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.userdemo.benchmark;
+
+import com.example.userdemo.UserdemoApplication;
+import com.example.userdemo.model.User;
+import com.example.userdemo.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading all users as managed entities, as UserService#getAll used to, next
+ * to reading them as detached objects, as it does now. Both run in a
+ * read-only transaction. Run with {@code -prof gc} to compare the allocation
+ * rate and the GC count and time, e.g.
+ * {@code -Djmh.args="-prof gc ReadPathBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReadPathBenchmark {
+    @Param({"100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(UserdemoApplication.class)
+            .properties("server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:benchmark",
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN")
+            .run();
+        userRepository = context.getBean(UserRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        BenchmarkUsers.seed(context.getBean(JdbcTemplate.class), rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<User> managedEntities() {
+        return readOnlyTransaction.execute(status -> userRepository.findAll());
+    }
+
+    @Benchmark
+    public List<User> detachedUsers() {
+        return readOnlyTransaction.execute(status -> userRepository.findAllDetached());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.userdemo.benchmark;
+
+import com.example.userdemo.model.User;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cost of the Jackson serialization of a {@code List<User>} response body of
+ * various sizes in each negotiated encoding, with and without gzip, and of
+ * reading it back. The encoded and gzipped sizes per user are printed once
+ * per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private List<User> users;
+    private byte[] encodedUsers;
+
+    @Setup
+    public void setUp() throws IOException {
+        // The same defaults Spring Boot applies to the ObjectMapper of the application.
+        objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory(format)).build();
+        users = BenchmarkUsers.users(size);
+        encodedUsers = serializeUsers();
+        System.out.printf("%n%s, %d users: %.1f bytes per user, %.1f gzipped%n", format, size,
+            (double) encodedUsers.length / size, (double) serializeAndGzipUsers().length / size);
+    }
+
+    @Benchmark
+    public byte[] serializeUsers() throws IOException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] serializeAndGzipUsers() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, users);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<User> deserializeUsers() throws IOException {
+        return objectMapper.readValue(encodedUsers, new TypeReference<>() { });
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.userdemo.benchmark;
+
+import com.example.userdemo.model.User;
+import com.example.userdemo.search.UserSearchIndex;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * First pages of searches of the Lucene user index: an exact word, a short
+ * prefix, a misspelled word and two words. The users get names, streets and
+ * email addresses combined from syllables, so words share prefixes and are a
+ * few edits apart like real names. The time to build the index is printed at
+ * setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserSearchBenchmark {
+    private static final String[] SYLLABLES = {"jo", "an", "mar", "ko", "li", "sa", "ter", "vin", "del", "ra",
+        "bo", "nik", "el", "ma", "son", "ber", "ta", "ri", "go", "len"};
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"marko", "jo", "jonsn", "anna ter"})
+    private String query;
+
+    @Param({"100"})
+    private int pageSize;
+
+    private UserSearchIndex userSearchIndex;
+
+    @Setup
+    public void setUp() throws IOException {
+        userSearchIndex = new UserSearchIndex(new ByteBuffersDirectory());
+        long start = System.nanoTime();
+        userSearchIndex.rebuild(LongStream.rangeClosed(1, rows).mapToObj(UserSearchBenchmark::user));
+        System.out.printf("%nIndexed %d users in %d ms%n", userSearchIndex.size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        userSearchIndex.close();
+    }
+
+    @Benchmark
+    public UserSearchIndex.SearchResult search() {
+        return userSearchIndex.search(query, 0, pageSize);
+    }
+
+    private static User user(long id) {
+        String firstName = word(id, 2);
+        String lastName = word(id / 7 + 3, 3);
+        return User.builder()
+            .id(id)
+            .firstName(firstName)
+            .lastName(lastName)
+            .email(firstName + "." + lastName + id + "@example.com")
+            .dateOfBirth(LocalDate.of(1950, 1, 1).plusDays(id % 20_000))
+            .address(id % 500 + " " + word(id / 13, 2) + " St")
+            .build();
+    }
+
+    /**
+     * Combines two or three syllables chosen by the digits of the seed.
+     */
+    private static String word(long seed, int syllables) {
+        long mixed = seed * 0x9E3779B97F4A7C15L;
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[(int) Long.remainderUnsigned(mixed >>> (i * 16), SYLLABLES.length)]);
+        }
+        word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+        return word.toString();
+    }
+}
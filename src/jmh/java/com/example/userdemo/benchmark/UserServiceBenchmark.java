@@ -0,0 +1,75 @@
+package com.example.userdemo.benchmark;
+
+import com.example.userdemo.UserdemoApplication;
+import com.example.userdemo.model.User;
+import com.example.userdemo.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link UserService#getByDateOfBirth} and {@link UserService#getAll}
+ * over an embedded H2 database seeded with 10k, 100k and 1M users.
+ *
+ * The users are spread evenly over about 55 years of dates of birth, so the
+ * one year range of getByDateOfBirth returns about 1.8% of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserServiceBenchmark {
+    private static final LocalDate FROM = LocalDate.of(1980, 1, 1);
+    private static final LocalDate TO = LocalDate.of(1980, 12, 31);
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(UserdemoApplication.class)
+            .properties("server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:benchmark",
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN")
+            .run();
+        userService = context.getBean(UserService.class);
+        BenchmarkUsers.seed(context.getBean(JdbcTemplate.class), rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<User> getByDateOfBirth() {
+        return userService.getByDateOfBirth(FROM, TO);
+    }
+
+    @Benchmark
+    public List<User> getAll() {
+        return userService.getAll();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.userdemo.benchmark;
+
+import com.example.userdemo.validators.AgeValidator;
+import com.example.userdemo.validators.EmailValidator;
+import com.example.userdemo.validators.PhoneNumberValidator;
+import com.example.userdemo.validators.PreviousDateValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static com.example.userdemo.constatnt.ValidationConstants.EMAIL_PATTERN;
+import static com.example.userdemo.constatnt.ValidationConstants.PHONE_NUMBER_PATTERN;
+
+/**
+ * Cost of a single {@link AgeValidator} and {@link PreviousDateValidator}
+ * check of a valid date of birth, and of the {@link EmailValidator} and
+ * {@link PhoneNumberValidator} checks next to the regexes they replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+    private final AgeValidator ageValidator = new AgeValidator();
+    private final PreviousDateValidator previousDateValidator = new PreviousDateValidator();
+    private final EmailValidator emailValidator = new EmailValidator();
+    private final PhoneNumberValidator phoneNumberValidator = new PhoneNumberValidator();
+    private final Pattern emailPattern = Pattern.compile(EMAIL_PATTERN);
+    private final Pattern phoneNumberPattern = Pattern.compile(PHONE_NUMBER_PATTERN);
+    private final String email = "first.last+tag@mail.example.org";
+    private final String phoneNumber = "+111 636 85 67 89";
+    private LocalDate dateOfBirth;
+
+    @Setup
+    public void setUp() {
+        ageValidator.setDefaultUserMinAge(BenchmarkUsers.MIN_USER_AGE);
+        dateOfBirth = LocalDate.of(1990, 1, 1);
+    }
+
+    @Benchmark
+    public boolean ageValidator() {
+        return ageValidator.isValid(dateOfBirth, null);
+    }
+
+    @Benchmark
+    public boolean previousDateValidator() {
+        return previousDateValidator.isValid(dateOfBirth, null);
+    }
+
+    @Benchmark
+    public boolean emailValidator() {
+        return emailValidator.isValid(email, null);
+    }
+
+    @Benchmark
+    public boolean emailPattern() {
+        return emailPattern.matcher(email).matches();
+    }
+
+    @Benchmark
+    public boolean phoneNumberValidator() {
+        return phoneNumberValidator.isValid(phoneNumber, null);
+    }
+
+    @Benchmark
+    public boolean phoneNumberPattern() {
+        return phoneNumberPattern.matcher(phoneNumber).matches();
+    }
+}
@@ -1,9 +1,37 @@
 package com.example.userdemo;
 
 import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
 
-@SpringBootApplication
+/**
+ * The blocking Spring MVC and JPA application.
+ *
+ * This is {@code @SpringBootApplication} spelled out, so that the reactive
+ * variant in the {@code reactive} package (see
+ * {@link com.example.userdemo.reactive.ReactiveUserdemoApplication}) and the
+ * R2DBC auto-configuration are left out of it.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration(exclude = {
+    R2dbcAutoConfiguration.class,
+    R2dbcDataAutoConfiguration.class,
+    R2dbcRepositoriesAutoConfiguration.class,
+    R2dbcTransactionManagerAutoConfiguration.class
+})
+@ComponentScan(excludeFilters = {
+    @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+    @ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class),
+    @ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.example\\.userdemo\\.reactive\\..*")
+})
 public class UserdemoApplication {
     /**
      * The main method of the application. It initializes and runs the Spring Boot
@@ -0,0 +1,22 @@
+package com.example.userdemo.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller method whose cost grows with the number of users, such
+ * as unbounded lists, date ranges and streams.
+ *
+ * With rate limiting enabled, requests to such endpoints are limited by the
+ * smaller expensive token buckets and run in their own, smaller concurrency
+ * pool, so a burst of them cannot take every database connection from the
+ * cheap reads and writes.
+ *
+ * @see com.example.userdemo.interceptor.RateLimitInterceptor
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ExpensiveEndpoint {
+}
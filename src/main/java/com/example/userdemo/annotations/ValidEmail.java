@@ -0,0 +1,42 @@
+package com.example.userdemo.annotations;
+
+import com.example.userdemo.constatnt.ErrorMessages;
+import com.example.userdemo.validators.EmailValidator;
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Custom validation annotation for ensuring that a string is a valid email
+ * address.
+ *
+ * Usage:
+ * Add this annotation to a String field holding an email address. It accepts exactly the strings matched by
+ * ValidationConstants.EMAIL_PATTERN, but is checked in a single pass without a regular expression.
+ *
+ * Example:
+ * ```
+ * @ValidEmail
+ * private String email;
+ * ```
+ *
+ * Validation:
+ * Null values are valid. If the validation fails, an error message will be returned as specified in the
+ * annotation's message attribute.
+ *
+ * @see EmailValidator
+ */
+@Constraint(validatedBy = EmailValidator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface ValidEmail {
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    String message() default ErrorMessages.WRONG_EMAIL;
+}
@@ -0,0 +1,43 @@
+package com.example.userdemo.annotations;
+
+import com.example.userdemo.constatnt.ErrorMessages;
+import com.example.userdemo.validators.PhoneNumberValidator;
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Custom validation annotation for ensuring that a string is a valid phone
+ * number.
+ *
+ * Usage:
+ * Add this annotation to a String field holding a phone number. It accepts exactly the strings matched by
+ * ValidationConstants.PHONE_NUMBER_PATTERN, but is checked in linear time without a backtracking regular
+ * expression.
+ *
+ * Example:
+ * ```
+ * @ValidPhoneNumber
+ * private String phoneNumber;
+ * ```
+ *
+ * Validation:
+ * Null values are valid. If the validation fails, an error message will be returned as specified in the
+ * annotation's message attribute.
+ *
+ * @see PhoneNumberValidator
+ */
+@Constraint(validatedBy = PhoneNumberValidator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface ValidPhoneNumber {
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    String message() default ErrorMessages.WRONG_PHONE_NUMBER;
+}
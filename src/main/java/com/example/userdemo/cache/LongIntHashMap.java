@@ -0,0 +1,118 @@
+package com.example.userdemo.cache;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from {@code long} keys to non-negative {@code int}
+ * values with linear probing, which stores its entries in two primitive arrays
+ * instead of boxed nodes. Not thread-safe.
+ */
+class LongIntHashMap {
+    static final int NO_VALUE = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntHashMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); values[slot] != NO_VALUE; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return NO_VALUE;
+    }
+
+    /**
+     * Associates the value with the key and returns the previous value, or
+     * {@link #NO_VALUE} if there was none.
+     */
+    int put(long key, int value) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        for (; values[slot] != NO_VALUE; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 3 > keys.length * 2) {
+            resize(keys.length * 2);
+        }
+        return NO_VALUE;
+    }
+
+    /**
+     * Removes the key and returns its value, or {@link #NO_VALUE} if there was
+     * none. The following entries of the probe sequence are shifted back, so no
+     * tombstones are left behind.
+     */
+    int remove(long key) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (values[slot] != NO_VALUE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        int previous = values[slot];
+        if (previous == NO_VALUE) {
+            return NO_VALUE;
+        }
+        int gap = slot;
+        for (int next = (gap + 1) & mask; values[next] != NO_VALUE; next = (next + 1) & mask) {
+            int home = slot(keys[next], mask);
+            // Move the entry into the gap unless its home slot lies cyclically in (gap, next].
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        values[gap] = NO_VALUE;
+        size--;
+        return previous;
+    }
+
+    void clear() {
+        allocate(MIN_CAPACITY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long memoryBytes() {
+        return 16 + 8L * keys.length + 16 + 4L * values.length;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != NO_VALUE) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, NO_VALUE);
+        size = 0;
+    }
+
+    private static int slot(long key, int mask) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
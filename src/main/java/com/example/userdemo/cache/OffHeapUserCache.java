@@ -0,0 +1,79 @@
+package com.example.userdemo.cache;
+
+import com.example.userdemo.model.User;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Spring cache of users by ID backed by an {@link OffHeapUserStore}. Every hit
+ * decodes a new detached user from the off-heap record, so cached users are
+ * never shared between requests. Null values are not cached.
+ */
+public class OffHeapUserCache extends AbstractValueAdaptingCache {
+    private final String name;
+    private final OffHeapUserStore store;
+
+    /**
+     * Creates a cache backed by the given store.
+     *
+     * @param name  The name of the cache.
+     * @param store The store holding the cached users.
+     */
+    public OffHeapUserCache(String name, OffHeapUserStore store) {
+        super(false);
+        this.name = name;
+        this.store = store;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public OffHeapUserStore getNativeCache() {
+        return store;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return store.get((Long) key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            return (T) value;
+        }
+        T loaded;
+        try {
+            loaded = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, loaded);
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+        } else {
+            store.put((User) value);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        store.remove((Long) key);
+    }
+
+    @Override
+    public void clear() {
+        store.clear();
+    }
+}
@@ -0,0 +1,412 @@
+package com.example.userdemo.cache;
+
+import com.example.userdemo.model.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Store of users packed into one off-heap buffer, either direct memory or a
+ * memory-mapped file.
+ *
+ * Every user is appended as a record of fixed-width fields (ID, version and
+ * the epoch day of the date of birth) followed by the UTF-8 bytes of its
+ * strings, each prefixed with its length. A primitive hash map from ID to
+ * record offset is the only per-user structure on the heap, and a user object
+ * is created only when it is read. An update appends a new record and leaves
+ * the old one as garbage; when the buffer is full the live records are
+ * compacted to its start, and if that does not free enough space the store is
+ * cleared.
+ *
+ * A store backed by a file appends a tombstone for every removed user and
+ * writes the end of the log to the file header when it is closed, so the
+ * next store opened on the file starts with the same users. The header also
+ * holds the ID of the database the users were cached from. A file that was
+ * not closed cleanly or belongs to another database is ignored.
+ *
+ * Reads share a read lock and writes take the write lock.
+ */
+public class OffHeapUserStore implements Closeable {
+    private static final int MAGIC = 0x55534552;
+    private static final int FORMAT_VERSION = 2;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int FORMAT_VERSION_OFFSET = 4;
+    private static final int CLEAN_OFFSET = 8;
+    private static final int END_OFFSET = 12;
+    private static final int DATABASE_ID_OFFSET = 16;
+    static final int HEADER_SIZE = 24;
+
+    private static final byte USER_RECORD = 1;
+    private static final byte TOMBSTONE = 2;
+    /** Record length, record type and ID. */
+    private static final int RECORD_HEADER_SIZE = 4 + 1 + 8;
+    /** Version and epoch day of the date of birth. */
+    private static final int USER_FIELDS_SIZE = 8 + 4;
+    private static final int MAX_STRING_BYTES = 0xFFFE;
+    private static final int NULL_STRING = 0xFFFF;
+    private static final long NULL_VERSION = Long.MIN_VALUE;
+
+    private final ByteBuffer buffer;
+    private final FileChannel channel;
+    private final LongIntHashMap offsets = new LongIntHashMap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int end = HEADER_SIZE;
+    private long liveBytes;
+
+    private OffHeapUserStore(ByteBuffer buffer, FileChannel channel) {
+        this.buffer = buffer;
+        this.channel = channel;
+    }
+
+    /**
+     * Creates an empty store in direct memory. Direct memory is limited by the
+     * -XX:MaxDirectMemorySize JVM option, which defaults to the maximum heap
+     * size.
+     *
+     * @param capacity The size of the buffer in bytes.
+     * @return The store.
+     */
+    public static OffHeapUserStore allocate(int capacity) {
+        return new OffHeapUserStore(ByteBuffer.allocateDirect(capacity), null);
+    }
+
+    /**
+     * Opens a store backed by a memory-mapped file, creating the file if it
+     * does not exist. The users of a cleanly closed store with the same file
+     * and database ID are loaded.
+     *
+     * @param file       The file of the store.
+     * @param capacity   The size of the file in bytes.
+     * @param databaseId The ID of the database the users are cached from,
+     *                   which must change whenever the database is recreated.
+     * @return The store.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    public static OffHeapUserStore map(Path file, int capacity, long databaseId) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            OffHeapUserStore store = new OffHeapUserStore(buffer, channel);
+            store.load(databaseId);
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the user with the given ID.
+     *
+     * @param id The ID of the user.
+     * @return A new user object decoded from the store, or {@code null} if the
+     *         store does not hold the user.
+     */
+    public User get(long id) {
+        lock.readLock().lock();
+        try {
+            int offset = offsets.get(id);
+            return offset == LongIntHashMap.NO_VALUE ? null : read(offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores the user, replacing a stored user with the same ID. A user with
+     * a string longer than {@value #MAX_STRING_BYTES} UTF-8 bytes or a date of
+     * birth whose epoch day does not fit an int is not stored, and a stored
+     * user with its ID is removed; it is read from the database instead.
+     *
+     * @param user The user to be stored; its ID must not be {@code null}.
+     */
+    public void put(User user) {
+        long epochDay = user.getDateOfBirth().toEpochDay();
+        if (epochDay != (int) epochDay) {
+            remove(user.getId());
+            return;
+        }
+        byte[][] strings = {utf8(user.getFirstName()), utf8(user.getLastName()), utf8(user.getEmail()),
+            utf8(user.getAddress()), utf8(user.getPhoneNumber())};
+        int length = RECORD_HEADER_SIZE + USER_FIELDS_SIZE;
+        for (byte[] string : strings) {
+            if (string != null && string.length > MAX_STRING_BYTES) {
+                remove(user.getId());
+                return;
+            }
+            length += 2 + (string == null ? 0 : string.length);
+        }
+        lock.writeLock().lock();
+        try {
+            reserve(length);
+            int offset = end;
+            writeRecordHeader(length, USER_RECORD, user.getId());
+            buffer.putLong(user.getVersion() == null ? NULL_VERSION : user.getVersion());
+            buffer.putInt((int) epochDay);
+            for (byte[] string : strings) {
+                if (string == null) {
+                    buffer.putShort((short) NULL_STRING);
+                } else {
+                    buffer.putShort((short) string.length);
+                    buffer.put(string);
+                }
+            }
+            end = buffer.position();
+            release(offsets.put(user.getId(), offset));
+            liveBytes += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the user with the given ID.
+     *
+     * @param id The ID of the user.
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int offset = offsets.remove(id);
+            if (offset == LongIntHashMap.NO_VALUE) {
+                return;
+            }
+            release(offset);
+            if (channel != null) {
+                reserve(RECORD_HEADER_SIZE);
+                writeRecordHeader(RECORD_HEADER_SIZE, TOMBSTONE, id);
+                end = buffer.position();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all users.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            offsets.clear();
+            end = HEADER_SIZE;
+            liveBytes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of stored users.
+     *
+     * @return The number of stored users.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return offsets.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes of the buffer in use, including records of
+     * replaced and removed users that have not been compacted yet.
+     *
+     * @return The used bytes of the off-heap buffer.
+     */
+    public long usedBytes() {
+        lock.readLock().lock();
+        try {
+            return end;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes of the records of the stored users.
+     *
+     * @return The live bytes of the off-heap buffer.
+     */
+    public long liveBytes() {
+        lock.readLock().lock();
+        try {
+            return liveBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the size of the ID to offset map, the only part of the store on
+     * the heap.
+     *
+     * @return The heap used by the store in bytes.
+     */
+    public long heapBytes() {
+        lock.readLock().lock();
+        try {
+            return offsets.memoryBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the size of the off-heap buffer.
+     *
+     * @return The capacity of the store in bytes.
+     */
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Marks a file-backed store as cleanly closed and writes it to the file.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            buffer.putInt(END_OFFSET, end);
+            buffer.putInt(CLEAN_OFFSET, 1);
+            ((MappedByteBuffer) buffer).force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replays the records of a cleanly closed file of the same database and
+     * marks the file as in use, so it is ignored if the application stops
+     * without closing it.
+     */
+    private void load(long databaseId) {
+        if (buffer.getInt(MAGIC_OFFSET) == MAGIC && buffer.getInt(FORMAT_VERSION_OFFSET) == FORMAT_VERSION
+            && buffer.getInt(CLEAN_OFFSET) == 1 && buffer.getLong(DATABASE_ID_OFFSET) == databaseId) {
+            int logEnd = Math.min(buffer.getInt(END_OFFSET), buffer.capacity());
+            for (int offset = HEADER_SIZE; offset < logEnd; offset += buffer.getInt(offset)) {
+                long id = buffer.getLong(offset + 5);
+                int length = buffer.getInt(offset);
+                if (length < RECORD_HEADER_SIZE) {
+                    clear();
+                    logEnd = HEADER_SIZE;
+                    break;
+                }
+                if (buffer.get(offset + 4) == USER_RECORD) {
+                    release(offsets.put(id, offset));
+                    liveBytes += length;
+                } else {
+                    release(offsets.remove(id));
+                }
+            }
+            end = logEnd;
+        }
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(FORMAT_VERSION_OFFSET, FORMAT_VERSION);
+        buffer.putInt(CLEAN_OFFSET, 0);
+        buffer.putLong(DATABASE_ID_OFFSET, databaseId);
+        ((MappedByteBuffer) buffer).force();
+    }
+
+    private User read(int offset) {
+        int position = offset + 5;
+        long id = buffer.getLong(position);
+        long version = buffer.getLong(position + 8);
+        LocalDate dateOfBirth = LocalDate.ofEpochDay(buffer.getInt(position + 16));
+        position += 20;
+        String[] strings = new String[5];
+        for (int i = 0; i < strings.length; i++) {
+            int length = Short.toUnsignedInt(buffer.getShort(position));
+            position += 2;
+            if (length != NULL_STRING) {
+                byte[] bytes = new byte[length];
+                buffer.get(position, bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+                position += length;
+            }
+        }
+        return new User(id, strings[0], strings[1], strings[2], dateOfBirth, strings[3], strings[4],
+            version == NULL_VERSION ? null : version);
+    }
+
+    private void writeRecordHeader(int length, byte type, long id) {
+        buffer.position(end);
+        buffer.putInt(length);
+        buffer.put(type);
+        buffer.putLong(id);
+    }
+
+    private void release(int offset) {
+        if (offset != LongIntHashMap.NO_VALUE) {
+            liveBytes -= buffer.getInt(offset);
+        }
+    }
+
+    /**
+     * Makes room for a record of the given length at the end of the log,
+     * compacting the log or clearing the store if necessary.
+     */
+    private void reserve(int length) {
+        if (end + length <= buffer.capacity()) {
+            return;
+        }
+        compact();
+        if (end + length > buffer.capacity()) {
+            offsets.clear();
+            end = HEADER_SIZE;
+            liveBytes = 0;
+        }
+    }
+
+    /**
+     * Moves the live records to the start of the log, in log order, and drops
+     * the records of replaced and removed users and the tombstones.
+     */
+    private void compact() {
+        int target = HEADER_SIZE;
+        byte[] record = new byte[0];
+        for (int offset = HEADER_SIZE; offset < end; ) {
+            int length = buffer.getInt(offset);
+            if (buffer.get(offset + 4) == USER_RECORD && offsets.get(buffer.getLong(offset + 5)) == offset) {
+                if (target != offset) {
+                    if (record.length < length) {
+                        record = new byte[length];
+                    }
+                    buffer.get(offset, record, 0, length);
+                    buffer.put(target, record, 0, length);
+                    offsets.put(buffer.getLong(target + 5), target);
+                }
+                target += length;
+            }
+            offset += length;
+        }
+        end = target;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.userdemo.config;
+
+import com.example.userdemo.service.UserService;
+import com.example.userdemo.service.UserWriteQueue;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+/**
+ * Asynchronous write mode, enabled by setting the userdemo.writes.async
+ * property to true.
+ *
+ * Creates and updates are put on the {@link UserWriteQueue} and answered with
+ * 202 Accepted and the location of the write status instead of waiting for the
+ * database. The writer commits up to userdemo.writes.batchSize writes per
+ * transaction, waiting up to userdemo.writes.linger for a batch to fill, and
+ * rejects writes with 429 Too Many Requests while
+ * userdemo.writes.queueCapacity writes are waiting.
+ */
+@Configuration
+@ConditionalOnProperty(name = "userdemo.writes.async", havingValue = "true")
+public class AsyncWriteConfig {
+
+    /**
+     * Creates the write queue. Its writer thread is started and stopped with
+     * the application context.
+     *
+     * @param userService        The service that applies the writes.
+     * @param transactionManager The transaction manager of the batches.
+     * @param meterRegistry      The registry of the queue metrics.
+     * @param capacity           The maximum number of queued writes.
+     * @param batchSize          The maximum number of writes per transaction.
+     * @param linger             How long the writer waits for a batch to fill.
+     * @param statusRetention    How long the status of a write is kept.
+     * @return The user write queue.
+     */
+    @Bean
+    public UserWriteQueue userWriteQueue(UserService userService, PlatformTransactionManager transactionManager,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${userdemo.writes.queueCapacity:10000}") int capacity,
+                                         @Value("${userdemo.writes.batchSize:500}") int batchSize,
+                                         @Value("${userdemo.writes.linger:5ms}") Duration linger,
+                                         @Value("${userdemo.writes.statusRetention:10m}") Duration statusRetention) {
+        return new UserWriteQueue(userService, transactionManager, meterRegistry, capacity, batchSize, linger,
+            statusRetention);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.userdemo.config;
+
+import com.example.userdemo.cache.OffHeapUserCache;
+import com.example.userdemo.cache.OffHeapUserStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Cache configuration of the application.
+ *
+ * Users are cached by ID in a bounded Caffeine cache whose size, expiry and
+ * statistics recording are defined by the userdemo.cache.usersSpec property.
+ * Cache puts and evictions made inside a transaction are applied only after
+ * the transaction commits, so a rolled back write never reaches the cache.
+ * Hit, miss and eviction statistics are published as cache.* metrics.
+ *
+ * Setting userdemo.cache.offHeap.enabled to true replaces the Caffeine cache
+ * with an {@link OffHeapUserStore} of userdemo.cache.offHeap.capacity bytes,
+ * which keeps the users serialized outside the heap without expiry. When
+ * userdemo.cache.offHeap.file is set the store is a memory-mapped file that is
+ * reloaded after a restart of the same database. The file requires the schema
+ * to be created by the Flyway migrations and not by Hibernate; the first
+ * applied migration identifies the database, so the file is dropped when the
+ * database is recreated. As the file is not checked against the rows, it must
+ * only be used by a single application instance that makes all the writes.
+ * The store size is published as userdemo.cache.offheap.* metrics.
+ */
+@Configuration
+@EnableCaching
+public class CachingConfig {
+    public static final String USERS_CACHE = "users";
+    public static final String OFF_HEAP_USERS_METRIC = "userdemo.cache.offheap.users";
+    public static final String OFF_HEAP_USED_METRIC = "userdemo.cache.offheap.used";
+    public static final String OFF_HEAP_LIVE_METRIC = "userdemo.cache.offheap.live";
+
+    /**
+     * Creates the transaction-aware Caffeine cache manager.
+     *
+     * @param usersSpec The Caffeine specification of the users cache.
+     * @return The cache manager.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "userdemo.cache.offHeap.enabled", havingValue = "false", matchIfMissing = true)
+    public CacheManager cacheManager(@Value("${userdemo.cache.usersSpec}") String usersSpec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(USERS_CACHE);
+        caffeineCacheManager.setCacheSpecification(usersSpec);
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+
+    /**
+     * Creates the off-heap user store, in direct memory or in a memory-mapped
+     * file.
+     *
+     * @param capacity          The size of the store.
+     * @param file              The file of the store, or empty for direct
+     *                          memory.
+     * @param ddlAuto           The schema management of Hibernate.
+     * @param flywayInitializer The Flyway migration, run before the file is
+     *                          opened.
+     * @param flyway            Flyway, if enabled.
+     * @param meterRegistry     The registry of the store gauges.
+     * @return The off-heap user store.
+     * @throws IOException           If the file cannot be opened or mapped.
+     * @throws IllegalStateException If a file is set but the database cannot
+     *                               be identified.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "userdemo.cache.offHeap.enabled", havingValue = "true")
+    public OffHeapUserStore offHeapUserStore(@Value("${userdemo.cache.offHeap.capacity:256MB}") DataSize capacity,
+                                             @Value("${userdemo.cache.offHeap.file:}") String file,
+                                             @Value("${spring.jpa.hibernate.ddl-auto:}") String ddlAuto,
+                                             ObjectProvider<FlywayMigrationInitializer> flywayInitializer,
+                                             ObjectProvider<Flyway> flyway,
+                                             MeterRegistry meterRegistry) throws IOException {
+        int bytes = Math.toIntExact(capacity.toBytes());
+        OffHeapUserStore store = file.isEmpty()
+            ? OffHeapUserStore.allocate(bytes)
+            : OffHeapUserStore.map(Path.of(file), bytes, databaseId(ddlAuto, flywayInitializer, flyway));
+        Gauge.builder(OFF_HEAP_USERS_METRIC, store, OffHeapUserStore::size)
+            .description("Users in the off-heap users cache")
+            .register(meterRegistry);
+        Gauge.builder(OFF_HEAP_USED_METRIC, store, OffHeapUserStore::usedBytes)
+            .description("Off-heap bytes in use, including replaced records")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder(OFF_HEAP_LIVE_METRIC, store, OffHeapUserStore::liveBytes)
+            .description("Off-heap bytes of the cached users")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        return store;
+    }
+
+    /**
+     * Identifies the database by the installation of its first Flyway
+     * migration, which only changes when the database is recreated.
+     */
+    private static long databaseId(String ddlAuto, ObjectProvider<FlywayMigrationInitializer> flywayInitializer,
+                                   ObjectProvider<Flyway> flyway) {
+        if (!ddlAuto.equals("none") && !ddlAuto.equals("validate")) {
+            throw new IllegalStateException("userdemo.cache.offHeap.file requires spring.jpa.hibernate.ddl-auto "
+                + "to be none or validate, as a schema created by Hibernate does not identify the database");
+        }
+        // Getting the initializer runs the migration, so a new database has its history before it is read.
+        flywayInitializer.getIfAvailable();
+        Flyway migrations = flyway.getIfAvailable();
+        MigrationInfo[] applied = migrations == null ? new MigrationInfo[0] : migrations.info().applied();
+        if (applied.length == 0) {
+            throw new IllegalStateException("userdemo.cache.offHeap.file requires the schema to be created by "
+                + "the Flyway migrations, which identify the database");
+        }
+        MigrationInfo first = applied[0];
+        return first.getInstalledOn().getTime() * 31 + Objects.requireNonNullElse(first.getChecksum(), 0);
+    }
+
+    /**
+     * Creates the transaction-aware cache manager of the off-heap users cache.
+     *
+     * @param offHeapUserStore The off-heap user store.
+     * @return The cache manager.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "userdemo.cache.offHeap.enabled", havingValue = "true")
+    public CacheManager offHeapCacheManager(OffHeapUserStore offHeapUserStore) {
+        SimpleCacheManager simpleCacheManager = new SimpleCacheManager();
+        simpleCacheManager.setCaches(List.of(new OffHeapUserCache(USERS_CACHE, offHeapUserStore)));
+        simpleCacheManager.initializeCaches();
+        return new TransactionAwareCacheManagerProxy(simpleCacheManager);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.userdemo.config;
+
+import com.example.userdemo.service.CurrentDateProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.ZoneId;
+
+/**
+ * Clock configuration of the application.
+ *
+ * The date validators read the current date from the CurrentDateProvider,
+ * which caches it per day of the clock defined here. The time zone is set by
+ * the userdemo.time.zone property (the system default zone when empty).
+ * Tests can replace the clock with a {@code @Primary} Clock bean.
+ */
+@Configuration
+public class ClockConfig {
+
+    /**
+     * Creates the system clock in the configured time zone.
+     *
+     * @param zone The time zone ID; empty for the system default zone.
+     * @return The clock.
+     */
+    @Bean
+    public Clock clock(@Value("${userdemo.time.zone:}") String zone) {
+        return zone.isBlank() ? Clock.systemDefaultZone() : Clock.system(ZoneId.of(zone));
+    }
+
+    /**
+     * Creates the day-granularity provider of the current date.
+     *
+     * @param clock The clock.
+     * @return The current date provider.
+     */
+    @Bean
+    public CurrentDateProvider currentDateProvider(Clock clock) {
+        return new CurrentDateProvider(clock);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.userdemo.config;
+
+import com.example.userdemo.filter.DeferredFlushFilter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Encodings and compression of the API.
+ *
+ * Requests and responses can be encoded as CBOR ({@code application/cbor})
+ * or Smile ({@code application/x-jackson-smile}) by setting the Content-Type
+ * and Accept headers; JSON stays the default. The binary mappers are built by
+ * the same Jackson2ObjectMapperBuilder as the JSON one, so the spring.jackson.*
+ * settings and modules apply to every encoding.
+ *
+ * Responses of those types are gzip compressed by the container when the
+ * client accepts it and the body reaches server.compression.min-response-size;
+ * the DeferredFlushFilter makes the size of small bodies known for that check.
+ */
+@Configuration
+public class ContentEncodingConfig {
+
+    /**
+     * Creates the CBOR message converter.
+     *
+     * @param builder The ObjectMapper builder configured by Spring Boot.
+     * @return The CBOR message converter.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Creates the Smile message converter.
+     *
+     * @param builder The ObjectMapper builder configured by Spring Boot.
+     * @return The Smile message converter.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Creates the filter which defers flushing synchronous responses, so the
+     * container can measure small bodies before deciding to compress them.
+     *
+     * @return The deferred flush filter.
+     */
+    @Bean
+    public DeferredFlushFilter deferredFlushFilter() {
+        return new DeferredFlushFilter();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.userdemo.config;
+
+import com.example.userdemo.repository.UserRepository;
+import com.example.userdemo.service.DateOfBirthIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-memory date of birth index, enabled by setting the
+ * userdemo.index.dateOfBirth property to true.
+ *
+ * The {@link DateOfBirthIndex} is loaded from the database at startup and
+ * kept up to date by the committed creates, updates and deletes of
+ * UserService, which then answers date of birth range queries from memory.
+ * The number of indexed users and the estimated heap used by the index are
+ * published as the userdemo.index.users and userdemo.index.memory gauges.
+ * The index only sees writes made through this application instance.
+ */
+@Configuration
+@ConditionalOnProperty(name = "userdemo.index.dateOfBirth", havingValue = "true")
+public class DateOfBirthIndexConfig {
+    public static final String INDEX_USERS_METRIC = "userdemo.index.users";
+    public static final String INDEX_MEMORY_METRIC = "userdemo.index.memory";
+
+    /**
+     * Creates the index and loads all users into it.
+     *
+     * @param userRepository The repository the users are loaded from.
+     * @param meterRegistry  The registry of the index gauges.
+     * @return The loaded date of birth index.
+     */
+    @Bean
+    public DateOfBirthIndex dateOfBirthIndex(UserRepository userRepository, MeterRegistry meterRegistry) {
+        DateOfBirthIndex dateOfBirthIndex = new DateOfBirthIndex();
+        dateOfBirthIndex.load(userRepository.findAllDetached());
+        Gauge.builder(INDEX_USERS_METRIC, dateOfBirthIndex, DateOfBirthIndex::size)
+            .description("Users in the date of birth index")
+            .register(meterRegistry);
+        Gauge.builder(INDEX_MEMORY_METRIC, dateOfBirthIndex, DateOfBirthIndex::memoryBytes)
+            .description("Estimated heap used by the date of birth index")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        return dateOfBirthIndex;
+    }
+}
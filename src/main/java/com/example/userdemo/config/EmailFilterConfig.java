@@ -0,0 +1,55 @@
+package com.example.userdemo.config;
+
+import com.example.userdemo.repository.UserRepository;
+import com.example.userdemo.service.EmailBloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * Duplicate email pre-check, enabled unless the userdemo.emailFilter.enabled
+ * property is false.
+ *
+ * The {@link EmailBloomFilter} is filled with the email addresses of all
+ * users at startup and with the address of every created or updated user.
+ * A new user whose address is certainly not in the filter is inserted without
+ * a duplicate lookup; for any other address the unique email index is
+ * queried first, so a duplicate is answered with 409 Conflict without an
+ * INSERT. The filter is sized by userdemo.emailFilter.expectedEmails and
+ * userdemo.emailFilter.falsePositiveRate.
+ */
+@Configuration
+@ConditionalOnProperty(name = "userdemo.emailFilter.enabled", havingValue = "true", matchIfMissing = true)
+public class EmailFilterConfig {
+
+    /**
+     * Creates the email filter and adds the email addresses of all users.
+     *
+     * @param userRepository     The repository the addresses are read from.
+     * @param transactionManager The transaction manager of the read.
+     * @param expectedEmails     The expected number of addresses.
+     * @param falsePositiveRate  The share of false positives at the expected
+     *                           number of addresses.
+     * @return The filled email filter.
+     */
+    @Bean
+    public EmailBloomFilter emailBloomFilter(UserRepository userRepository,
+                                             PlatformTransactionManager transactionManager,
+                                             @Value("${userdemo.emailFilter.expectedEmails:1000000}") long expectedEmails,
+                                             @Value("${userdemo.emailFilter.falsePositiveRate:0.01}") double falsePositiveRate) {
+        EmailBloomFilter emailFilter = new EmailBloomFilter(expectedEmails, falsePositiveRate);
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<String> emails = userRepository.streamAllEmails()) {
+                emails.forEach(emailFilter::add);
+            }
+        });
+        return emailFilter;
+    }
+}
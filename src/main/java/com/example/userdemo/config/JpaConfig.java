@@ -0,0 +1,16 @@
+package com.example.userdemo.config;
+
+import com.example.userdemo.repository.UserRepository;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * JPA configuration of the application.
+ *
+ * JPA repositories are looked up only in the package of {@link UserRepository},
+ * so the R2DBC repositories of the reactive variant are left alone.
+ */
+@Configuration
+@EnableJpaRepositories(basePackageClasses = UserRepository.class)
+public class JpaConfig {
+}
@@ -0,0 +1,69 @@
+package com.example.userdemo.config;
+
+import com.example.userdemo.metrics.RepositoryMetricsAspect;
+import com.example.userdemo.metrics.StatementCounter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics configuration of the application.
+ *
+ * HTTP requests and repository calls are timed by Spring Boot
+ * (http.server.requests and spring.data.repository.invocations). On top of
+ * that, methods annotated with {@code @Timed} are timed by the TimedAspect,
+ * and every UserRepository call records its SQL statement and row counts.
+ * All metrics are exposed at /actuator/metrics and /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Creates the aspect which times methods annotated with {@code @Timed}.
+     *
+     * @param meterRegistry The meter registry.
+     * @return The timed aspect.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Creates the counter of the SQL statements prepared by Hibernate.
+     *
+     * @return The statement counter.
+     */
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    /**
+     * Registers the statement counter as the Hibernate statement inspector.
+     *
+     * @param statementCounter The statement counter.
+     * @return The Hibernate properties customizer.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    /**
+     * Creates the aspect which records SQL statement and row counts of
+     * UserRepository calls.
+     *
+     * @param meterRegistry    The meter registry.
+     * @param statementCounter The statement counter.
+     * @return The repository metrics aspect.
+     */
+    @Bean
+    public RepositoryMetricsAspect repositoryMetricsAspect(MeterRegistry meterRegistry,
+                                                           StatementCounter statementCounter) {
+        return new RepositoryMetricsAspect(meterRegistry, statementCounter);
+    }
+}
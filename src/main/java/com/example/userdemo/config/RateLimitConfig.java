@@ -0,0 +1,102 @@
+package com.example.userdemo.config;
+
+import com.example.userdemo.interceptor.AimdConcurrencyLimiter;
+import com.example.userdemo.interceptor.RateLimitInterceptor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Rate limiting and admission control of the API, enabled by setting the
+ * userdemo.rateLimit.enabled property to true (the prod profile does).
+ *
+ * The {@link RateLimitInterceptor} runs before any other interceptor. It
+ * gives every client a token bucket per endpoint, refilled at
+ * userdemo.rateLimit.requestsPerSecond with bursts of
+ * userdemo.rateLimit.burst, and admits at most
+ * userdemo.rateLimit.maxConcurrentRequests requests at once, fewer while
+ * requests take longer than userdemo.rateLimit.latencyThreshold. Expensive
+ * list and range endpoints have their own userdemo.rateLimit.expensive.*
+ * settings, and their concurrency limit should stay below the connection pool
+ * size. Rejected requests get 429 Too Many Requests with a Retry-After header.
+ * The current concurrency limits and requests in flight are published as the
+ * userdemo.concurrency.limit and userdemo.concurrency.inflight gauges, tagged
+ * with the pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "userdemo.rateLimit.enabled", havingValue = "true")
+public class RateLimitConfig implements WebMvcConfigurer {
+    public static final String CONCURRENCY_LIMIT_METRIC = "userdemo.concurrency.limit";
+    public static final String CONCURRENCY_IN_FLIGHT_METRIC = "userdemo.concurrency.inflight";
+
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    /**
+     * Creates the configuration and the limits.
+     *
+     * @param requestsPerSecond                  The request rate per client and endpoint.
+     * @param burst                              The burst per client and endpoint.
+     * @param maxConcurrentRequests              The concurrency limit.
+     * @param latencyThreshold                   The latency that lowers the concurrency limit.
+     * @param expensiveRequestsPerSecond         The request rate per client and expensive endpoint.
+     * @param expensiveBurst                     The burst per client and expensive endpoint.
+     * @param maxConcurrentExpensiveRequests     The concurrency limit of the expensive endpoints.
+     * @param expensiveLatencyThreshold          The latency that lowers the expensive concurrency limit.
+     * @param maxClients                         The maximum number of tracked client buckets.
+     */
+    public RateLimitConfig(
+        @Value("${userdemo.rateLimit.requestsPerSecond:50}") double requestsPerSecond,
+        @Value("${userdemo.rateLimit.burst:100}") int burst,
+        @Value("${userdemo.rateLimit.maxConcurrentRequests:50}") int maxConcurrentRequests,
+        @Value("${userdemo.rateLimit.latencyThreshold:500ms}") Duration latencyThreshold,
+        @Value("${userdemo.rateLimit.expensive.requestsPerSecond:1}") double expensiveRequestsPerSecond,
+        @Value("${userdemo.rateLimit.expensive.burst:5}") int expensiveBurst,
+        @Value("${userdemo.rateLimit.expensive.maxConcurrentRequests:4}") int maxConcurrentExpensiveRequests,
+        @Value("${userdemo.rateLimit.expensive.latencyThreshold:5s}") Duration expensiveLatencyThreshold,
+        @Value("${userdemo.rateLimit.maxClients:100000}") long maxClients) {
+        this.rateLimitInterceptor = new RateLimitInterceptor(
+            new RateLimitInterceptor.Limits(requestsPerSecond, burst,
+                new AimdConcurrencyLimiter(1, maxConcurrentRequests, latencyThreshold.toNanos())),
+            new RateLimitInterceptor.Limits(expensiveRequestsPerSecond, expensiveBurst,
+                new AimdConcurrencyLimiter(1, maxConcurrentExpensiveRequests, expensiveLatencyThreshold.toNanos())),
+            maxClients, System::nanoTime);
+    }
+
+    /**
+     * Exposes the interceptor and publishes the gauges of its concurrency
+     * limits.
+     *
+     * @param meterRegistry The registry of the gauges.
+     * @return The rate limit interceptor.
+     */
+    @Bean
+    public RateLimitInterceptor rateLimitInterceptor(MeterRegistry meterRegistry) {
+        registerGauges(meterRegistry, "default", rateLimitInterceptor.getConcurrencyLimiter());
+        registerGauges(meterRegistry, "expensive", rateLimitInterceptor.getExpensiveConcurrencyLimiter());
+        return rateLimitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/v1/**").order(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    private static void registerGauges(MeterRegistry meterRegistry, String pool, AimdConcurrencyLimiter limiter) {
+        Gauge.builder(CONCURRENCY_LIMIT_METRIC, limiter, AimdConcurrencyLimiter::getLimit)
+            .description("Current adaptive concurrency limit")
+            .tag("pool", pool)
+            .register(meterRegistry);
+        Gauge.builder(CONCURRENCY_IN_FLIGHT_METRIC, limiter, AimdConcurrencyLimiter::getInFlight)
+            .description("Requests admitted and not yet completed")
+            .tag("pool", pool)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.userdemo.config;
+
+import com.example.userdemo.model.User;
+import com.example.userdemo.repository.UserRepository;
+import com.example.userdemo.search.UserSearchIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Full-text user search, enabled unless the userdemo.search.enabled property
+ * is false.
+ *
+ * The {@link UserSearchIndex} is rebuilt from the database at startup and
+ * kept up to date by the committed creates, updates and deletes of
+ * UserService, which answers search queries with the users of the matching
+ * IDs. The index is kept in memory, or in the local directory set by
+ * userdemo.search.directory, which keeps it out of the heap. The number of
+ * indexed users is published as the userdemo.search.users gauge. The index
+ * only sees writes made through this application instance.
+ */
+@Configuration
+@ConditionalOnProperty(name = "userdemo.search.enabled", havingValue = "true", matchIfMissing = true)
+public class SearchConfig {
+    public static final String SEARCH_USERS_METRIC = "userdemo.search.users";
+
+    /**
+     * Creates the search index and adds all users to it.
+     *
+     * @param userRepository     The repository the users are read from.
+     * @param transactionManager The transaction manager of the read.
+     * @param meterRegistry      The registry of the index gauge.
+     * @param directory          The directory of the index files, or empty to
+     *                           keep the index in memory.
+     * @return The filled search index, closed when the context is closed.
+     * @throws IOException If the index cannot be opened.
+     */
+    @Bean(destroyMethod = "close")
+    public UserSearchIndex userSearchIndex(UserRepository userRepository,
+                                           PlatformTransactionManager transactionManager,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${userdemo.search.directory:}") String directory)
+        throws IOException {
+        Directory indexDirectory = directory.isBlank()
+            ? new ByteBuffersDirectory()
+            : FSDirectory.open(Path.of(directory));
+        UserSearchIndex userSearchIndex = new UserSearchIndex(indexDirectory);
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<User> users = userRepository.streamAllDetached()) {
+                userSearchIndex.rebuild(users);
+            }
+        });
+        Gauge.builder(SEARCH_USERS_METRIC, userSearchIndex, UserSearchIndex::size)
+            .description("Users in the search index")
+            .register(meterRegistry);
+        return userSearchIndex;
+    }
+}
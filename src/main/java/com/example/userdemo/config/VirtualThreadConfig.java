@@ -0,0 +1,117 @@
+package com.example.userdemo.config;
+
+import com.example.userdemo.interceptor.ConnectionPermitInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual thread request execution mode, enabled by setting the
+ * userdemo.threads.virtual property to true. Requires Java 21 or later.
+ *
+ * Tomcat hands every request to a new virtual thread instead of its platform
+ * thread pool, and the asynchronous part of streaming responses runs on
+ * virtual threads as well. Transactional service calls run on the request
+ * thread, so they block virtual rather than platform threads on JDBC.
+ *
+ * Because the container no longer limits concurrency, the
+ * {@link ConnectionPermitInterceptor} admits at most as many API requests as
+ * the connection pool has connections (or userdemo.threads.maxConcurrentRequests
+ * when it is set) and rejects requests that wait longer than
+ * userdemo.threads.permitTimeout with 503 Service Unavailable.
+ */
+@Configuration
+@ConditionalOnProperty(name = "userdemo.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig implements WebMvcConfigurer {
+    private final ConnectionPermitInterceptor connectionPermitInterceptor;
+
+    /**
+     * Creates the configuration and sizes the concurrency limit.
+     *
+     * @param dataSource            The application data source.
+     * @param maxConcurrentRequests The configured concurrency limit, or 0 to use
+     *                              the connection pool size.
+     * @param permitTimeout         How long a request waits for a permit.
+     */
+    public VirtualThreadConfig(DataSource dataSource,
+                               @Value("${userdemo.threads.maxConcurrentRequests:0}") int maxConcurrentRequests,
+                               @Value("${userdemo.threads.permitTimeout:1s}") Duration permitTimeout) {
+        int permits = maxConcurrentRequests > 0 ? maxConcurrentRequests : connectionPoolSize(dataSource);
+        this.connectionPermitInterceptor = new ConnectionPermitInterceptor(permits, permitTimeout);
+    }
+
+    /**
+     * Creates the executor that starts a new virtual thread for every task.
+     *
+     * @return The virtual thread per task executor.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("userdemo.threads.virtual requires Java 21 or later, running on "
+                + Runtime.version(), e);
+        }
+    }
+
+    /**
+     * Makes Tomcat run requests on virtual threads.
+     *
+     * @param virtualThreadExecutor The virtual thread per task executor.
+     * @return The Tomcat protocol handler customizer.
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+        ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    /**
+     * Replaces the application task executor, which Spring MVC uses to write
+     * streaming responses, with one backed by virtual threads.
+     *
+     * @param virtualThreadExecutor The virtual thread per task executor.
+     * @return The application task executor.
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    /**
+     * Exposes the concurrency limiter, e.g. for monitoring.
+     *
+     * @return The connection permit interceptor.
+     */
+    @Bean
+    public ConnectionPermitInterceptor connectionPermitInterceptor() {
+        return connectionPermitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(connectionPermitInterceptor).addPathPatterns("/v1/**");
+    }
+
+    private static int connectionPoolSize(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikariDataSource) {
+            return hikariDataSource.getMaximumPoolSize();
+        }
+        throw new IllegalStateException("Cannot determine the connection pool size of "
+            + dataSource.getClass().getName() + ", set userdemo.threads.maxConcurrentRequests");
+    }
+}
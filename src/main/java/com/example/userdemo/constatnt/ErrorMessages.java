@@ -1,12 +1,47 @@
 package com.example.userdemo.constatnt;
 
+import static com.example.userdemo.constatnt.ValidationConstants.FILTER_MAX_AGE;
+
 public class ErrorMessages {
     public static final String USER_NOT_FOUND_BY_ID = "User not found by provided ID: ";
+    public static final String USER_NOT_FOUND_BY_EMAIL = "User not found by provided email: ";
+    public static final String USER_VERSION_MISMATCH = "The user has been modified since the provided version. "
+            + "Fetch the current version and retry. User ID: ";
+    public static final String WRONG_IF_MATCH = "The If-Match header must contain a single strong ETag "
+            + "previously returned by the API.";
     public static final String WRONG_TIME_PERIOD = "Please specify a valid time period using two dates. "
             + "Ensure that the 'from' date occurs before the 'to' date.";
     public static final String WRONG_PHONE_NUMBER = "The phone number format is incorrect. "
             + "Acceptable phone number formats: +38(123)456-7890, +381234567890, 0504567890.";
     public static final String WRONG_EMAIL = "The email address can be 5 to 50 characters in "
             + "length and the domain part can be 2 to 4 characters in length.";
+    public static final String WRONG_PAGE_TOKEN = "The page token is malformed. "
+            + "Use the nextPageToken value returned by the previous page.";
+    public static final String WRONG_PAGE_SIZE = "The page size must be between 1 and ";
+    public static final String WRONG_SEARCH_QUERY = "The search query must contain at least one letter or digit.";
+    public static final String WRONG_SEARCH_PAGE = "Only the best search results can be paged through. "
+            + "The position of the page plus the page size must not exceed ";
+    public static final String SEARCH_DISABLED = "The user search is not enabled.";
+    public static final String WRONG_SORT = "The sort must be one of id, firstName, lastName, email and "
+            + "dateOfBirth, optionally followed by ',asc' or ',desc'.";
+    public static final String WRONG_AGE_RANGE = "The ages must be between 0 and " + FILTER_MAX_AGE
+            + " and minAge must not be greater than maxAge.";
+    public static final String WRONG_NAME_FILTER = "A name can be filtered either by its exact value or by "
+            + "its start, not both.";
+    public static final String WRONG_FIELDS = "The fields parameter must be either 'all' or 'summary'.";
+    public static final String WRONG_BATCH_SIZE = "The number of users in a batch must be between 1 and ";
+    public static final String DUPLICATE_EMAIL = "email - A user with this email address already exists";
+    public static final String EMAIL_ALREADY_EXISTS = "A user with this email address already exists: ";
+    public static final String USER_CONFLICT = "The user conflicts with a saved user. "
+            + "Its email address may already be taken.";
+    public static final String SERVICE_BUSY = "The service is handling too many requests. "
+            + "Retry the request later.";
+    public static final String RATE_LIMITED = "Too many requests from this client to this endpoint. "
+            + "Retry the request later.";
+    public static final String WRITE_QUEUE_FULL = "Too many writes are waiting to be processed. "
+            + "Retry the request later.";
+    public static final String WRITE_QUEUE_STOPPED = "The service is shutting down and no longer accepts writes. "
+            + "Retry the request later.";
+    public static final String WRITE_NOT_FOUND_BY_ID = "Write not found by provided ID: ";
 
 }
@@ -8,6 +8,7 @@ public class ValidationConstants {
     public static final int EMAIL_MAX_LENGTH = 50;
     public static final int ADDRESS_MIN_LENGTH = 5;
     public static final int ADDRESS_MAX_LENGTH = 120;
+    public static final int FILTER_MAX_AGE = 150;
     public static final String PHONE_NUMBER_PATTERN = "^(\\+\\d{1,3}( )?)?((\\(\\d{3}\\))|\\d{3})[- .]?\\d{3}[- .]?\\d{4}$"
             + "|^(\\+\\d{1,3}( )?)?(\\d{3}[ ]?){2}\\d{3}$"
             + "|^(\\+\\d{1,3}( )?)?(\\d{3}[ ]?)(\\d{2}[ ]?){2}\\d{2}$";
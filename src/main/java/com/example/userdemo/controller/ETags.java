@@ -0,0 +1,48 @@
+package com.example.userdemo.controller;
+
+import com.example.userdemo.exception.PreconditionFailedException;
+import com.example.userdemo.model.User;
+
+import static com.example.userdemo.constatnt.ErrorMessages.WRONG_IF_MATCH;
+
+/**
+ * Conversion between user versions and the strong ETags sent to clients.
+ */
+public final class ETags {
+    private ETags() {
+    }
+
+    /**
+     * Returns the ETag of a user, which is its quoted version.
+     *
+     * @param user The user.
+     * @return The ETag of the user.
+     */
+    public static String of(User user) {
+        return "\"" + user.getVersion() + "\"";
+    }
+
+    /**
+     * Parses the version out of an If-Match header.
+     *
+     * @param ifMatch The If-Match header value, may be null.
+     * @return The version, or null if the header is absent or matches any
+     *         version.
+     * @throws PreconditionFailedException If the header is not a single strong
+     *                                     ETag returned by the API.
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        if (eTag.length() < 3 || eTag.charAt(0) != '"' || eTag.charAt(eTag.length() - 1) != '"') {
+            throw new PreconditionFailedException(WRONG_IF_MATCH);
+        }
+        try {
+            return Long.valueOf(eTag.substring(1, eTag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException(WRONG_IF_MATCH);
+        }
+    }
+}
@@ -1,18 +1,31 @@
 package com.example.userdemo.controller;
 
+import com.example.userdemo.annotations.ExpensiveEndpoint;
+import com.example.userdemo.dto.UserBatchResultDto;
+import com.example.userdemo.dto.UserFilterDto;
+import com.example.userdemo.dto.UserFields;
+import com.example.userdemo.dto.UserPageDto;
 import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.dto.WriteStatusDto;
+import com.example.userdemo.exception.NotFoundException;
 import com.example.userdemo.model.User;
 import com.example.userdemo.service.UserService;
+import com.example.userdemo.service.UserWriteQueue;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -21,9 +34,15 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.example.userdemo.constatnt.ErrorMessages.WRITE_NOT_FOUND_BY_ID;
 
 /**
  * User Controller for managing user-related operations.
@@ -36,6 +55,19 @@ import java.util.List;
  * @RequiredArgsConstructor: Automatically generates a constructor with required
  *                           fields.
  * @Tag: Provides OpenAPI (Swagger) documentation for this controller.
+ *
+ * Single-user responses carry the version of the user as a strong ETag.
+ * Reads honour If-None-Match and answer 304 Not Modified without a body when
+ * the user is unchanged; updates honour If-Match and fail with 412
+ * Precondition Failed when the user has been modified in the meantime.
+ *
+ * In the asynchronous write mode creates and updates are queued and answered
+ * with 202 Accepted, the location of the write status and the status itself;
+ * the outcome is polled from /v1/users/writes/{id}.
+ *
+ * Endpoints whose cost grows with the number of users are annotated with
+ * {@link ExpensiveEndpoint}, which gives them their own, smaller rate and
+ * concurrency limits when rate limiting is enabled.
  */
 
 @RestController
@@ -44,32 +76,64 @@ import java.util.List;
 @Tag(name = "User Controller", description = "API for administrator to support menu items")
 public class UserController {
     private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final Optional<UserWriteQueue> userWriteQueue;
 
     /**
      * Add new User.
      *
      * @param user The user object to be created. Must be a valid User entity.
-     * @return ResponseEntity containing the saved User.
+     * @return ResponseEntity containing the saved User and its ETag, or the
+     *         status of the queued write in the asynchronous write mode.
      */
     @Operation(
         summary = "Add new User",
         description = "returns saved User")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "User created successfully"),
-        @ApiResponse(responseCode = "400", description = "Exception during new User validating")
+        @ApiResponse(responseCode = "202", description = "User creation queued"),
+        @ApiResponse(responseCode = "400", description = "Exception during new User validating"),
+        @ApiResponse(responseCode = "409", description = "User with the email address already exists"),
+        @ApiResponse(responseCode = "429", description = "Too many queued writes")
     })
     @PostMapping
-    public ResponseEntity<User> register(@RequestBody @Valid User user) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(userService.create(user));
+    public ResponseEntity<?> register(@RequestBody @Valid User user) {
+        if (userWriteQueue.isPresent()) {
+            return accepted(userWriteQueue.get().create(user));
+        }
+        User savedUser = userService.create(user);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(savedUser)).body(savedUser);
+    }
+
+    /**
+     * Add many new Users at once.
+     *
+     * @param users The user objects to be created. Every user is validated on
+     *              its own, so invalid users do not prevent the others from
+     *              being created.
+     * @return ResponseEntity containing the result for every submitted user.
+     */
+    @Operation(
+        summary = "Add many new Users",
+        description = "returns the result for every submitted User in the submitted order")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed, see per-user results"),
+        @ApiResponse(responseCode = "400", description = "Empty or too large batch")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<UserBatchResultDto>> registerAll(@RequestBody List<User> users) {
+        return ResponseEntity.ok(userService.createAll(users));
     }
 
     /**
      * Complete update of an existing User.
      *
-     * @param id   The ID of the user to be updated.
-     * @param user The user object with updated information. Must be a valid User
-     *             entity.
-     * @return ResponseEntity containing the updated User.
+     * @param id      The ID of the user to be updated.
+     * @param ifMatch The optional ETag of the version the update is based on.
+     * @param user    The user object with updated information. Must be a valid
+     *                User entity.
+     * @return ResponseEntity containing the updated User and its new ETag, or
+     *         the status of the queued write in the asynchronous write mode.
      */
     @Operation(
         summary = "Complete update of an existing User",
@@ -77,21 +141,31 @@ public class UserController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "User created successfully"),
         @ApiResponse(responseCode = "400", description = "Exception during new User validating"),
-        @ApiResponse(responseCode = "404", description = "User not found by provided ID")
+        @ApiResponse(responseCode = "404", description = "User not found by provided ID"),
+        @ApiResponse(responseCode = "202", description = "User update queued"),
+        @ApiResponse(responseCode = "412", description = "User modified since the If-Match version"),
+        @ApiResponse(responseCode = "429", description = "Too many queued writes")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<User> updateFully(@PathVariable("id") Long id,
+    public ResponseEntity<?> updateFully(@PathVariable("id") Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @RequestBody @Valid User user) {
-        return ResponseEntity.ok(userService.update(id, user));
+        if (userWriteQueue.isPresent()) {
+            return accepted(userWriteQueue.get().update(id, user, ETags.parseIfMatch(ifMatch)));
+        }
+        User updatedUser = userService.update(id, user, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedUser)).body(updatedUser);
     }
 
     /**
      * Partial update of an existing User.
      *
-     * @param id   The ID of the user to be updated.
-     * @param user The UserUpdateDto object with partially updated information. Must
-     *             be a valid UserUpdateDto.
-     * @return ResponseEntity containing the updated User.
+     * @param id      The ID of the user to be updated.
+     * @param ifMatch The optional ETag of the version the update is based on.
+     * @param user    The UserUpdateDto object with partially updated information.
+     *                Must be a valid UserUpdateDto.
+     * @return ResponseEntity containing the updated User and its new ETag, or
+     *         the status of the queued write in the asynchronous write mode.
      */
     @Operation(
         summary = "Partial update of an existing User",
@@ -99,12 +173,40 @@ public class UserController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "User created successfully"),
         @ApiResponse(responseCode = "400", description = "Exception during UserUpdateDto validating"),
-        @ApiResponse(responseCode = "404", description = "User not found by provided ID")
+        @ApiResponse(responseCode = "404", description = "User not found by provided ID"),
+        @ApiResponse(responseCode = "202", description = "User update queued"),
+        @ApiResponse(responseCode = "412", description = "User modified since the If-Match version"),
+        @ApiResponse(responseCode = "429", description = "Too many queued writes")
     })
     @PatchMapping("/{id}")
-    public ResponseEntity<User> updatePartially(@PathVariable("id") Long id,
+    public ResponseEntity<?> updatePartially(@PathVariable("id") Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @RequestBody @Valid UserUpdateDto user) {
-        return ResponseEntity.ok(userService.update(id, user));
+        if (userWriteQueue.isPresent()) {
+            return accepted(userWriteQueue.get().update(id, user, ETags.parseIfMatch(ifMatch)));
+        }
+        User updatedUser = userService.update(id, user, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedUser)).body(updatedUser);
+    }
+
+    /**
+     * Get the status of a write queued in the asynchronous write mode.
+     *
+     * @param id The ID of the write returned when it was queued.
+     * @return ResponseEntity containing the status of the write.
+     */
+    @Operation(
+        summary = "Get the status of a queued write",
+        description = "returns whether the write is queued, completed or failed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Write status retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "Write not found by provided ID")
+    })
+    @GetMapping("/writes/{id}")
+    public ResponseEntity<WriteStatusDto> getWriteStatus(@PathVariable("id") UUID id) {
+        return ResponseEntity.ok(userWriteQueue
+            .orElseThrow(() -> new NotFoundException(WRITE_NOT_FOUND_BY_ID + id))
+            .getStatus(id));
     }
 
     /**
@@ -125,40 +227,247 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.OK).build();
     }
 
+    /**
+     * Get an existing User by ID.
+     *
+     * @param id The ID of the user to be retrieved.
+     * @return ResponseEntity containing the User and its ETag, or an empty 304
+     *         response if the If-None-Match header matches the ETag.
+     */
+    @Operation(
+        summary = "Get an existing User by ID",
+        description = "returns the User, served from the user cache when possible")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "User retrieved successfully"),
+        @ApiResponse(responseCode = "304", description = "User not modified since the If-None-Match version"),
+        @ApiResponse(responseCode = "404", description = "User not found by provided ID")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<User> getById(@PathVariable("id") Long id) {
+        User user = userService.getById(id);
+        // A matching If-None-Match header turns this into an empty 304 response.
+        return ResponseEntity.ok().eTag(ETags.of(user)).body(user);
+    }
+
+    /**
+     * Get an existing User by email address.
+     *
+     * @param email The email address of the user to be retrieved.
+     * @return ResponseEntity containing the User and its ETag.
+     */
+    @Operation(
+        summary = "Get an existing User by email",
+        description = "returns the User with the email address, looked up through the unique email index")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "User retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "User not found by provided email")
+    })
+    @GetMapping("/by-email")
+    public ResponseEntity<User> getByEmail(@RequestParam String email) {
+        User user = userService.getByEmail(email);
+        return ResponseEntity.ok().eTag(ETags.of(user)).body(user);
+    }
+
     /**
      * Get users by date of birth a time range.
      *
-     * @param from The start date of the range.
-     * @param to   The end date of the range.
+     * @param from   The start date of the range.
+     * @param to     The end date of the range.
+     * @param fields {@code summary} to return only the UserSummaryDto fields;
+     *               {@code all} or omitted to return whole users.
      * @return ResponseEntity containing a list of users with date of birth in the
      *         specified time frame.
      */
     @Operation(
         summary = "Get users by date of birth in a range",
-        description = "returns a list of users with a date of birth in the specified time frame")
+        description = "returns a list of users or user summaries with a date of birth in the specified time frame")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
-        @ApiResponse(responseCode = "400", description = "Invalid time frame")
+        @ApiResponse(responseCode = "400", description = "Invalid time frame or fields")
     })
     @GetMapping("/byDateOfBirth")
-    public ResponseEntity<List<User>> getByDateOfBirth(@RequestParam LocalDate from,
+    @ExpensiveEndpoint
+    public ResponseEntity<List<?>> getByDateOfBirth(@RequestParam LocalDate from,
+        @RequestParam LocalDate to, @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(UserFields.of(fields) == UserFields.SUMMARY
+            ? userService.getSummariesByDateOfBirth(from, to)
+            : userService.getByDateOfBirth(from, to));
+    }
+
+    /**
+     * Stream users by date of birth in a time range as newline-delimited JSON.
+     *
+     * @param from The start date of the range.
+     * @param to   The end date of the range.
+     * @return ResponseEntity writing one JSON User per line while rows are read
+     *         from the database.
+     */
+    @Operation(
+        summary = "Stream users by date of birth in a range as NDJSON",
+        description = "returns users with a date of birth in the specified time frame, one JSON object per line")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Users streamed successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid time frame")
+    })
+    @GetMapping(value = "/byDateOfBirth/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ExpensiveEndpoint
+    public ResponseEntity<StreamingResponseBody> streamByDateOfBirth(@RequestParam LocalDate from,
+        @RequestParam LocalDate to) {
+        userService.validateTimePeriod(from, to);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(UserStreamWriter.ndjson(objectMapper,
+                action -> userService.streamByDateOfBirth(from, to, action)));
+    }
+
+    /**
+     * Stream users by date of birth in a time range as a JSON array.
+     *
+     * @param from The start date of the range.
+     * @param to   The end date of the range.
+     * @return ResponseEntity writing a JSON array of Users in chunks while rows
+     *         are read from the database.
+     */
+    @Operation(
+        summary = "Stream users by date of birth in a range as a JSON array",
+        description = "returns users with a date of birth in the specified time frame, written incrementally")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Users streamed successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid time frame")
+    })
+    @GetMapping(value = "/byDateOfBirth/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ExpensiveEndpoint
+    public ResponseEntity<StreamingResponseBody> streamByDateOfBirthAsJsonArray(@RequestParam LocalDate from,
         @RequestParam LocalDate to) {
-        return ResponseEntity.ok(userService.getByDateOfBirth(from, to));
+        userService.validateTimePeriod(from, to);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(UserStreamWriter.jsonArray(objectMapper,
+                action -> userService.streamByDateOfBirth(from, to, action)));
     }
 
     /**
      * Get all users.
      *
+     * @param fields {@code summary} to return only the UserSummaryDto fields;
+     *               {@code all} or omitted to return whole users.
      * @return ResponseEntity containing a list of all saved Users.
      */
     @Operation(
         summary = "Get all users",
-        description = "returns list of saved Users")
+        description = "returns list of saved Users or their summaries")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Users retrieved successfully")
+        @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid fields")
     })
     @GetMapping("/all")
-    public ResponseEntity<List<User>> getAll() {
-        return ResponseEntity.ok(userService.getAll());
+    @ExpensiveEndpoint
+    public ResponseEntity<List<?>> getAll(@RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(UserFields.of(fields) == UserFields.SUMMARY
+            ? userService.getAllSummaries()
+            : userService.getAll());
+    }
+
+    /**
+     * Get a page of users using keyset pagination.
+     *
+     * @param pageToken The continuation token returned with the previous page;
+     *                  omit it to get the first page.
+     * @param pageSize  The maximum number of users in the page; omit it to use
+     *                  the configured default.
+     * @return ResponseEntity containing the page of users and the token for the
+     *         next page.
+     */
+    @Operation(
+        summary = "Get a page of users",
+        description = "returns a page of Users ordered by ID and the token for the next page")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid page token or page size")
+    })
+    @GetMapping
+    public ResponseEntity<UserPageDto> getPage(@RequestParam(required = false) String pageToken,
+        @RequestParam(required = false) Integer pageSize) {
+        return ResponseEntity.ok(userService.getPage(pageToken, pageSize));
+    }
+
+    /**
+     * Get a page of users matching a filter, in the requested sort order, using
+     * keyset pagination.
+     *
+     * @param filter    The name, age, phone and address conditions and the sort
+     *                  order.
+     * @param pageToken The continuation token returned with the previous page;
+     *                  omit it to get the first page.
+     * @param pageSize  The maximum number of users in the page; omit it to use
+     *                  the configured default.
+     * @return ResponseEntity containing the page of users and the token for the
+     *         next page.
+     */
+    @Operation(
+        summary = "Filter users",
+        description = "returns a page of Users matching the name, age, phone and address conditions, sorted by "
+            + "an indexed column, and the token for the next page")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid filter, sort, page token or page size")
+    })
+    @GetMapping("/filter")
+    public ResponseEntity<UserPageDto> filter(@ParameterObject UserFilterDto filter,
+        @RequestParam(required = false) String pageToken, @RequestParam(required = false) Integer pageSize) {
+        return ResponseEntity.ok(userService.filter(filter, pageToken, pageSize));
+    }
+
+    /**
+     * Search users by first name, last name, email and address.
+     *
+     * @param q         The search text; every word must match a word of one of
+     *                  the fields exactly, as a prefix or with a typo.
+     * @param pageToken The continuation token returned with the previous page;
+     *                  omit it to get the first page.
+     * @param pageSize  The maximum number of users in the page; omit it to use
+     *                  the configured default.
+     * @return ResponseEntity containing the page of matching users, best
+     *         matches first, and the token for the next page.
+     */
+    @Operation(
+        summary = "Search users",
+        description = "returns a page of Users matching the text by name, email or address, best matches first, "
+            + "and the token for the next page")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Users searched successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid search text, page token or page size"),
+        @ApiResponse(responseCode = "404", description = "Search not enabled")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<UserPageDto> search(@RequestParam String q,
+        @RequestParam(required = false) String pageToken, @RequestParam(required = false) Integer pageSize) {
+        return ResponseEntity.ok(userService.search(q, pageToken, pageSize));
+    }
+
+    /**
+     * Stream all users as newline-delimited JSON.
+     *
+     * @return ResponseEntity writing one JSON User per line while rows are read
+     *         from the database.
+     */
+    @Operation(
+        summary = "Stream all users",
+        description = "returns all saved Users as newline-delimited JSON")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Users streamed successfully")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ExpensiveEndpoint
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(UserStreamWriter.ndjson(objectMapper, userService::streamAll));
+    }
+
+    private static ResponseEntity<WriteStatusDto> accepted(WriteStatusDto status) {
+        return ResponseEntity.accepted()
+            .location(URI.create("/v1/users/writes/" + status.getId()))
+            .body(status);
     }
 }
@@ -0,0 +1,82 @@
+package com.example.userdemo.controller;
+
+import com.example.userdemo.model.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes users to a streaming HTTP response, either as newline-delimited JSON
+ * or as a single JSON array.
+ *
+ * The output is flushed after the first user and then every
+ * {@link #FLUSH_INTERVAL} users, so the client starts receiving data right away.
+ * Writes block while the client is not reading, which in turn pauses the
+ * database cursor feeding this writer.
+ */
+class UserStreamWriter implements Consumer<User> {
+    static final int FLUSH_INTERVAL = 100;
+
+    private final JsonGenerator generator;
+    private final boolean jsonArray;
+    private long written;
+
+    private UserStreamWriter(JsonGenerator generator, boolean jsonArray) {
+        this.generator = generator;
+        this.jsonArray = jsonArray;
+    }
+
+    /**
+     * Creates a response body writing one JSON user per line.
+     *
+     * @param objectMapper The mapper used to serialize users.
+     * @param source       Feeds every user to be written to the given action.
+     * @return The streaming response body.
+     */
+    static StreamingResponseBody ndjson(ObjectMapper objectMapper, Consumer<Consumer<User>> source) {
+        return outputStream -> write(objectMapper.getFactory().createGenerator(outputStream), false, source);
+    }
+
+    /**
+     * Creates a response body writing all users as a single JSON array.
+     *
+     * @param objectMapper The mapper used to serialize users.
+     * @param source       Feeds every user to be written to the given action.
+     * @return The streaming response body.
+     */
+    static StreamingResponseBody jsonArray(ObjectMapper objectMapper, Consumer<Consumer<User>> source) {
+        return outputStream -> write(objectMapper.getFactory().createGenerator(outputStream), true, source);
+    }
+
+    private static void write(JsonGenerator generator, boolean jsonArray,
+        Consumer<Consumer<User>> source) throws IOException {
+        generator.setRootValueSeparator(null);
+        if (jsonArray) {
+            generator.writeStartArray();
+        }
+        source.accept(new UserStreamWriter(generator, jsonArray));
+        if (jsonArray) {
+            generator.writeEndArray();
+        }
+        generator.flush();
+    }
+
+    @Override
+    public void accept(User user) {
+        try {
+            generator.writeObject(user);
+            if (!jsonArray) {
+                generator.writeRaw('\n');
+            }
+            if (++written % FLUSH_INTERVAL == 1) {
+                generator.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.userdemo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The outcome of creating a single user of a batch. Results are returned in
+ * the same order as the submitted users; {@code index} is the position of the
+ * user in the request.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserBatchResultDto {
+    private int index;
+
+    private Status status;
+
+    private Long id;
+
+    private List<String> errors;
+
+    /**
+     * The status of a single user of a batch.
+     */
+    public enum Status {
+        CREATED,
+        INVALID,
+        CONFLICT
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.userdemo.dto;
+
+import java.util.Locale;
+
+import static com.example.userdemo.constatnt.ErrorMessages.WRONG_FIELDS;
+
+/**
+ * The set of user fields returned by the list endpoints, selected by their
+ * {@code fields} request parameter.
+ */
+public enum UserFields {
+    /**
+     * Every field of the user.
+     */
+    ALL,
+    /**
+     * The fields of {@link UserSummaryDto}.
+     */
+    SUMMARY;
+
+    /**
+     * Parses the value of a {@code fields} request parameter, ignoring case.
+     *
+     * @param fields The parameter value, or {@code null} for all fields.
+     * @return The requested set of fields.
+     * @throws IllegalArgumentException If the value names no set of fields.
+     */
+    public static UserFields of(String fields) {
+        if (fields == null) {
+            return ALL;
+        }
+        try {
+            return valueOf(fields.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(WRONG_FIELDS);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.userdemo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filter and sort order of {@code GET /v1/users/filter}. Fields that are
+ * {@code null} or blank are not applied; all other conditions must hold.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserFilterDto {
+    /** The exact first name. */
+    private String firstName;
+
+    /** The start of the first name, case-sensitive. */
+    private String firstNameStartsWith;
+
+    /** The exact last name. */
+    private String lastName;
+
+    /** The start of the last name, case-sensitive. */
+    private String lastNameStartsWith;
+
+    /** The minimum age in years, computed like the age validation; at most 150. */
+    private Integer minAge;
+
+    /** The maximum age in years, computed like the age validation; at most 150. */
+    private Integer maxAge;
+
+    /** Whether the user must or must not have a phone number. */
+    private Boolean hasPhone;
+
+    /** Whether the user must or must not have an address. */
+    private Boolean hasAddress;
+
+    /**
+     * The sort column, one of id, firstName, lastName, email and dateOfBirth,
+     * optionally followed by {@code ,asc} or {@code ,desc}; ties are ordered
+     * by ID. Ascending by ID when omitted.
+     */
+    private String sort;
+}
@@ -0,0 +1,24 @@
+package com.example.userdemo.dto;
+
+import com.example.userdemo.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A single page of users returned by the keyset-paginated users endpoint.
+ * The {@code nextPageToken} is an opaque continuation token which should be
+ * passed back to fetch the following page; it is {@code null} on the last page.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPageDto {
+    private List<User> users;
+
+    private String nextPageToken;
+}
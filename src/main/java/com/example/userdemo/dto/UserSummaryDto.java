@@ -0,0 +1,30 @@
+package com.example.userdemo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * The identifying fields of a user, returned by the list endpoints when
+ * {@code fields=summary} is requested. Summaries are selected column by column
+ * into this DTO, so the address, phone number and version are never read and
+ * no entity is managed by the persistence context.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserSummaryDto {
+    private Long id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    private LocalDate dateOfBirth;
+}
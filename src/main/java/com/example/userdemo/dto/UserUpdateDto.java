@@ -2,7 +2,8 @@ package com.example.userdemo.dto;
 
 import com.example.userdemo.annotations.BeforeCurrentDate;
 import com.example.userdemo.annotations.ValidAge;
-import jakarta.validation.constraints.Pattern;
+import com.example.userdemo.annotations.ValidEmail;
+import com.example.userdemo.annotations.ValidPhoneNumber;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,8 +12,6 @@ import org.hibernate.validator.constraints.Length;
 
 import java.time.LocalDate;
 
-import static com.example.userdemo.constatnt.ErrorMessages.WRONG_EMAIL;
-import static com.example.userdemo.constatnt.ErrorMessages.WRONG_PHONE_NUMBER;
 import static com.example.userdemo.constatnt.ValidationConstants.*;
 
 @Data
@@ -27,7 +26,7 @@ public class UserUpdateDto {
     private String lastName;
 
     @Length(min = EMAIL_MIN_LENGTH, max = EMAIL_MAX_LENGTH)
-    @Pattern(regexp = EMAIL_PATTERN, message = WRONG_EMAIL)
+    @ValidEmail
     private String email;
 
     @ValidAge
@@ -37,6 +36,6 @@ public class UserUpdateDto {
     @Length(min = ADDRESS_MIN_LENGTH, max = ADDRESS_MAX_LENGTH)
     private String address;
 
-    @Pattern(regexp = PHONE_NUMBER_PATTERN, message = WRONG_PHONE_NUMBER)
+    @ValidPhoneNumber
     private String phoneNumber;
 }
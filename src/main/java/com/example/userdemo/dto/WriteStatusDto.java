@@ -0,0 +1,41 @@
+package com.example.userdemo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The status of a write accepted in the asynchronous write mode. A completed
+ * write carries the ID and new version of the user; a failed write carries the
+ * HTTP status the synchronous request would have failed with and the errors.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class WriteStatusDto {
+    private UUID id;
+
+    private Status status;
+
+    private Long userId;
+
+    private Long version;
+
+    private Integer httpStatus;
+
+    private List<String> errors;
+
+    /**
+     * The processing state of a write.
+     */
+    public enum Status {
+        QUEUED,
+        COMPLETED,
+        FAILED
+    }
+}
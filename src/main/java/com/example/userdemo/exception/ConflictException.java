@@ -0,0 +1,16 @@
+package com.example.userdemo.exception;
+
+/**
+ * An exception indicating that a request conflicts with the current state of
+ * a resource, e.g. that a new user has the email address of a saved user.
+ */
+public class ConflictException extends RuntimeException {
+    /**
+     * Constructs a new {@code ConflictException} with the specified error message.
+     *
+     * @param message A descriptive message providing details about the error.
+     */
+    public ConflictException(String message) {
+        super(message);
+    }
+}
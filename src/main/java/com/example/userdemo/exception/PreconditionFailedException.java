@@ -0,0 +1,19 @@
+package com.example.userdemo.exception;
+
+/**
+ * An exception indicating that a conditional request cannot be fulfilled
+ * because the resource has changed since the client last read it. This
+ * exception is typically thrown when the version supplied in an If-Match header
+ * does not match the current version of the resource.
+ */
+public class PreconditionFailedException extends RuntimeException {
+    /**
+     * Constructs a new {@code PreconditionFailedException} with the specified
+     * error message.
+     *
+     * @param message A descriptive message providing details about the error.
+     */
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
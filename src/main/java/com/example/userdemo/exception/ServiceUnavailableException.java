@@ -0,0 +1,27 @@
+package com.example.userdemo.exception;
+
+import lombok.Getter;
+
+/**
+ * An exception indicating that the request was rejected because the service is
+ * temporarily overloaded. The client may retry the request after the number of
+ * seconds returned by {@link #getRetryAfterSeconds()}.
+ */
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructs a new {@code ServiceUnavailableException} with the specified
+     * error message and retry delay.
+     *
+     * @param message           A descriptive message providing details about the
+     *                          error.
+     * @param retryAfterSeconds The number of seconds the client should wait
+     *                          before retrying.
+     */
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.userdemo.exception;
+
+import lombok.Getter;
+
+/**
+ * An exception indicating that the request was rejected because the client
+ * sends more work than the service accepts at the moment. The client may retry
+ * the request after the number of seconds returned by
+ * {@link #getRetryAfterSeconds()}.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructs a new {@code TooManyRequestsException} with the specified
+     * error message and retry delay.
+     *
+     * @param message           A descriptive message providing details about the
+     *                          error.
+     * @param retryAfterSeconds The number of seconds the client should wait
+     *                          before retrying.
+     */
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
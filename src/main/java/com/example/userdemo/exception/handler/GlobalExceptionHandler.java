@@ -1,12 +1,19 @@
 package com.example.userdemo.exception.handler;
 
+import com.example.userdemo.exception.ConflictException;
 import com.example.userdemo.exception.NotFoundException;
-import lombok.RequiredArgsConstructor;
+import com.example.userdemo.exception.PreconditionFailedException;
+import com.example.userdemo.exception.ServiceUnavailableException;
+import com.example.userdemo.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.web.error.ErrorAttributeOptions;
 import org.springframework.boot.web.servlet.error.ErrorAttributes;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -16,20 +23,48 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static com.example.userdemo.constatnt.ErrorMessages.USER_CONFLICT;
+
 /**
  * GlobalExceptionHandler is a controller advice class that handles exceptions
  * globally for the application. It provides exception handling and response
  * customization for various types of exceptions.
+ *
+ * Every handled exception increments the userdemo.errors counter tagged with
+ * the error type, and every rejected field of a request body increments the
+ * userdemo.validation.failures counter tagged with the field name.
  */
 @RestControllerAdvice
-@RequiredArgsConstructor
 public class GlobalExceptionHandler {
+    public static final String ERRORS_METRIC = "userdemo.errors";
+    public static final String VALIDATION_FAILURES_METRIC = "userdemo.validation.failures";
+
     private final ErrorAttributes errorAttributes;
+    private final MeterRegistry meterRegistry;
+    private final Counter notFoundErrors;
+    private final Counter preconditionFailedErrors;
+    private final Counter conflictErrors;
+    private final Counter serviceUnavailableErrors;
+    private final Counter tooManyRequestsErrors;
+    private final Counter badRequestErrors;
+    private final Counter validationErrors;
 
     private final ErrorAttributeOptions attributeOptions =
         ErrorAttributeOptions.of(ErrorAttributeOptions.Include.MESSAGE,
             ErrorAttributeOptions.Include.STACK_TRACE);
 
+    public GlobalExceptionHandler(ErrorAttributes errorAttributes, MeterRegistry meterRegistry) {
+        this.errorAttributes = errorAttributes;
+        this.meterRegistry = meterRegistry;
+        this.notFoundErrors = errorCounter("not_found");
+        this.preconditionFailedErrors = errorCounter("precondition_failed");
+        this.conflictErrors = errorCounter("conflict");
+        this.serviceUnavailableErrors = errorCounter("service_unavailable");
+        this.tooManyRequestsErrors = errorCounter("too_many_requests");
+        this.badRequestErrors = errorCounter("bad_request");
+        this.validationErrors = errorCounter("validation");
+    }
+
     /**
      * Handles NotFoundException and returns a ResponseEntity with a NOT_FOUND
      * status code.
@@ -40,10 +75,97 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ExceptionResponse> handleNotFoundException(WebRequest request) {
+        notFoundErrors.increment();
         ExceptionResponse exceptionResponse = new ExceptionResponse(getErrorAttributes(request));
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exceptionResponse);
     }
 
+    /**
+     * Handles PreconditionFailedException and optimistic locking failures and
+     * returns a ResponseEntity with a PRECONDITION_FAILED status code.
+     *
+     * @param request The WebRequest containing information about the request.
+     * @return ResponseEntity containing an ExceptionResponse with details of the
+     *         exception.
+     */
+    @ExceptionHandler({PreconditionFailedException.class, ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<ExceptionResponse> handlePreconditionFailedException(WebRequest request) {
+        preconditionFailedErrors.increment();
+        ExceptionResponse exceptionResponse = new ExceptionResponse(getErrorAttributes(request));
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(exceptionResponse);
+    }
+
+    /**
+     * Handles ConflictException and returns a ResponseEntity with a CONFLICT
+     * status code.
+     *
+     * @param request The WebRequest containing information about the request.
+     * @return ResponseEntity containing an ExceptionResponse with details of the
+     *         exception.
+     */
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ExceptionResponse> handleConflictException(WebRequest request) {
+        conflictErrors.increment();
+        ExceptionResponse exceptionResponse = new ExceptionResponse(getErrorAttributes(request));
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(exceptionResponse);
+    }
+
+    /**
+     * Handles DataIntegrityViolationException, i.e. a write rejected by a
+     * database constraint such as the unique email, and returns a
+     * ResponseEntity with a CONFLICT status code. The database message is not
+     * returned to the client.
+     *
+     * @param request The WebRequest containing information about the request.
+     * @return ResponseEntity containing an ExceptionResponse with details of the
+     *         exception.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ExceptionResponse> handleDataIntegrityViolationException(WebRequest request) {
+        conflictErrors.increment();
+        ExceptionResponse exceptionResponse = new ExceptionResponse(getErrorAttributes(request));
+        exceptionResponse.setMessage(USER_CONFLICT);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(exceptionResponse);
+    }
+
+    /**
+     * Handles ServiceUnavailableException and returns a ResponseEntity with a
+     * SERVICE_UNAVAILABLE status code and a Retry-After header.
+     *
+     * @param ex      The ServiceUnavailableException.
+     * @param request The WebRequest containing information about the request.
+     * @return ResponseEntity containing an ExceptionResponse with details of the
+     *         exception.
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ExceptionResponse> handleServiceUnavailableException(ServiceUnavailableException ex,
+                                                                               WebRequest request) {
+        serviceUnavailableErrors.increment();
+        ExceptionResponse exceptionResponse = new ExceptionResponse(getErrorAttributes(request));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(exceptionResponse);
+    }
+
+    /**
+     * Handles TooManyRequestsException and returns a ResponseEntity with a
+     * TOO_MANY_REQUESTS status code and a Retry-After header.
+     *
+     * @param ex      The TooManyRequestsException.
+     * @param request The WebRequest containing information about the request.
+     * @return ResponseEntity containing an ExceptionResponse with details of the
+     *         exception.
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ExceptionResponse> handleTooManyRequestsException(TooManyRequestsException ex,
+                                                                            WebRequest request) {
+        tooManyRequestsErrors.increment();
+        ExceptionResponse exceptionResponse = new ExceptionResponse(getErrorAttributes(request));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(exceptionResponse);
+    }
+
     /**
      * Handles IllegalArgumentException and returns a ResponseEntity with a
      * BAD_REQUEST status code.
@@ -54,6 +176,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ExceptionResponse> handleValidationException(WebRequest request) {
+        badRequestErrors.increment();
         ExceptionResponse exceptionResponse = new ExceptionResponse(getErrorAttributes(request));
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(exceptionResponse);
     }
@@ -67,6 +190,9 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, List<String>>> handleValidationErrors(MethodArgumentNotValidException ex) {
+        validationErrors.increment();
+        ex.getBindingResult().getFieldErrors()
+            .forEach(fe -> meterRegistry.counter(VALIDATION_FAILURES_METRIC, "field", fe.getField()).increment());
         List<String> errors = ex.getBindingResult().getFieldErrors()
             .stream().map(fe -> fe.getField() + " - " + fe.getDefaultMessage()).toList();
         return new ResponseEntity<>(getErrorsMap(errors), new HttpHeaders(), HttpStatus.BAD_REQUEST);
@@ -78,6 +204,13 @@ public class GlobalExceptionHandler {
         return errorResponse;
     }
 
+    private Counter errorCounter(String type) {
+        return Counter.builder(ERRORS_METRIC)
+            .description("Errors returned by the API")
+            .tag("type", type)
+            .register(meterRegistry);
+    }
+
     private Map<String, Object> getErrorAttributes(WebRequest webRequest) {
         return new HashMap<>(errorAttributes.getErrorAttributes(webRequest, attributeOptions));
     }
@@ -0,0 +1,99 @@
+package com.example.userdemo.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Ignores flushes of the response while a request is handled synchronously.
+ *
+ * Spring flushes the body after writing a message, which commits the response
+ * before its length is known, so the container sends it chunked and compresses
+ * it however small it is. Without the flush the container keeps a body that
+ * fits into its response buffer until the request completes and then sends it
+ * with a Content-Length, which lets server.compression.min-response-size apply.
+ * Larger bodies are still written as soon as the buffer is full, and flushes
+ * of asynchronous (streaming) responses are passed through.
+ */
+public class DeferredFlushFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        filterChain.doFilter(request, new DeferredFlushResponse(request, response));
+    }
+
+    private static final class DeferredFlushResponse extends HttpServletResponseWrapper {
+        private final HttpServletRequest request;
+        private ServletOutputStream outputStream;
+
+        DeferredFlushResponse(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new DeferredFlushOutputStream(request, super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (request.isAsyncStarted()) {
+                super.flushBuffer();
+            }
+        }
+    }
+
+    private static final class DeferredFlushOutputStream extends ServletOutputStream {
+        private final HttpServletRequest request;
+        private final ServletOutputStream delegate;
+
+        DeferredFlushOutputStream(HttpServletRequest request, ServletOutputStream delegate) {
+            this.request = request;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (request.isAsyncStarted()) {
+                delegate.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
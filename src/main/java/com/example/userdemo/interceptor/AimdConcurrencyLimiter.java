@@ -0,0 +1,97 @@
+package com.example.userdemo.interceptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to the latency of the requests it admits
+ * (additive increase, multiplicative decrease).
+ *
+ * A request is admitted only while fewer requests than the current limit are
+ * in flight; otherwise it is rejected at once instead of queueing, so the
+ * latency of admitted requests stays bounded. A request that completes
+ * slower than the latency threshold, or fails with a server error, cuts the
+ * limit by 10%; a request that completes in time while at least half of the
+ * limit was in use raises it by one. The limit stays between the minimum and
+ * maximum.
+ */
+public class AimdConcurrencyLimiter {
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    /**
+     * Creates a limiter that starts at its maximum limit.
+     *
+     * @param minLimit              The lowest limit.
+     * @param maxLimit              The highest and initial limit.
+     * @param latencyThresholdNanos The latency above which a request counts as
+     *                              a sign of overload.
+     */
+    public AimdConcurrencyLimiter(int minLimit, int maxLimit, long latencyThresholdNanos) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("The limits must satisfy 1 <= minLimit <= maxLimit: "
+                + minLimit + ", " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = maxLimit;
+    }
+
+    /**
+     * Admits a request if fewer requests than the limit are in flight. An
+     * admitted request must be completed with {@link #release}.
+     *
+     * @return Whether the request was admitted.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Completes an admitted request and adapts the limit to its outcome.
+     *
+     * @param latencyNanos The time the request took.
+     * @param failed       Whether the request failed with a server error.
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, (int) (limit * BACKOFF_RATIO));
+            } else if (inFlightBefore * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    /**
+     * Returns the current concurrency limit.
+     *
+     * @return The current limit.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of admitted requests that have not completed yet.
+     *
+     * @return The number of requests in flight.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.userdemo.interceptor;
+
+import com.example.userdemo.constatnt.ErrorMessages;
+import com.example.userdemo.exception.ServiceUnavailableException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of requests that are handled concurrently to the number of
+ * available database connections.
+ *
+ * With virtual threads the servlet container no longer bounds concurrency, so
+ * without this limit thousands of requests would queue inside the connection
+ * pool. A request takes a permit before the handler runs and waits up to the
+ * configured timeout for it; if no permit becomes free in time the request is
+ * rejected with a {@link ServiceUnavailableException}. The permit is held until
+ * the request completes, including the asynchronous part of streaming
+ * responses.
+ */
+public class ConnectionPermitInterceptor implements AsyncHandlerInterceptor {
+    static final String PERMIT_ATTRIBUTE = ConnectionPermitInterceptor.class.getName() + ".PERMIT";
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final long retryAfterSeconds;
+
+    /**
+     * Creates an interceptor with the given number of permits.
+     *
+     * @param maxConcurrentRequests The number of requests allowed to run at
+     *                              once, normally the connection pool size.
+     * @param acquireTimeout        How long a request waits for a permit.
+     */
+    public ConnectionPermitInterceptor(int maxConcurrentRequests, Duration acquireTimeout) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("maxConcurrentRequests must be positive: " + maxConcurrentRequests);
+        }
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.retryAfterSeconds = Math.max(1, acquireTimeout.toSeconds());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+        throws InterruptedException {
+        // The async dispatch of a streaming response still owns the permit taken by the initial dispatch.
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            return true;
+        }
+        if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+            throw new ServiceUnavailableException(ErrorMessages.SERVICE_BUSY, retryAfterSeconds);
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permits.release();
+        }
+    }
+
+    /**
+     * Returns the number of permits that are currently free.
+     *
+     * @return The number of free permits.
+     */
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
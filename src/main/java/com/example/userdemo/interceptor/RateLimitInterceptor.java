@@ -0,0 +1,138 @@
+package com.example.userdemo.interceptor;
+
+import com.example.userdemo.annotations.ExpensiveEndpoint;
+import com.example.userdemo.constatnt.ErrorMessages;
+import com.example.userdemo.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control of the API: per-client, per-endpoint token buckets and
+ * adaptive concurrency limits.
+ *
+ * Every client (by remote address) gets a token bucket per endpoint (HTTP
+ * method and path pattern); a request without a token is rejected. Admitted
+ * requests then need a permit of an {@link AimdConcurrencyLimiter}: endpoints
+ * annotated with {@link ExpensiveEndpoint} share a separate, smaller pool
+ * with slower buckets, so bursts of list and range requests cannot starve
+ * the cheap reads and writes. A request without a permit is rejected at once
+ * rather than queued. Rejections are {@link TooManyRequestsException}s, which
+ * are answered with 429 Too Many Requests and a Retry-After header.
+ *
+ * As with {@link ConnectionPermitInterceptor}, the permit is held until the
+ * request completes, including the asynchronous part of streaming responses,
+ * and the async dispatch is not counted again.
+ */
+public class RateLimitInterceptor implements AsyncHandlerInterceptor {
+    static final String PERMIT_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".PERMIT";
+    private static final long CONCURRENCY_RETRY_AFTER_SECONDS = 1;
+
+    private final Limits limits;
+    private final Limits expensiveLimits;
+    private final LongSupplier nanoTime;
+    /** Buckets by client and endpoint; idle buckets are full again and are dropped. */
+    private final Cache<String, TokenBucket> buckets;
+
+    /**
+     * Creates an interceptor.
+     *
+     * @param limits          The limits of all endpoints but the expensive ones.
+     * @param expensiveLimits The limits of the expensive endpoints.
+     * @param maxClients      The maximum number of client and endpoint buckets
+     *                        kept; the least recently used are dropped.
+     * @param nanoTime        The source of {@link System#nanoTime()} values.
+     */
+    public RateLimitInterceptor(Limits limits, Limits expensiveLimits, long maxClients, LongSupplier nanoTime) {
+        this.limits = limits;
+        this.expensiveLimits = expensiveLimits;
+        this.nanoTime = nanoTime;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxClients)
+            .expireAfterAccess(Duration.ofNanos(Math.max(limits.refillNanos(), expensiveLimits.refillNanos())))
+            .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The async dispatch of a streaming response still owns the permit taken by the initial dispatch.
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        boolean expensive = handlerMethod.hasMethodAnnotation(ExpensiveEndpoint.class);
+        Limits endpointLimits = expensive ? expensiveLimits : limits;
+        long now = nanoTime.getAsLong();
+
+        String key = request.getRemoteAddr() + ' ' + request.getMethod() + ' '
+            + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        long waitNanos = buckets.get(key, k -> new TokenBucket(endpointLimits.requestsPerSecond(),
+            endpointLimits.burst(), now)).tryTake(now);
+        if (waitNanos > 0) {
+            throw new TooManyRequestsException(ErrorMessages.RATE_LIMITED,
+                Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+        if (!endpointLimits.concurrencyLimiter().tryAcquire()) {
+            throw new TooManyRequestsException(ErrorMessages.SERVICE_BUSY, CONCURRENCY_RETRY_AFTER_SECONDS);
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(endpointLimits.concurrencyLimiter(), now));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.limiter().release(nanoTime.getAsLong() - permit.startNanos(),
+                ex != null || response.getStatus() >= 500);
+        }
+    }
+
+    /**
+     * Returns the concurrency limiter of all endpoints but the expensive ones.
+     *
+     * @return The concurrency limiter.
+     */
+    public AimdConcurrencyLimiter getConcurrencyLimiter() {
+        return limits.concurrencyLimiter();
+    }
+
+    /**
+     * Returns the concurrency limiter of the expensive endpoints.
+     *
+     * @return The concurrency limiter of the expensive endpoints.
+     */
+    public AimdConcurrencyLimiter getExpensiveConcurrencyLimiter() {
+        return expensiveLimits.concurrencyLimiter();
+    }
+
+    /**
+     * The limits of a group of endpoints.
+     *
+     * @param requestsPerSecond  The refill rate of the bucket of each client
+     *                           and endpoint.
+     * @param burst              The capacity of the bucket of each client and
+     *                           endpoint.
+     * @param concurrencyLimiter The concurrency limiter shared by the group.
+     */
+    public record Limits(double requestsPerSecond, int burst, AimdConcurrencyLimiter concurrencyLimiter) {
+
+        /**
+         * Returns the time an empty bucket takes to fill up.
+         */
+        long refillNanos() {
+            return (long) Math.ceil(burst / requestsPerSecond * 1_000_000_000d);
+        }
+    }
+
+    private record Permit(AimdConcurrencyLimiter limiter, long startNanos) {
+    }
+}
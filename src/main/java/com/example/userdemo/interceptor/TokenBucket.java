@@ -0,0 +1,52 @@
+package com.example.userdemo.interceptor;
+
+/**
+ * A token bucket that allows bursts of up to its capacity and refills at a
+ * constant rate.
+ *
+ * The bucket is refilled lazily from the elapsed time whenever a token is
+ * taken, so idle buckets cost nothing. Times are {@link System#nanoTime()}
+ * values supplied by the caller.
+ */
+public class TokenBucket {
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param tokensPerSecond The refill rate.
+     * @param capacity        The maximum number of tokens, i.e. the largest burst.
+     * @param now             The current time in nanoseconds.
+     */
+    public TokenBucket(double tokensPerSecond, int capacity, long now) {
+        if (tokensPerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("The rate and capacity of a token bucket must be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @param now The current time in nanoseconds.
+     * @return {@code 0} if a token was taken, otherwise the nanoseconds until
+     *         the next token is available.
+     */
+    public synchronized long tryTake(long now) {
+        if (now > refilledAt) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+        if (tokens >= 1) {
+            tokens--;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.userdemo.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Records the number of SQL statements and the number of rows of every
+ * UserRepository call, tagged by the repository method. The call durations
+ * are already recorded by Spring Boot as spring.data.repository.invocations.
+ *
+ * Rows are the size of a returned collection or page, 0 or 1 for a single
+ * result, the affected rows for methods returning {@code int}, and the number
+ * of elements consumed from a returned stream, recorded when it is closed.
+ */
+@Aspect
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+    public static final String QUERIES_METRIC = "userdemo.repository.queries";
+    public static final String ROWS_METRIC = "userdemo.repository.rows";
+
+    private final MeterRegistry meterRegistry;
+    private final StatementCounter statementCounter;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    /**
+     * Records the metrics of a UserRepository call.
+     *
+     * @param joinPoint The repository method call.
+     * @return The result of the call; a returned stream is wrapped to count
+     *         the consumed rows.
+     * @throws Throwable The exception thrown by the repository method.
+     */
+    @Around("target(com.example.userdemo.repository.UserRepository) && execution(public * *(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Meters methodMeters = meters.computeIfAbsent(signature.getName(), this::meters);
+        long statements = statementCounter.current();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } finally {
+            methodMeters.queries().record(statementCounter.current() - statements);
+        }
+
+        Class<?> returnType = signature.getReturnType();
+        if (result instanceof Stream<?> stream) {
+            long[] rows = new long[1];
+            return stream.peek(row -> rows[0]++).onClose(() -> methodMeters.rows().record(rows[0]));
+        } else if (returnType == int.class) {
+            methodMeters.rows().record((Integer) result);
+        } else if (returnType != void.class) {
+            methodMeters.rows().record(rows(result));
+        }
+        return result;
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        } else if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        } else if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return result == null ? 0 : 1;
+    }
+
+    private Meters meters(String method) {
+        return new Meters(
+            DistributionSummary.builder(QUERIES_METRIC)
+                .description("SQL statements per repository call")
+                .tag("method", method)
+                .register(meterRegistry),
+            DistributionSummary.builder(ROWS_METRIC)
+                .description("Rows returned or affected per repository call")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private record Meters(DistributionSummary queries, DistributionSummary rows) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.userdemo.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector which counts the SQL statements prepared by
+ * the current thread and remembers the last of them. The count only grows;
+ * callers measure the difference between two readings.
+ */
+public class StatementCounter implements StatementInspector {
+    private final ThreadLocal<Statements> statements = ThreadLocal.withInitial(Statements::new);
+
+    @Override
+    public String inspect(String sql) {
+        Statements current = statements.get();
+        current.count++;
+        current.last = sql;
+        return sql;
+    }
+
+    /**
+     * Returns the number of SQL statements prepared by the current thread so far.
+     *
+     * @return The statement count of the current thread.
+     */
+    public long current() {
+        return statements.get().count;
+    }
+
+    /**
+     * Returns the last SQL statement prepared by the current thread, e.g. to
+     * check its query plan.
+     *
+     * @return The last SQL statement, or {@code null} if there is none.
+     */
+    public String last() {
+        return statements.get().last;
+    }
+
+    private static final class Statements {
+        private long count;
+        private String last;
+    }
+}
@@ -2,14 +2,20 @@ package com.example.userdemo.model;
 
 import com.example.userdemo.annotations.BeforeCurrentDate;
 import com.example.userdemo.annotations.ValidAge;
+import com.example.userdemo.annotations.ValidEmail;
+import com.example.userdemo.annotations.ValidPhoneNumber;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.Id;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,23 +24,46 @@ import org.hibernate.validator.constraints.Length;
 
 import java.time.LocalDate;
 
-import static com.example.userdemo.constatnt.ErrorMessages.WRONG_EMAIL;
-import static com.example.userdemo.constatnt.ErrorMessages.WRONG_PHONE_NUMBER;
 import static com.example.userdemo.constatnt.ValidationConstants.*;
 
 /**
  * Represents a user entity in the application. This entity is used for storing
  * user information in a database.
+ *
+ * The date of birth index also holds the ID, so range queries are answered by an
+ * index range scan and ID-only projections never touch the table. The first
+ * and last name indexes do the same for name filters and name-sorted pages.
+ * IDs are allocated in blocks by a pooled sequence optimizer, so inserting a
+ * user does not cost an extra round trip for its ID.
+ *
+ * The version is incremented by every update and used for optimistic locking;
+ * it is exposed to clients as the ETag of the user and ignored on input.
+ *
+ * The Spring Data relational annotations map the same class for the reactive
+ * R2DBC variant of the API, so both variants share one model and one set of
+ * validation rules. The reactive variant maintains the version in its own
+ * update statements.
  */
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "USER_TABLE")
+@org.springframework.data.relational.core.mapping.Table("USER_TABLE")
+@Table(name = "USER_TABLE", indexes = {
+    @Index(name = User.DATE_OF_BIRTH_INDEX, columnList = "dateOfBirth, id"),
+    @Index(name = User.FIRST_NAME_INDEX, columnList = "firstName, id"),
+    @Index(name = User.LAST_NAME_INDEX, columnList = "lastName, id")
+})
 public class User {
+    public static final String DATE_OF_BIRTH_INDEX = "IDX_USER_TABLE_DATE_OF_BIRTH";
+    public static final String FIRST_NAME_INDEX = "IDX_USER_TABLE_FIRST_NAME";
+    public static final String LAST_NAME_INDEX = "IDX_USER_TABLE_LAST_NAME";
+
     @Id
-    @GeneratedValue
+    @org.springframework.data.annotation.Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_sequence")
+    @SequenceGenerator(name = "user_sequence", sequenceName = "USER_TABLE_SEQ", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 30)
@@ -50,7 +79,7 @@ public class User {
     @Column(unique = true, nullable = false, length = 50)
     @NotBlank
     @Length(min = EMAIL_MIN_LENGTH, max = EMAIL_MAX_LENGTH)
-    @Pattern(regexp = EMAIL_PATTERN, message = WRONG_EMAIL)
+    @ValidEmail
     private String email;
 
     @Column(nullable = false)
@@ -62,6 +91,10 @@ public class User {
     @Length(min = ADDRESS_MIN_LENGTH, max = ADDRESS_MAX_LENGTH)
     private String address;
 
-    @Pattern(regexp = PHONE_NUMBER_PATTERN, message = WRONG_PHONE_NUMBER)
+    @ValidPhoneNumber
     private String phoneNumber;
+
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
 }
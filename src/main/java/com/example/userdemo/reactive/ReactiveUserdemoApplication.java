@@ -0,0 +1,40 @@
+package com.example.userdemo.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * The reactive variant of the application. It serves the same /v1/users API
+ * with Spring WebFlux on Netty and stores users in H2 through R2DBC, so no
+ * request ever blocks an event loop thread.
+ *
+ * It only scans the {@code reactive} package and shares the model, the DTOs and
+ * the validation annotations with the blocking application. Its settings are in
+ * the {@value #PROFILE} profile.
+ */
+@SpringBootApplication(exclude = {
+    DataSourceAutoConfiguration.class,
+    DataSourceTransactionManagerAutoConfiguration.class,
+    HibernateJpaAutoConfiguration.class
+})
+public class ReactiveUserdemoApplication {
+    public static final String PROFILE = "reactive";
+
+    /**
+     * The main method of the reactive application. It initializes and runs the
+     * Spring Boot application with the reactive profile.
+     *
+     * @param args Command-line arguments (if any) passed when running the
+     *             application.
+     */
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveUserdemoApplication.class)
+            .web(WebApplicationType.REACTIVE)
+            .profiles(PROFILE)
+            .run(args);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.userdemo.reactive.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Web server configuration of the reactive application.
+ */
+@Configuration
+public class ReactiveWebConfig {
+    /**
+     * Runs the reactive application on Netty. Tomcat is on the classpath for the
+     * blocking application and would otherwise be preferred.
+     *
+     * @return The Netty web server factory.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.userdemo.reactive.controller;
+
+import com.example.userdemo.controller.ETags;
+import com.example.userdemo.dto.UserBatchResultDto;
+import com.example.userdemo.dto.UserPageDto;
+import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.model.User;
+import com.example.userdemo.reactive.service.ReactiveUserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Reactive User Controller serving the same /v1/users contract as
+ * {@link com.example.userdemo.controller.UserController}.
+ *
+ * Lists are returned as a {@link Flux} and written to the response while rows
+ * are read from the database, as a JSON array or, when requested, as
+ * newline-delimited JSON. Single-user responses carry the version of the user
+ * as a strong ETag; reads honour If-None-Match and updates honour If-Match.
+ */
+@RestController
+@RequestMapping("/v1/users")
+@RequiredArgsConstructor
+@Tag(name = "Reactive User Controller", description = "Non-blocking API for managing users")
+public class ReactiveUserController {
+    private final ReactiveUserService userService;
+
+    /**
+     * Add new User.
+     *
+     * @param user The user object to be created. Must be a valid User entity.
+     * @return ResponseEntity containing the saved User and its ETag.
+     */
+    @Operation(summary = "Add new User", description = "returns saved User")
+    @PostMapping
+    public Mono<ResponseEntity<User>> register(@RequestBody @Valid User user) {
+        return userService.create(user)
+            .map(savedUser -> ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(savedUser)).body(savedUser));
+    }
+
+    /**
+     * Add many new Users at once.
+     *
+     * @param users The user objects to be created, each validated on its own.
+     * @return The result for every submitted user.
+     */
+    @Operation(summary = "Add many new Users",
+        description = "returns the result for every submitted User in the submitted order")
+    @PostMapping("/batch")
+    public Mono<List<UserBatchResultDto>> registerAll(@RequestBody List<User> users) {
+        return userService.createAll(users);
+    }
+
+    /**
+     * Complete update of an existing User.
+     *
+     * @param id      The ID of the user to be updated.
+     * @param ifMatch The optional ETag of the version the update is based on.
+     * @param user    The user object with updated information.
+     * @return ResponseEntity containing the updated User and its new ETag.
+     */
+    @Operation(summary = "Complete update of an existing User", description = "returns updated User")
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<User>> updateFully(@PathVariable("id") Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody @Valid User user) {
+        return userService.update(id, user, ETags.parseIfMatch(ifMatch))
+            .map(updatedUser -> ResponseEntity.ok().eTag(ETags.of(updatedUser)).body(updatedUser));
+    }
+
+    /**
+     * Partial update of an existing User.
+     *
+     * @param id      The ID of the user to be updated.
+     * @param ifMatch The optional ETag of the version the update is based on.
+     * @param user    The UserUpdateDto object with partially updated information.
+     * @return ResponseEntity containing the updated User and its new ETag.
+     */
+    @Operation(summary = "Partial update of an existing User", description = "returns updated User")
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<User>> updatePartially(@PathVariable("id") Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody @Valid UserUpdateDto user) {
+        return userService.update(id, user, ETags.parseIfMatch(ifMatch))
+            .map(updatedUser -> ResponseEntity.ok().eTag(ETags.of(updatedUser)).body(updatedUser));
+    }
+
+    /**
+     * Delete an existing User by ID.
+     *
+     * @param id The ID of the user to be deleted.
+     * @return ResponseEntity indicating a successful deletion.
+     */
+    @Operation(summary = "Delete an existing User by ID")
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable("id") Long id) {
+        return userService.delete(id).thenReturn(ResponseEntity.ok().build());
+    }
+
+    /**
+     * Get an existing User by ID.
+     *
+     * @param id The ID of the user to be retrieved.
+     * @return ResponseEntity containing the User and its ETag, or an empty 304
+     *         response if the If-None-Match header matches the ETag.
+     */
+    @Operation(summary = "Get an existing User by ID", description = "returns the User")
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<User>> getById(@PathVariable("id") Long id) {
+        return userService.getById(id).map(user -> ResponseEntity.ok().eTag(ETags.of(user)).body(user));
+    }
+
+    /**
+     * Get an existing User by email address.
+     *
+     * @param email The email address of the user to be retrieved.
+     * @return ResponseEntity containing the User and its ETag.
+     */
+    @Operation(summary = "Get an existing User by email", description = "returns the User with the email address")
+    @GetMapping("/by-email")
+    public Mono<ResponseEntity<User>> getByEmail(@RequestParam String email) {
+        return userService.getByEmail(email).map(user -> ResponseEntity.ok().eTag(ETags.of(user)).body(user));
+    }
+
+    /**
+     * Get users by date of birth in a time range.
+     *
+     * @param from The start date of the range.
+     * @param to   The end date of the range.
+     * @return The users with date of birth in the specified time frame.
+     */
+    @Operation(summary = "Get users by date of birth in a range",
+        description = "returns a list of users with a date of birth in the specified time frame")
+    @GetMapping("/byDateOfBirth")
+    public Flux<User> getByDateOfBirth(@RequestParam LocalDate from, @RequestParam LocalDate to) {
+        return userService.getByDateOfBirth(from, to);
+    }
+
+    /**
+     * Stream users by date of birth in a time range as newline-delimited JSON or
+     * as a JSON array.
+     *
+     * @param from The start date of the range.
+     * @param to   The end date of the range.
+     * @return The users with date of birth in the specified time frame.
+     */
+    @Operation(summary = "Stream users by date of birth in a range",
+        description = "returns users with a date of birth in the specified time frame as NDJSON or a JSON array")
+    @GetMapping(value = "/byDateOfBirth/stream",
+        produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<User> streamByDateOfBirth(@RequestParam LocalDate from, @RequestParam LocalDate to) {
+        return userService.getByDateOfBirth(from, to);
+    }
+
+    /**
+     * Get all users.
+     *
+     * @return All saved Users.
+     */
+    @Operation(summary = "Get all users", description = "returns list of saved Users")
+    @GetMapping("/all")
+    public Flux<User> getAll() {
+        return userService.getAll();
+    }
+
+    /**
+     * Get a page of users using keyset pagination.
+     *
+     * @param pageToken The continuation token returned with the previous page.
+     * @param pageSize  The maximum number of users in the page.
+     * @return The page of users and the token for the next page.
+     */
+    @Operation(summary = "Get a page of users",
+        description = "returns a page of Users ordered by ID and the token for the next page")
+    @GetMapping
+    public Mono<UserPageDto> getPage(@RequestParam(required = false) String pageToken,
+        @RequestParam(required = false) Integer pageSize) {
+        return userService.getPage(pageToken, pageSize);
+    }
+
+    /**
+     * Stream all users as newline-delimited JSON.
+     *
+     * @return All saved Users ordered by ID.
+     */
+    @Operation(summary = "Stream all users", description = "returns all saved Users as newline-delimited JSON")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<User> streamAll() {
+        return userService.streamAll();
+    }
+}
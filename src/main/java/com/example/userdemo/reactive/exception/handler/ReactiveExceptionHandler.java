@@ -0,0 +1,107 @@
+package com.example.userdemo.reactive.exception.handler;
+
+import com.example.userdemo.exception.ConflictException;
+import com.example.userdemo.exception.NotFoundException;
+import com.example.userdemo.exception.PreconditionFailedException;
+import com.example.userdemo.exception.handler.ExceptionResponse;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.userdemo.constatnt.ErrorMessages.USER_CONFLICT;
+
+/**
+ * ReactiveExceptionHandler maps exceptions of the reactive application to the
+ * same status codes and response bodies as
+ * {@link com.example.userdemo.exception.handler.GlobalExceptionHandler}.
+ */
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+    /**
+     * Handles NotFoundException and returns a ResponseEntity with a NOT_FOUND
+     * status code.
+     *
+     * @param ex The NotFoundException.
+     * @return ResponseEntity containing an ExceptionResponse.
+     */
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<ExceptionResponse> handleNotFoundException(NotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exceptionResponse(ex));
+    }
+
+    /**
+     * Handles PreconditionFailedException and optimistic locking failures and
+     * returns a ResponseEntity with a PRECONDITION_FAILED status code.
+     *
+     * @param ex The exception.
+     * @return ResponseEntity containing an ExceptionResponse.
+     */
+    @ExceptionHandler({PreconditionFailedException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<ExceptionResponse> handlePreconditionFailedException(RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(exceptionResponse(ex));
+    }
+
+    /**
+     * Handles ConflictException and returns a ResponseEntity with a CONFLICT
+     * status code.
+     *
+     * @param ex The ConflictException.
+     * @return ResponseEntity containing an ExceptionResponse.
+     */
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ExceptionResponse> handleConflictException(ConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(exceptionResponse(ex));
+    }
+
+    /**
+     * Handles DataIntegrityViolationException, i.e. a write rejected by a
+     * database constraint such as the unique email, and returns a
+     * ResponseEntity with a CONFLICT status code. The database message is not
+     * returned to the client.
+     *
+     * @return ResponseEntity containing an ExceptionResponse.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ExceptionResponse> handleDataIntegrityViolationException() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .body(new ExceptionResponse(USER_CONFLICT, new Date().toString()));
+    }
+
+    /**
+     * Handles IllegalArgumentException and returns a ResponseEntity with a
+     * BAD_REQUEST status code.
+     *
+     * @param ex The IllegalArgumentException.
+     * @return ResponseEntity containing an ExceptionResponse.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ExceptionResponse> handleValidationException(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(exceptionResponse(ex));
+    }
+
+    /**
+     * Handles WebExchangeBindException and returns a ResponseEntity with a
+     * BAD_REQUEST status code.
+     *
+     * @param ex The WebExchangeBindException.
+     * @return ResponseEntity containing a Map of field errors.
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, List<String>>> handleValidationErrors(WebExchangeBindException ex) {
+        List<String> errors = ex.getBindingResult().getFieldErrors()
+            .stream().map(fe -> fe.getField() + " - " + fe.getDefaultMessage()).toList();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("errors", errors));
+    }
+
+    private ExceptionResponse exceptionResponse(Exception ex) {
+        return new ExceptionResponse(ex.getMessage(), new Date().toString());
+    }
+}
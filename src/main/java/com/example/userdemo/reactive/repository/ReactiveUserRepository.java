@@ -0,0 +1,86 @@
+package com.example.userdemo.reactive.repository;
+
+import com.example.userdemo.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Non-blocking R2DBC repository for user entities, the reactive counterpart of
+ * {@link com.example.userdemo.repository.UserRepository}. Users are emitted
+ * while rows are read from the database.
+ */
+@Repository
+public interface ReactiveUserRepository extends ReactiveCrudRepository<User, Long>, ReactiveUserRepositoryCustom {
+    /**
+     * Find users whose date of birth falls within the specified date range.
+     *
+     * @param from The start date of the date range (inclusive).
+     * @param to   The end date of the date range (inclusive).
+     * @return The users with date of birth within the specified range.
+     */
+    Flux<User> findByDateOfBirthBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Find the user with the given email address through the unique email
+     * index.
+     *
+     * @param email The email address of the user.
+     * @return The user, or an empty Mono if no user has the email address.
+     */
+    Mono<User> findByEmail(String email);
+
+    /**
+     * Find a page of users whose ID is greater than the given one (keyset
+     * pagination). No count query is issued.
+     *
+     * @param id       The ID of the last user of the previous page (exclusive).
+     * @param pageable The page size and the sort order, normally ascending by ID.
+     * @return At most {@code pageable.getPageSize()} users.
+     */
+    Flux<User> findByIdGreaterThan(Long id, Pageable pageable);
+
+    /**
+     * Find all users ordered by ID.
+     *
+     * @return All users ordered by ID.
+     */
+    Flux<User> findAllByOrderByIdAsc();
+
+    /**
+     * Find which of the given email addresses are already used by saved users.
+     *
+     * @param emails The email addresses to look up.
+     * @return The subset of the given email addresses that already exist.
+     */
+    @Query("SELECT email FROM USER_TABLE WHERE email IN (:emails)")
+    Flux<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * Find the current version of the user with the given ID.
+     *
+     * @param id The ID of the user.
+     * @return The version of the user, or an empty Mono if no user has the given
+     *         ID.
+     */
+    @Query("SELECT version FROM USER_TABLE WHERE id = :id")
+    Mono<Long> findVersionById(Long id);
+
+    /**
+     * Delete the user with the given ID with a single conditional
+     * {@code DELETE} statement, without loading the user first.
+     *
+     * @param id The ID of the user to be deleted.
+     * @return The number of deleted users, {@code 0} if no user has the given ID.
+     */
+    @Modifying
+    @Query("DELETE FROM USER_TABLE WHERE id = :id")
+    Mono<Long> deleteUserById(Long id);
+}
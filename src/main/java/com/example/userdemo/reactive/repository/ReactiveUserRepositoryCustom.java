@@ -0,0 +1,39 @@
+package com.example.userdemo.reactive.repository;
+
+import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.model.User;
+import reactor.core.publisher.Mono;
+
+/**
+ * Custom repository methods which cannot be expressed as derived or annotated
+ * queries of {@link ReactiveUserRepository}.
+ */
+public interface ReactiveUserRepositoryCustom {
+    /**
+     * Replaces all data of the user with the given ID with a single conditional
+     * {@code UPDATE} statement, without loading the user first. The version is
+     * incremented.
+     *
+     * @param id      The ID of the user to be updated.
+     * @param version The expected current version of the user, or {@code null}
+     *                to update regardless of the version.
+     * @param user    The user with updated information.
+     * @return The number of updated users, {@code 0} if no user has the given ID
+     *         and version.
+     */
+    Mono<Long> updateFully(Long id, Long version, User user);
+
+    /**
+     * Updates only the fields supplied in the given UserUpdateDto with a single
+     * {@code UPDATE ... SET <supplied fields> WHERE id = ?} statement. Blank
+     * fields are left unchanged and the version is incremented.
+     *
+     * @param id      The ID of the user to be updated.
+     * @param version The expected current version of the user, or {@code null}
+     *                to update regardless of the version.
+     * @param userDto The UserUpdateDto containing the fields to be updated.
+     * @return The number of updated users, {@code 0} if no user has the given ID
+     *         and version.
+     */
+    Mono<Long> updatePartially(Long id, Long version, UserUpdateDto userDto);
+}
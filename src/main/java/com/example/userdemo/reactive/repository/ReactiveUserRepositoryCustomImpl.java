@@ -0,0 +1,84 @@
+package com.example.userdemo.reactive.repository;
+
+import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.apache.logging.log4j.util.Strings.isNotBlank;
+
+/**
+ * {@link DatabaseClient} based implementation of
+ * {@link ReactiveUserRepositoryCustom}.
+ */
+@RequiredArgsConstructor
+public class ReactiveUserRepositoryCustomImpl implements ReactiveUserRepositoryCustom {
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Long> updateFully(Long id, Long version, User user) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("first_name", user.getFirstName());
+        columns.put("last_name", user.getLastName());
+        columns.put("email", user.getEmail());
+        columns.put("date_of_birth", user.getDateOfBirth());
+        columns.put("address", user.getAddress());
+        columns.put("phone_number", user.getPhoneNumber());
+        return update(id, version, columns);
+    }
+
+    @Override
+    public Mono<Long> updatePartially(Long id, Long version, UserUpdateDto userDto) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        putIfNotBlank(columns, "first_name", userDto.getFirstName());
+        putIfNotBlank(columns, "last_name", userDto.getLastName());
+        putIfNotBlank(columns, "email", userDto.getEmail());
+        if (Objects.nonNull(userDto.getDateOfBirth())) {
+            columns.put("date_of_birth", userDto.getDateOfBirth());
+        }
+        putIfNotBlank(columns, "address", userDto.getAddress());
+        putIfNotBlank(columns, "phone_number", userDto.getPhoneNumber());
+
+        if (columns.isEmpty()) {
+            return databaseClient.sql("SELECT version FROM USER_TABLE WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get("version", Long.class))
+                .one()
+                .map(current -> version == null || version.equals(current) ? 1L : 0L)
+                .defaultIfEmpty(0L);
+        }
+        return update(id, version, columns);
+    }
+
+    private Mono<Long> update(Long id, Long version, Map<String, Object> columns) {
+        StringBuilder sql = new StringBuilder("UPDATE USER_TABLE SET ");
+        columns.keySet().forEach(column -> sql.append(column).append(" = :").append(column).append(", "));
+        sql.append("version = version + 1 WHERE id = :id");
+        if (version != null) {
+            sql.append(" AND version = :version");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString()).bind("id", id);
+        if (version != null) {
+            spec = spec.bind("version", version);
+        }
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            spec = column.getValue() == null
+                ? spec.bindNull(column.getKey(), column.getKey().equals("date_of_birth") ? LocalDate.class : String.class)
+                : spec.bind(column.getKey(), column.getValue());
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    private void putIfNotBlank(Map<String, Object> columns, String column, String value) {
+        if (isNotBlank(value)) {
+            columns.put(column, value);
+        }
+    }
+}
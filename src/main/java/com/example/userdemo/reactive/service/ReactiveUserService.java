@@ -0,0 +1,123 @@
+package com.example.userdemo.reactive.service;
+
+import com.example.userdemo.dto.UserBatchResultDto;
+import com.example.userdemo.dto.UserPageDto;
+import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.exception.NotFoundException;
+import com.example.userdemo.exception.PreconditionFailedException;
+import com.example.userdemo.model.User;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The non-blocking counterpart of
+ * {@link com.example.userdemo.service.UserService}. Errors are signalled
+ * through the returned publishers rather than thrown.
+ */
+public interface ReactiveUserService {
+    /**
+     * Creates a new user.
+     *
+     * @param user The user entity to be created.
+     * @return The created user entity.
+     */
+    Mono<User> create(User user);
+
+    /**
+     * Creates many users at once. Every user is validated on its own; invalid
+     * users and users whose email address is already taken are reported and
+     * skipped while the remaining users are inserted.
+     *
+     * @param users The user entities to be created.
+     * @return The result for every submitted user, in the submitted order.
+     */
+    Mono<List<UserBatchResultDto>> createAll(List<User> users);
+
+    /**
+     * Updates all data in an existing user with the given ID.
+     *
+     * @param id      The ID of the user to be updated.
+     * @param user    The user entity with updated information.
+     * @param version The expected current version of the user, or {@code null}
+     *                to update regardless of the version.
+     * @return The updated user entity, or a {@link PreconditionFailedException}
+     *         if the user has a different version.
+     */
+    Mono<User> update(Long id, User user, Long version);
+
+    /**
+     * Partially updates an existing user with the given ID using the provided
+     * UserUpdateDto.
+     *
+     * @param id      The ID of the user to be updated.
+     * @param userDto The UserUpdateDto containing the updated user information.
+     * @param version The expected current version of the user, or {@code null}
+     *                to update regardless of the version.
+     * @return The updated user entity, or a {@link PreconditionFailedException}
+     *         if the user has a different version.
+     */
+    Mono<User> update(Long id, UserUpdateDto userDto, Long version);
+
+    /**
+     * Deletes a user with the given ID.
+     *
+     * @param userId The ID of the user to be deleted.
+     * @return Completes when the user is deleted, or a
+     *         {@link NotFoundException} if there is no such user.
+     */
+    Mono<Void> delete(Long userId);
+
+    /**
+     * Retrieves the user with the given ID.
+     *
+     * @param id The ID of the user.
+     * @return The user, or a {@link NotFoundException} if there is no such user.
+     */
+    Mono<User> getById(Long id);
+
+    /**
+     * Retrieves a user by email address.
+     *
+     * @param email The email address of the user to be retrieved.
+     * @return The user entity, or a {@link NotFoundException} if no user has
+     *         the email address.
+     */
+    Mono<User> getByEmail(String email);
+
+    /**
+     * Retrieves users by date of birth within a specified time range.
+     *
+     * @param from The start date of the time range.
+     * @param to   The end date of the time range.
+     * @return The users with date of birth within the specified time range.
+     */
+    Flux<User> getByDateOfBirth(LocalDate from, LocalDate to);
+
+    /**
+     * Retrieves all users.
+     *
+     * @return All users.
+     */
+    Flux<User> getAll();
+
+    /**
+     * Retrieves all users ordered by ID.
+     *
+     * @return All users ordered by ID.
+     */
+    Flux<User> streamAll();
+
+    /**
+     * Retrieves a page of users ordered by ID using keyset pagination.
+     *
+     * @param pageToken The token returned with the previous page, or
+     *                  {@code null} for the first page.
+     * @param pageSize  The maximum number of users in the page, or {@code null}
+     *                  to use the configured default.
+     * @return The page of users and the token of the next page.
+     */
+    Mono<UserPageDto> getPage(String pageToken, Integer pageSize);
+}
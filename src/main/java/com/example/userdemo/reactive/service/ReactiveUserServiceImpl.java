@@ -0,0 +1,229 @@
+package com.example.userdemo.reactive.service;
+
+import com.example.userdemo.dto.UserBatchResultDto;
+import com.example.userdemo.dto.UserPageDto;
+import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.exception.NotFoundException;
+import com.example.userdemo.exception.PreconditionFailedException;
+import com.example.userdemo.model.User;
+import com.example.userdemo.reactive.repository.ReactiveUserRepository;
+import com.example.userdemo.service.PageTokens;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.example.userdemo.constatnt.ErrorMessages.DUPLICATE_EMAIL;
+import static com.example.userdemo.constatnt.ErrorMessages.USER_NOT_FOUND_BY_EMAIL;
+import static com.example.userdemo.constatnt.ErrorMessages.USER_NOT_FOUND_BY_ID;
+import static com.example.userdemo.constatnt.ErrorMessages.USER_VERSION_MISMATCH;
+import static com.example.userdemo.constatnt.ErrorMessages.WRONG_BATCH_SIZE;
+import static com.example.userdemo.constatnt.ErrorMessages.WRONG_PAGE_SIZE;
+import static com.example.userdemo.constatnt.ErrorMessages.WRONG_TIME_PERIOD;
+
+@Service
+@RequiredArgsConstructor
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+    private static final int EMAIL_LOOKUP_CHUNK_SIZE = 1000;
+    private static final long INITIAL_VERSION = 0L;
+
+    private final ReactiveUserRepository userRepository;
+    private final Validator validator;
+
+    @Value("${userdemo.pagination.defaultPageSize}")
+    private int defaultPageSize;
+
+    @Value("${userdemo.pagination.maxPageSize}")
+    private int maxPageSize;
+
+    @Value("${userdemo.batch.maxSize}")
+    private int maxBatchSize;
+
+    @Override
+    @Transactional
+    public Mono<User> create(User user) {
+        user.setId(null);
+        user.setVersion(INITIAL_VERSION);
+        return userRepository.save(user);
+    }
+
+    @Override
+    @Transactional
+    public Mono<List<UserBatchResultDto>> createAll(List<User> users) {
+        if (users.isEmpty() || users.size() > maxBatchSize) {
+            return Mono.error(new IllegalArgumentException(WRONG_BATCH_SIZE + maxBatchSize));
+        }
+        List<UserBatchResultDto> results = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            List<String> errors = validate(users.get(i));
+            UserBatchResultDto.Status status = errors.isEmpty()
+                    ? UserBatchResultDto.Status.CREATED
+                    : UserBatchResultDto.Status.INVALID;
+            results.add(new UserBatchResultDto(i, status, null, errors));
+        }
+        List<String> emails = rejectDuplicatesWithinBatch(users, results);
+
+        return Flux.range(0, (emails.size() + EMAIL_LOOKUP_CHUNK_SIZE - 1) / EMAIL_LOOKUP_CHUNK_SIZE)
+            .concatMap(chunk -> userRepository.findExistingEmails(emails.subList(chunk * EMAIL_LOOKUP_CHUNK_SIZE,
+                Math.min((chunk + 1) * EMAIL_LOOKUP_CHUNK_SIZE, emails.size()))))
+            .collect(HashSet<String>::new, Set::add)
+            .flatMap(existingEmails -> {
+                List<UserBatchResultDto> created = new ArrayList<>(results.size());
+                List<User> validUsers = new ArrayList<>(results.size());
+                for (UserBatchResultDto result : results) {
+                    if (result.getStatus() != UserBatchResultDto.Status.CREATED) {
+                        continue;
+                    }
+                    User user = users.get(result.getIndex());
+                    if (existingEmails.contains(user.getEmail())) {
+                        markConflict(result);
+                        continue;
+                    }
+                    user.setId(null);
+                    user.setVersion(INITIAL_VERSION);
+                    created.add(result);
+                    validUsers.add(user);
+                }
+                return userRepository.saveAll(validUsers)
+                    .index()
+                    .doOnNext(saved -> created.get(saved.getT1().intValue()).setId(saved.getT2().getId()))
+                    .then(Mono.just(results));
+            });
+    }
+
+    @Override
+    @Transactional
+    public Mono<User> update(Long id, User user, Long version) {
+        return userRepository.updateFully(id, version, user)
+            .flatMap(updated -> updated == 0
+                ? updateFailure(id, version)
+                : version == null ? userRepository.findVersionById(id) : Mono.just(version + 1))
+            .map(newVersion -> {
+                user.setId(id);
+                user.setVersion(newVersion);
+                return user;
+            });
+    }
+
+    @Override
+    @Transactional
+    public Mono<User> update(Long id, UserUpdateDto userDto, Long version) {
+        return userRepository.updatePartially(id, version, userDto)
+            .flatMap(updated -> updated == 0 ? updateFailure(id, version) : getById(id));
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> delete(Long userId) {
+        return userRepository.deleteUserById(userId)
+            .flatMap(deleted -> deleted == 0
+                ? Mono.error(new NotFoundException(USER_NOT_FOUND_BY_ID + userId))
+                : Mono.empty());
+    }
+
+    @Override
+    public Mono<User> getById(Long id) {
+        return userRepository.findById(id)
+            .switchIfEmpty(Mono.error(() -> new NotFoundException(USER_NOT_FOUND_BY_ID + id)));
+    }
+
+    @Override
+    public Mono<User> getByEmail(String email) {
+        return userRepository.findByEmail(email)
+            .switchIfEmpty(Mono.error(() -> new NotFoundException(USER_NOT_FOUND_BY_EMAIL + email)));
+    }
+
+    @Override
+    public Flux<User> getByDateOfBirth(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return Flux.error(new IllegalArgumentException(WRONG_TIME_PERIOD));
+        }
+        return userRepository.findByDateOfBirthBetween(from, to);
+    }
+
+    @Override
+    public Flux<User> getAll() {
+        return userRepository.findAll();
+    }
+
+    @Override
+    public Flux<User> streamAll() {
+        return userRepository.findAllByOrderByIdAsc();
+    }
+
+    @Override
+    public Mono<UserPageDto> getPage(String pageToken, Integer pageSize) {
+        return Mono.defer(() -> {
+            int size = pageSize == null ? defaultPageSize : pageSize;
+            if (size < 1 || size > maxPageSize) {
+                return Mono.error(new IllegalArgumentException(WRONG_PAGE_SIZE + maxPageSize));
+            }
+            long lastId = pageToken == null ? 0L : PageTokens.decode(pageToken);
+
+            // One extra row tells whether a next page exists without a count query.
+            return userRepository.findByIdGreaterThan(lastId,
+                    PageRequest.of(0, size + 1, Sort.by(Sort.Direction.ASC, "id")))
+                .collectList()
+                .map(users -> {
+                    if (users.size() <= size) {
+                        return new UserPageDto(users, null);
+                    }
+                    List<User> page = users.subList(0, size);
+                    return new UserPageDto(page, PageTokens.encode(page.get(size - 1).getId()));
+                });
+        });
+    }
+
+    private <T> Mono<T> updateFailure(Long id, Long version) {
+        if (version == null) {
+            return Mono.error(new NotFoundException(USER_NOT_FOUND_BY_ID + id));
+        }
+        return userRepository.existsById(id)
+            .flatMap(exists -> Mono.error(exists
+                ? new PreconditionFailedException(USER_VERSION_MISMATCH + id)
+                : new NotFoundException(USER_NOT_FOUND_BY_ID + id)));
+    }
+
+    private List<String> validate(User user) {
+        Set<ConstraintViolation<User>> violations = validator.validate(user);
+        List<String> errors = new ArrayList<>(violations.size());
+        for (ConstraintViolation<User> violation : violations) {
+            errors.add(violation.getPropertyPath() + " - " + violation.getMessage());
+        }
+        return errors;
+    }
+
+    private List<String> rejectDuplicatesWithinBatch(List<User> users, List<UserBatchResultDto> results) {
+        Set<String> batchEmails = new HashSet<>();
+        List<String> emails = new ArrayList<>(users.size());
+        for (UserBatchResultDto result : results) {
+            if (result.getStatus() != UserBatchResultDto.Status.CREATED) {
+                continue;
+            }
+            String email = users.get(result.getIndex()).getEmail();
+            if (batchEmails.add(email)) {
+                emails.add(email);
+            } else {
+                markConflict(result);
+            }
+        }
+        return emails;
+    }
+
+    private void markConflict(UserBatchResultDto result) {
+        result.setStatus(UserBatchResultDto.Status.CONFLICT);
+        result.setErrors(List.of(DUPLICATE_EMAIL));
+    }
+}
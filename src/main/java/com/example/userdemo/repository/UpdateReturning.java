@@ -0,0 +1,55 @@
+package com.example.userdemo.repository;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+
+/**
+ * The SQL of an {@code UPDATE} statement that also returns columns of the
+ * updated rows, for each supported database. Unknown databases are rejected
+ * rather than sent SQL of another database.
+ */
+enum UpdateReturning {
+    /** {@code UPDATE ... RETURNING}. */
+    POSTGRESQL {
+        @Override
+        String sql(String update, String columns) {
+            return update + " returning " + columns;
+        }
+    },
+    /** The data change delta table of H2, its counterpart of RETURNING. */
+    H2 {
+        @Override
+        String sql(String update, String columns) {
+            return "select " + columns + " from final table (" + update + ")";
+        }
+    };
+
+    /**
+     * Wraps an {@code UPDATE} statement so it returns the given columns of the
+     * updated rows.
+     *
+     * @param update  The {@code UPDATE} statement.
+     * @param columns The comma-separated columns to return.
+     * @return The SQL of a statement returning the updated rows.
+     */
+    abstract String sql(String update, String columns);
+
+    /**
+     * Returns the variant of the given dialect.
+     *
+     * @param dialect The Hibernate dialect of the database.
+     * @return The variant of the database.
+     * @throws IllegalStateException If the database is not supported.
+     */
+    static UpdateReturning of(Dialect dialect) {
+        if (dialect instanceof PostgreSQLDialect) {
+            return POSTGRESQL;
+        }
+        if (dialect instanceof H2Dialect) {
+            return H2;
+        }
+        throw new IllegalStateException("Returning updated rows is only supported on PostgreSQL and H2, not with "
+            + dialect.getClass().getName());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.userdemo.repository;
+
+import com.example.userdemo.model.User;
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.util.function.Function;
+
+/**
+ * Conditions, sort order and keyset position of a filtered page of users.
+ * Conditions that are {@code null} are not applied.
+ *
+ * @param firstName       The exact first name.
+ * @param firstNamePrefix The start of the first name, case-sensitive.
+ * @param lastName        The exact last name.
+ * @param lastNamePrefix  The start of the last name, case-sensitive.
+ * @param bornAfter       The date of birth must be after this date.
+ * @param bornOnOrBefore  The date of birth must be on or before this date.
+ * @param hasPhone        Whether the user must or must not have a phone number.
+ * @param hasAddress      Whether the user must or must not have an address.
+ * @param sort            The column the users are ordered by, then by ID;
+ *                        {@code null} for the ID only.
+ * @param descending      Whether the order is descending.
+ * @param afterValue      The sort column value of the last user of the
+ *                        previous page, as returned by {@link SortField#valueOf(User)}.
+ * @param afterId         The ID of the last user of the previous page, or
+ *                        {@code null} for the first page.
+ */
+@Builder
+public record UserFilter(String firstName, String firstNamePrefix, String lastName, String lastNamePrefix,
+                         LocalDate bornAfter, LocalDate bornOnOrBefore, Boolean hasPhone, Boolean hasAddress,
+                         SortField sort, boolean descending, Object afterValue, Long afterId) {
+
+    /**
+     * The indexed columns users can be sorted by. Ties are ordered by ID, which
+     * ends every one of these indexes (emails are unique), so every sort order
+     * is served by an index scan.
+     */
+    public enum SortField {
+        ID("id", User::getId, Long::valueOf),
+        FIRST_NAME("firstName", User::getFirstName, value -> value),
+        LAST_NAME("lastName", User::getLastName, value -> value),
+        EMAIL("email", User::getEmail, value -> value),
+        DATE_OF_BIRTH("dateOfBirth", User::getDateOfBirth, LocalDate::parse);
+
+        private final String attribute;
+        private final Function<User, Object> getter;
+        private final Function<String, Object> parser;
+
+        SortField(String attribute, Function<User, Object> getter, Function<String, Object> parser) {
+            this.attribute = attribute;
+            this.getter = getter;
+            this.parser = parser;
+        }
+
+        /**
+         * Returns the sort field of an attribute name of User.
+         *
+         * @param attribute The attribute name, e.g. {@code lastName}.
+         * @return The sort field, or {@code null} if the attribute is not sortable.
+         */
+        public static SortField of(String attribute) {
+            for (SortField field : values()) {
+                if (field.attribute.equals(attribute)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the attribute name of User the field sorts by.
+         *
+         * @return The attribute name.
+         */
+        public String attribute() {
+            return attribute;
+        }
+
+        /**
+         * Returns the value of the sort column of a user.
+         *
+         * @param user The user.
+         * @return The value of the sort column.
+         */
+        public Object valueOf(User user) {
+            return getter.apply(user);
+        }
+
+        /**
+         * Parses a sort column value from its string form.
+         *
+         * @param value The string form of the value.
+         * @return The value of the sort column.
+         * @throws RuntimeException If the value is malformed.
+         */
+        public Object parse(String value) {
+            return parser.apply(value);
+        }
+    }
+}
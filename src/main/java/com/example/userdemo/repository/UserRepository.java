@@ -1,18 +1,45 @@
 package com.example.userdemo.repository;
 
+import com.example.userdemo.dto.UserSummaryDto;
 import com.example.userdemo.model.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Repository interface for managing user entities in the application. Provides
  * methods for querying and managing user data in the database.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+    /**
+     * The number of rows fetched from the database per round trip while
+     * streaming users.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
+    /**
+     * Selects whole users through the all-arguments constructor of User, so
+     * the results are plain objects which are neither managed nor kept in
+     * the persistence context.
+     */
+    String SELECT_DETACHED_USERS = "select new com.example.userdemo.model.User(u.id, u.firstName, u.lastName, "
+        + "u.email, u.dateOfBirth, u.address, u.phoneNumber, u.version) from User u";
+
     /**
      * Find a list of users whose date of birth falls within the specified date
      * range.
@@ -22,4 +49,181 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return A list of users with date of birth within the specified range.
      */
     List<User> findByDateOfBirthBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Find the users whose date of birth falls within the specified date range
+     * as detached objects. Unlike {@link #findByDateOfBirthBetween}, nothing is
+     * added to the persistence context, so the users can be collected as soon
+     * as the caller drops them, even inside a long transaction.
+     *
+     * @param from The start date of the date range (inclusive).
+     * @param to   The end date of the date range (inclusive).
+     * @return A list of detached users with date of birth within the specified range.
+     */
+    @Query(SELECT_DETACHED_USERS + " where u.dateOfBirth between :from and :to")
+    List<User> findDetachedByDateOfBirthBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Find all users as detached objects, without adding them to the
+     * persistence context.
+     *
+     * @return A list of all users, detached.
+     */
+    @Query(SELECT_DETACHED_USERS)
+    List<User> findAllDetached();
+
+    /**
+     * Stream all users as detached objects, e.g. to rebuild the search index
+     * at startup. The returned stream holds an open cursor and must be
+     * consumed inside a transaction and closed afterwards.
+     *
+     * @return A stream of all users, detached.
+     */
+    @Query(SELECT_DETACHED_USERS)
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamAllDetached();
+
+    /**
+     * Find the users with the given IDs as detached objects, in no particular
+     * order. IDs without a user are ignored.
+     *
+     * @param ids The IDs of the users.
+     * @return A list of the detached users with the given IDs.
+     */
+    @Query(SELECT_DETACHED_USERS + " where u.id in :ids")
+    List<User> findDetachedByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find summaries of the users whose date of birth falls within the
+     * specified date range. Only the summary columns are selected and no
+     * entity is loaded.
+     *
+     * @param from The start date of the date range (inclusive).
+     * @param to   The end date of the date range (inclusive).
+     * @return A list of user summaries with date of birth within the specified range.
+     */
+    @Query("select new com.example.userdemo.dto.UserSummaryDto(u.id, u.firstName, u.lastName, u.email, "
+        + "u.dateOfBirth) from User u where u.dateOfBirth between :from and :to")
+    List<UserSummaryDto> findSummariesByDateOfBirthBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Find summaries of all users. Only the summary columns are selected and
+     * no entity is loaded.
+     *
+     * @return A list of summaries of all users.
+     */
+    @Query("select new com.example.userdemo.dto.UserSummaryDto(u.id, u.firstName, u.lastName, u.email, "
+        + "u.dateOfBirth) from User u")
+    List<UserSummaryDto> findAllSummaries();
+
+    /**
+     * Find a page of users whose ID is greater than the given one (keyset
+     * pagination). No count query is issued.
+     *
+     * @param id       The ID of the last user of the previous page (exclusive).
+     * @param pageable The page size and the sort order, normally ascending by ID.
+     * @return A list of at most {@code pageable.getPageSize()} users.
+     */
+    List<User> findByIdGreaterThan(Long id, Pageable pageable);
+
+    /**
+     * Stream all users ordered by ID. The returned stream holds an open cursor
+     * and must be consumed inside a transaction and closed afterwards.
+     *
+     * @return A stream of all users ordered by ID.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamAllByOrderByIdAsc();
+
+    /**
+     * Stream users whose date of birth falls within the specified date range.
+     * The returned stream holds an open forward-only cursor and must be consumed
+     * inside a transaction and closed afterwards.
+     *
+     * @param from The start date of the date range (inclusive).
+     * @param to   The end date of the date range (inclusive).
+     * @return A stream of users with date of birth within the specified range.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamByDateOfBirthBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Find the user with the given email address as a detached object. The
+     * lookup is served by the unique index of the email column.
+     *
+     * @param email The email address of the user.
+     * @return The detached user, or empty if no user has the email address.
+     */
+    @Query(SELECT_DETACHED_USERS + " where u.email = :email")
+    Optional<User> findDetachedByEmail(@Param("email") String email);
+
+    /**
+     * Check whether a saved user has the given email address, using only the
+     * unique index of the email column.
+     *
+     * @param email The email address to look up.
+     * @return {@code true} if a user has the email address.
+     */
+    boolean existsByEmail(String email);
+
+    /**
+     * Stream the email addresses of all users, e.g. to fill the duplicate
+     * email filter at startup. Must be consumed inside a transaction.
+     *
+     * @return A stream of all email addresses.
+     */
+    @Query("select u.email from User u")
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<String> streamAllEmails();
+
+    /**
+     * Find which of the given email addresses are already used by saved users.
+     *
+     * @param emails The email addresses to look up.
+     * @return The subset of the given email addresses that already exist.
+     */
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * Replace all data of the user with the given ID and version with a single
+     * conditional {@code UPDATE} statement, without loading the user first.
+     * The persistence context is flushed before and cleared after the statement.
+     *
+     * @param id      The ID of the user to be updated.
+     * @param version The expected current version of the user.
+     * @param user    The user entity with updated information.
+     * @return The number of updated users, {@code 0} if no user has the given ID
+     *         and version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.firstName = :#{#user.firstName}, u.lastName = :#{#user.lastName}, "
+        + "u.email = :#{#user.email}, u.dateOfBirth = :#{#user.dateOfBirth}, u.address = :#{#user.address}, "
+        + "u.phoneNumber = :#{#user.phoneNumber}, u.version = u.version + 1 "
+        + "where u.id = :id and u.version = :version")
+    int updateFully(@Param("id") Long id, @Param("version") Long version, @Param("user") User user);
+
+    /**
+     * Delete the user with the given ID with a single conditional
+     * {@code DELETE} statement, without loading the user first. The
+     * persistence context is flushed before and cleared after the statement.
+     *
+     * @param id The ID of the user to be deleted.
+     * @return The number of deleted users, {@code 0} if no user has the given ID.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(@Param("id") Long id);
 }
@@ -0,0 +1,58 @@
+package com.example.userdemo.repository;
+
+import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.model.User;
+
+import java.util.List;
+
+/**
+ * Custom repository methods which cannot be expressed as derived or annotated
+ * queries of {@link UserRepository}.
+ */
+public interface UserRepositoryCustom {
+    /**
+     * Updates only the fields supplied in the given UserUpdateDto with a single
+     * {@code UPDATE ... SET <supplied fields> WHERE id = ?} statement which
+     * also returns the updated row, like
+     * {@link #updateFullyReturningVersion(Long, User)}. Blank fields are left
+     * unchanged and the version is incremented. The user is not loaded before
+     * the statement, and the persistence context is cleared after it, so later
+     * reads in the same transaction see the updated row instead of a stale
+     * managed copy.
+     *
+     * @param id      The ID of the user to be updated.
+     * @param version The expected current version of the user, or {@code null}
+     *                to update regardless of the version.
+     * @param userDto The UserUpdateDto containing the fields to be updated.
+     * @return The updated user, detached, or {@code null} if no user has the
+     *         given ID and version.
+     */
+    User updatePartially(Long id, Long version, UserUpdateDto userDto);
+
+    /**
+     * Replaces all data of the user with the given ID and reads back the
+     * incremented version in the same statement ({@code RETURNING} on
+     * PostgreSQL, a data change delta table on H2), so the update costs a
+     * single round trip without loading the user. The persistence context is
+     * flushed before and cleared after the statement.
+     *
+     * @param id   The ID of the user to be updated.
+     * @param user The user entity with updated information.
+     * @return The new version of the user, or {@code null} if no user has the
+     *         given ID.
+     */
+    Long updateFullyReturningVersion(Long id, User user);
+
+    /**
+     * Finds a page of users matching the filter with a single parameterized
+     * {@code SELECT}, ordered by the sort field and the ID and starting after
+     * the keyset position of the filter (keyset pagination). Filters with the
+     * same conditions and sort order share one query string, so the query plan
+     * and prepared statement are reused. The users are detached.
+     *
+     * @param filter The conditions, sort order and keyset position.
+     * @param limit  The maximum number of users.
+     * @return The matching users in sort order.
+     */
+    List<User> findByFilter(UserFilter filter, int limit);
+}
@@ -0,0 +1,232 @@
+package com.example.userdemo.repository;
+
+import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.TypedParameterValue;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.example.userdemo.repository.UserRepository.SELECT_DETACHED_USERS;
+
+import static org.apache.logging.log4j.util.Strings.isNotBlank;
+
+/**
+ * Native SQL and JPQL based implementation of {@link UserRepositoryCustom}.
+ *
+ * Filter queries are built as JPQL strings rather than criteria trees:
+ * Hibernate caches the translation of a JPQL string, but translates every
+ * criteria query anew. The string depends only on the shape of the filter,
+ * i.e. which conditions are present and the sort order, never on the values,
+ * which are bound as parameters; it is built once per shape and cached here.
+ *
+ * The partial update and the full update without a version are native SQL,
+ * as JPQL cannot return the updated row from the {@code UPDATE} statement;
+ * the SQL is chosen by {@link UpdateReturning} for the database in use.
+ */
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private static final String UPDATE_FULLY = "update USER_TABLE set first_name = :firstName, "
+        + "last_name = :lastName, email = :email, date_of_birth = :dateOfBirth, address = :address, "
+        + "phone_number = :phoneNumber, version = version + 1 where id = :id";
+    private static final String USER_COLUMNS =
+        "id, first_name, last_name, email, date_of_birth, address, phone_number, version";
+
+    private final EntityManager entityManager;
+    /** The JPQL of each filter shape; there are a few thousand shapes at most. */
+    private final Map<FilterShape, String> filterQueries = new ConcurrentHashMap<>();
+
+    @Override
+    public User updatePartially(Long id, Long version, UserUpdateDto userDto) {
+        List<String> assignments = new ArrayList<>();
+        Map<String, TypedParameterValue<?>> parameters = new LinkedHashMap<>();
+        setIfNotBlank(assignments, parameters, "first_name", "firstName", userDto.getFirstName());
+        setIfNotBlank(assignments, parameters, "last_name", "lastName", userDto.getLastName());
+        setIfNotBlank(assignments, parameters, "email", "email", userDto.getEmail());
+        if (Objects.nonNull(userDto.getDateOfBirth())) {
+            assignments.add("date_of_birth = :dateOfBirth");
+            parameters.put("dateOfBirth",
+                new TypedParameterValue<>(StandardBasicTypes.LOCAL_DATE, userDto.getDateOfBirth()));
+        }
+        setIfNotBlank(assignments, parameters, "address", "address", userDto.getAddress());
+        setIfNotBlank(assignments, parameters, "phone_number", "phoneNumber", userDto.getPhoneNumber());
+
+        if (assignments.isEmpty()) {
+            User current = entityManager.find(User.class, id);
+            if (current == null || (version != null && !version.equals(current.getVersion()))) {
+                return null;
+            }
+            entityManager.detach(current);
+            return current;
+        }
+        assignments.add("version = version + 1");
+        String update = "update USER_TABLE set " + String.join(", ", assignments) + " where id = :id"
+            + (version == null ? "" : " and version = :version");
+        Query query = entityManager.createNativeQuery(updateReturning().sql(update, USER_COLUMNS), User.class)
+            .setParameter("id", id);
+        parameters.forEach(query::setParameter);
+        if (version != null) {
+            query.setParameter("version", version);
+        }
+        // The statement bypasses the persistence context; pending changes are flushed before it and the
+        // stale copies loaded earlier in the transaction (e.g. by a write queue batch) are dropped after it,
+        // which also detaches the returned user.
+        entityManager.flush();
+        List<?> users = query.getResultList();
+        entityManager.clear();
+        return users.isEmpty() ? null : (User) users.get(0);
+    }
+
+    @Override
+    public Long updateFullyReturningVersion(Long id, User user) {
+        // Typed values, so null strings are bound as VARCHAR on every database.
+        Query query = entityManager.createNativeQuery(updateReturning().sql(UPDATE_FULLY, "version"), Long.class)
+            .setParameter("firstName", new TypedParameterValue<>(StandardBasicTypes.STRING, user.getFirstName()))
+            .setParameter("lastName", new TypedParameterValue<>(StandardBasicTypes.STRING, user.getLastName()))
+            .setParameter("email", new TypedParameterValue<>(StandardBasicTypes.STRING, user.getEmail()))
+            .setParameter("dateOfBirth",
+                new TypedParameterValue<>(StandardBasicTypes.LOCAL_DATE, user.getDateOfBirth()))
+            .setParameter("address", new TypedParameterValue<>(StandardBasicTypes.STRING, user.getAddress()))
+            .setParameter("phoneNumber",
+                new TypedParameterValue<>(StandardBasicTypes.STRING, user.getPhoneNumber()))
+            .setParameter("id", id);
+        // Like the other bulk statements: flushed before, and the stale managed copies dropped after.
+        entityManager.flush();
+        List<?> versions = query.getResultList();
+        entityManager.clear();
+        return versions.isEmpty() ? null : (Long) versions.get(0);
+    }
+
+    private UpdateReturning updateReturning() {
+        return UpdateReturning.of(entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices().getDialect());
+    }
+
+    private static void setIfNotBlank(List<String> assignments, Map<String, TypedParameterValue<?>> parameters,
+                                      String column, String parameter, String value) {
+        if (isNotBlank(value)) {
+            assignments.add(column + " = :" + parameter);
+            parameters.put(parameter, new TypedParameterValue<>(StandardBasicTypes.STRING, value));
+        }
+    }
+
+    @Override
+    public List<User> findByFilter(UserFilter filter, int limit) {
+        FilterShape shape = FilterShape.of(filter);
+        TypedQuery<User> query = entityManager.createQuery(
+            filterQueries.computeIfAbsent(shape, FilterShape::toJpql), User.class);
+        setIfPresent(query, "firstName", filter.firstName());
+        setIfPresent(query, "firstNamePrefix", likePrefix(filter.firstNamePrefix()));
+        setIfPresent(query, "lastName", filter.lastName());
+        setIfPresent(query, "lastNamePrefix", likePrefix(filter.lastNamePrefix()));
+        setIfPresent(query, "bornAfter", filter.bornAfter());
+        setIfPresent(query, "bornOnOrBefore", filter.bornOnOrBefore());
+        if (shape.keyset()) {
+            if (shape.sort() != UserFilter.SortField.ID) {
+                query.setParameter("afterValue", filter.afterValue());
+            }
+            query.setParameter("afterId", filter.afterId());
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    private static void setIfPresent(TypedQuery<User> query, String name, Object value) {
+        if (value != null) {
+            query.setParameter(name, value);
+        }
+    }
+
+    /**
+     * Escapes the LIKE wildcards of a prefix and appends a trailing wildcard,
+     * so the prefix can be matched by an index range scan.
+     */
+    private static String likePrefix(String prefix) {
+        if (prefix == null) {
+            return null;
+        }
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    private enum Match {
+        NONE, EQUALS, STARTS_WITH;
+
+        static Match of(String value, String prefix) {
+            return value != null ? EQUALS : prefix != null ? STARTS_WITH : NONE;
+        }
+    }
+
+    /**
+     * The parts of a filter that determine its query string.
+     */
+    private record FilterShape(Match firstName, Match lastName, boolean bornAfter, boolean bornOnOrBefore,
+                               Boolean hasPhone, Boolean hasAddress, UserFilter.SortField sort,
+                               boolean descending, boolean keyset) {
+
+        static FilterShape of(UserFilter filter) {
+            return new FilterShape(Match.of(filter.firstName(), filter.firstNamePrefix()),
+                Match.of(filter.lastName(), filter.lastNamePrefix()), filter.bornAfter() != null,
+                filter.bornOnOrBefore() != null, filter.hasPhone(), filter.hasAddress(),
+                filter.sort() == null ? UserFilter.SortField.ID : filter.sort(), filter.descending(),
+                filter.afterId() != null);
+        }
+
+        String toJpql() {
+            List<String> conditions = new ArrayList<>();
+            addMatch(conditions, "firstName", firstName);
+            addMatch(conditions, "lastName", lastName);
+            if (bornAfter) {
+                conditions.add("u.dateOfBirth > :bornAfter");
+            }
+            if (bornOnOrBefore) {
+                conditions.add("u.dateOfBirth <= :bornOnOrBefore");
+            }
+            addPresence(conditions, "phoneNumber", hasPhone);
+            addPresence(conditions, "address", hasAddress);
+
+            String column = "u." + sort.attribute();
+            String after = descending ? "<" : ">";
+            if (keyset && sort == UserFilter.SortField.ID) {
+                conditions.add("u.id " + after + " :afterId");
+            } else if (keyset) {
+                // The first condition alone is a range on the leading index column.
+                conditions.add(column + " " + after + "= :afterValue and (" + column + " " + after
+                    + " :afterValue or u.id " + after + " :afterId)");
+            }
+
+            String direction = descending ? " desc" : " asc";
+            StringBuilder jpql = new StringBuilder(SELECT_DETACHED_USERS);
+            if (!conditions.isEmpty()) {
+                jpql.append(" where ").append(String.join(" and ", conditions));
+            }
+            jpql.append(" order by ");
+            if (sort != UserFilter.SortField.ID) {
+                jpql.append(column).append(direction).append(", ");
+            }
+            return jpql.append("u.id").append(direction).toString();
+        }
+
+        private static void addMatch(List<String> conditions, String attribute, Match match) {
+            if (match == Match.EQUALS) {
+                conditions.add("u." + attribute + " = :" + attribute);
+            } else if (match == Match.STARTS_WITH) {
+                conditions.add("u." + attribute + " like :" + attribute + "Prefix escape '\\'");
+            }
+        }
+
+        private static void addPresence(List<String> conditions, String attribute, Boolean present) {
+            if (present != null) {
+                conditions.add("u." + attribute + (present ? " is not null" : " is null"));
+            }
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.userdemo.search;
+
+import com.example.userdemo.model.User;
+import com.example.userdemo.service.Tombstones;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.example.userdemo.constatnt.ErrorMessages.WRONG_SEARCH_PAGE;
+import static com.example.userdemo.constatnt.ErrorMessages.WRONG_SEARCH_QUERY;
+
+/**
+ * Embedded Lucene full-text index of the user names, email addresses and
+ * addresses.
+ *
+ * Every user is a document with its ID and the analyzed (tokenized and lower
+ * cased) text of the four searchable fields. A query matches users for which
+ * every query term matches one of the fields exactly, as a prefix, or, for
+ * terms of four or more characters, within one or two edits; exact matches
+ * rank above prefix matches and prefix matches above fuzzy ones.
+ *
+ * Writes are not committed; they only count as pending for the near-real-time
+ * searcher, and the next search refreshes it first, so a search sees every
+ * write that returned before it while a batch of writes costs one refresh.
+ * Refreshes are serialized and each records the number of writes it covers,
+ * so a search never skips a refresh that another search has started but not
+ * finished.
+ * The index is rebuilt from the database at startup, so it is only committed
+ * after a rebuild and when it is closed.
+ *
+ * Like the date of birth index, a write carrying an older version than the
+ * indexed user is ignored, and removed IDs are kept as {@link Tombstones}
+ * whose later writes are ignored, so writes applied out of commit order neither bring back
+ * older text nor deleted users. The versions are kept in a primitive hash map
+ * next to the index rather than read back from it; a version of {@code null}
+ * is kept as {@value #NULL_VERSION}.
+ */
+public class UserSearchIndex implements Closeable {
+    /**
+     * The maximum offset plus page size of a search, bounding the cost of
+     * collecting the top hits.
+     */
+    public static final int MAX_RESULTS = 10_000;
+
+    static final String ID_FIELD = "id";
+    static final long NULL_VERSION = -1;
+    static final List<String> SEARCH_FIELDS = List.of("firstName", "lastName", "email", "address");
+
+    private static final float EXACT_BOOST = 4;
+    private static final float PREFIX_BOOST = 2;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MIN_TWO_EDITS_LENGTH = 7;
+    /** Leading characters a fuzzy match must share, which keeps fuzzy queries fast. */
+    private static final int FUZZY_PREFIX_LENGTH = 1;
+
+    private final Directory directory;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final Object writeLock = new Object();
+    /** The versions of the indexed users by ID. Guarded by the write lock. */
+    private final LongLongHashMap versionsById = new LongLongHashMap();
+    /** The IDs of the recently removed users. Guarded by the write lock. */
+    private final Tombstones tombstones;
+    private final Object refreshLock = new Object();
+    /** The number of completed writes. Incremented under the write lock. */
+    private volatile long writes;
+    /** The number of writes covered by the last refresh. Set under the refresh lock. */
+    private volatile long refreshedWrites;
+
+    /**
+     * Opens the index in the given directory.
+     *
+     * @param directory The Lucene directory of the index, e.g. in memory or on
+     *                  the local disk.
+     * @throws IOException If the index cannot be opened.
+     */
+    public UserSearchIndex(Directory directory) throws IOException {
+        this(directory, new Tombstones());
+    }
+
+    /**
+     * Opens the index in the given directory.
+     *
+     * @param directory  The Lucene directory of the index.
+     * @param tombstones The empty tombstones of the index.
+     * @throws IOException If the index cannot be opened.
+     */
+    public UserSearchIndex(Directory directory, Tombstones tombstones) throws IOException {
+        this.directory = directory;
+        this.tombstones = tombstones;
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Replaces the content of the index with the given users and commits it.
+     *
+     * @param users The users to be indexed.
+     */
+    public void rebuild(Stream<User> users) {
+        synchronized (writeLock) {
+            try {
+                writer.deleteAll();
+                versionsById.clear();
+                tombstones.clear();
+                for (User user : (Iterable<User>) users::iterator) {
+                    writer.addDocument(document(user));
+                    versionsById.put(user.getId(), version(user));
+                }
+                writer.commit();
+                writes++;
+                searcherManager.maybeRefreshBlocking();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Adds a user to the index, or replaces the indexed user with the same ID
+     * unless it has a newer version. Users removed before are not added again.
+     *
+     * @param user The created or updated user.
+     */
+    public void put(User user) {
+        synchronized (writeLock) {
+            // An absent version is NO_VALUE, below every version.
+            if (tombstones.contains(user.getId()) || (user.getVersion() != null
+                    && versionsById.get(user.getId()) > user.getVersion())) {
+                return;
+            }
+            try {
+                writer.updateDocument(idTerm(user.getId()), document(user));
+                versionsById.put(user.getId(), version(user));
+                writes++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Removes a user from the index and keeps its ID as a tombstone, so
+     * delayed writes of the user cannot add it again.
+     *
+     * @param id The ID of the deleted user.
+     */
+    public void remove(Long id) {
+        synchronized (writeLock) {
+            try {
+                writer.deleteDocuments(idTerm(id));
+                versionsById.remove(id);
+                tombstones.add(id);
+                writes++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Finds the IDs of the users matching the query, best matches first.
+     *
+     * @param text   The search text; every word must match.
+     * @param offset The number of best matches to skip.
+     * @param limit  The maximum number of IDs to return.
+     * @return The matching IDs and whether there are more matches.
+     * @throws IllegalArgumentException If the text contains no searchable
+     *                                  word or offset plus limit exceeds
+     *                                  {@link #MAX_RESULTS}.
+     */
+    public SearchResult search(String text, int offset, int limit) {
+        if (offset < 0 || limit < 1 || offset + limit > MAX_RESULTS) {
+            throw new IllegalArgumentException(WRONG_SEARCH_PAGE + MAX_RESULTS);
+        }
+        Query query = query(text);
+        try {
+            refreshUpTo(writes);
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                // One extra hit tells whether a next page exists.
+                TopDocs topDocs = searcher.search(query, offset + limit + 1);
+                ScoreDoc[] hits = topDocs.scoreDocs;
+                List<Long> ids = new ArrayList<>(limit);
+                for (int i = offset; i < Math.min(hits.length, offset + limit); i++) {
+                    ids.add(Long.valueOf(searcher.storedFields().document(hits[i].doc).get(ID_FIELD)));
+                }
+                return new SearchResult(ids, hits.length > offset + limit);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Refreshes the searcher unless a finished refresh already covers the
+     * given number of writes. A refresh covers the writes completed when it
+     * started; concurrent searches wait for it rather than search an older
+     * searcher.
+     */
+    private void refreshUpTo(long completedWrites) throws IOException {
+        if (refreshedWrites >= completedWrites) {
+            return;
+        }
+        synchronized (refreshLock) {
+            if (refreshedWrites < completedWrites) {
+                long covered = writes;
+                searcherManager.maybeRefreshBlocking();
+                refreshedWrites = covered;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of indexed users.
+     *
+     * @return The number of indexed users.
+     */
+    public int size() {
+        return writer.getDocStats().numDocs;
+    }
+
+    /**
+     * Commits and closes the index.
+     *
+     * @throws IOException If the index cannot be committed or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * Builds the query of a search text: all words are required, and each word
+     * may match any field exactly, as a prefix or fuzzily.
+     */
+    Query query(String text) {
+        List<String> words = analyze(text);
+        if (words.isEmpty()) {
+            throw new IllegalArgumentException(WRONG_SEARCH_QUERY);
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String word : words) {
+            BooleanQuery.Builder wordQuery = new BooleanQuery.Builder();
+            for (String field : SEARCH_FIELDS) {
+                Term term = new Term(field, word);
+                wordQuery.add(new BoostQuery(new TermQuery(term), EXACT_BOOST), BooleanClause.Occur.SHOULD);
+                if (word.length() >= MIN_PREFIX_LENGTH) {
+                    wordQuery.add(new BoostQuery(new PrefixQuery(term), PREFIX_BOOST), BooleanClause.Occur.SHOULD);
+                }
+                if (word.length() >= MIN_FUZZY_LENGTH) {
+                    int maxEdits = word.length() >= MIN_TWO_EDITS_LENGTH ? 2 : 1;
+                    wordQuery.add(new FuzzyQuery(term, maxEdits, FUZZY_PREFIX_LENGTH), BooleanClause.Occur.SHOULD);
+                }
+            }
+            query.add(wordQuery.build(), BooleanClause.Occur.MUST);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> words = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(SEARCH_FIELDS.get(0), text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                words.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return words;
+    }
+
+    private static Document document(User user) {
+        Document document = new Document();
+        document.add(new StringField(ID_FIELD, user.getId().toString(), Field.Store.YES));
+        addText(document, "firstName", user.getFirstName());
+        addText(document, "lastName", user.getLastName());
+        addText(document, "email", user.getEmail());
+        addText(document, "address", user.getAddress());
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private static long version(User user) {
+        return user.getVersion() == null ? NULL_VERSION : user.getVersion();
+    }
+
+    private static Term idTerm(Long id) {
+        return new Term(ID_FIELD, id.toString());
+    }
+
+    /**
+     * A page of search results.
+     *
+     * @param ids     The IDs of the matching users, best matches first.
+     * @param hasMore Whether there are more matches after this page.
+     */
+    public record SearchResult(List<Long> ids, boolean hasMore) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.userdemo.service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Day-granularity clock shared by the date validators.
+ *
+ * The current date is resolved once per day and cached together with the
+ * time span it is valid for, so {@link #today()} costs a single clock read
+ * and allocates nothing. The first call after midnight (in the zone of the
+ * clock) resolves the new date; a clock that is moved backwards is followed
+ * as well, which makes the provider usable with adjustable test clocks.
+ */
+public class CurrentDateProvider {
+    /**
+     * Provider of the system clock in the default time zone, used when the
+     * validators are created outside of the Spring context.
+     */
+    public static final CurrentDateProvider SYSTEM = new CurrentDateProvider(Clock.systemDefaultZone());
+
+    private final Clock clock;
+    private volatile Day day;
+
+    /**
+     * Creates a provider of the current date of the given clock.
+     *
+     * @param clock The clock, whose zone defines when a day starts.
+     */
+    public CurrentDateProvider(Clock clock) {
+        this.clock = clock;
+        this.day = Day.of(clock);
+    }
+
+    /**
+     * Returns the current date. The same instance is returned for the whole
+     * day, so callers may cache values derived from it and compare the date
+     * by reference.
+     *
+     * @return The current date in the zone of the clock.
+     */
+    public LocalDate today() {
+        Day current = day;
+        long now = clock.millis();
+        if (now < current.startMillis || now >= current.endMillis) {
+            current = Day.of(clock);
+            day = current;
+        }
+        return current.date;
+    }
+
+    private record Day(LocalDate date, long startMillis, long endMillis) {
+        static Day of(Clock clock) {
+            LocalDate date = LocalDate.now(clock);
+            return new Day(date,
+                date.atStartOfDay(clock.getZone()).toInstant().toEpochMilli(),
+                date.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli());
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.example.userdemo.service;
+
+import com.example.userdemo.model.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-process secondary index of the users by date of birth, which answers
+ * date of birth range queries without the database.
+ *
+ * Users are kept as detached copies sorted by the epoch day of the date of
+ * birth and the ID, in segments of {@value #SEGMENT_DAYS} days. Each segment
+ * holds parallel primitive arrays of the epoch days and IDs next to the users,
+ * so lookups only binary search the primitive arrays. The segment table is
+ * sparse: it holds only the non-empty segments, sorted by segment number, so
+ * its size does not depend on how far apart the dates of birth are. Segments
+ * and the segment table are copy-on-write: a writer copies the segments it
+ * changes and publishes them with a new table in one volatile write, so
+ * readers never lock and always see every write either completely or not at
+ * all, even when an update moves a user to another segment. Writers are
+ * serialized by a single lock.
+ *
+ * A write carrying an older version than the indexed user is ignored, so
+ * concurrent updates of one user applied out of commit order keep the newest
+ * version. Removed IDs are kept as {@link Tombstones}: a deleted user has no
+ * later versions, so a write of a removed ID applied after the removal is
+ * always stale and is ignored as well.
+ *
+ * Epoch days are clamped to the int range. Dates beyond it share the first or
+ * last day, so range queries reaching them check the exact dates.
+ */
+public class DateOfBirthIndex {
+    static final int SEGMENT_DAYS = 256;
+
+    private static final int SEGMENT_SHIFT = Integer.numberOfTrailingZeros(SEGMENT_DAYS);
+    private static final Comparator<User> BY_DAY_AND_ID =
+        Comparator.comparingInt(DateOfBirthIndex::day).thenComparing(User::getId);
+
+    private final Object writeLock = new Object();
+    /**
+     * The indexed users by ID, to find the segment of a user on update and
+     * delete. Guarded by the write lock.
+     */
+    private final Map<Long, User> usersById = new HashMap<>();
+    /** The IDs of the recently removed users. Guarded by the write lock. */
+    private final Tombstones tombstones;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public DateOfBirthIndex() {
+        this(new Tombstones());
+    }
+
+    /**
+     * Creates an empty index.
+     *
+     * @param tombstones The empty tombstones of the index.
+     */
+    public DateOfBirthIndex(Tombstones tombstones) {
+        this.tombstones = tombstones;
+    }
+
+    /**
+     * Replaces the content of the index with the given users.
+     *
+     * @param users The users to be indexed.
+     */
+    public void load(List<User> users) {
+        List<User> copies = new ArrayList<>(users.size());
+        for (User user : users) {
+            copies.add(copyOf(user));
+        }
+        copies.sort(BY_DAY_AND_ID);
+        synchronized (writeLock) {
+            usersById.clear();
+            tombstones.clear();
+            copies.forEach(user -> usersById.put(user.getId(), user));
+            snapshot = Snapshot.of(copies);
+        }
+    }
+
+    /**
+     * Retrieves the users with a date of birth within the specified date
+     * range, ordered by date of birth and ID.
+     *
+     * @param from The start date of the date range (inclusive).
+     * @param to   The end date of the date range (inclusive).
+     * @return Detached copies of the users with date of birth within the range.
+     */
+    public List<User> findByDateOfBirthBetween(LocalDate from, LocalDate to) {
+        Snapshot current = snapshot;
+        int fromDay = epochDay(from);
+        int toDay = epochDay(to);
+        boolean clamped = fromDay != from.toEpochDay() || toDay != to.toEpochDay();
+        int lastSegment = segmentOf(toDay);
+        List<User> users = new ArrayList<>();
+        for (int segment = current.lowerBound(segmentOf(fromDay));
+             segment < current.keys().length && current.keys()[segment] <= lastSegment; segment++) {
+            Segment s = current.segments()[segment];
+            int end = s.upperBound(toDay);
+            for (int i = s.lowerBound(fromDay); i < end; i++) {
+                User user = s.users()[i];
+                if (!clamped || !(user.getDateOfBirth().isBefore(from) || user.getDateOfBirth().isAfter(to))) {
+                    users.add(copyOf(user));
+                }
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Adds a user to the index, or replaces the indexed user with the same ID
+     * unless it has a newer version. Users removed before are not added again.
+     *
+     * @param user The created or updated user.
+     */
+    public void put(User user) {
+        User copy = copyOf(user);
+        synchronized (writeLock) {
+            User previous = usersById.get(copy.getId());
+            if (tombstones.contains(copy.getId()) || (previous != null && isNewer(previous, copy))) {
+                return;
+            }
+            usersById.put(copy.getId(), copy);
+            snapshot = snapshot.replace(previous, copy);
+        }
+    }
+
+    /**
+     * Removes a user from the index and keeps its ID as a tombstone, so
+     * delayed writes of the user cannot add it again.
+     *
+     * @param id The ID of the deleted user.
+     */
+    public void remove(Long id) {
+        synchronized (writeLock) {
+            tombstones.add(id);
+            User previous = usersById.remove(id);
+            if (previous != null) {
+                snapshot = snapshot.replace(previous, null);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of indexed users.
+     *
+     * @return The number of indexed users.
+     */
+    public int size() {
+        return snapshot.size();
+    }
+
+    /**
+     * Estimates the heap used by the index: the segment table, the segments
+     * with their arrays, the indexed users with their field values, the ID
+     * lookup table and the tombstones. The estimate assumes a 64-bit JVM with
+     * compressed references and compact strings.
+     *
+     * @return The estimated size of the index in bytes.
+     */
+    public long memoryBytes() {
+        Snapshot current = snapshot;
+        long bytes = arrayBytes(current.keys().length, 4) + arrayBytes(current.segments().length, 4);
+        for (Segment segment : current.segments()) {
+            bytes += segment.memoryBytes();
+        }
+        synchronized (writeLock) {
+            bytes += tombstones.memoryBytes();
+        }
+        // HashMap node, boxed key and table slot per user.
+        return bytes + current.size() * (32L + 16L + 4L);
+    }
+
+    static int segmentOf(int epochDay) {
+        return epochDay >> SEGMENT_SHIFT;
+    }
+
+    private static int day(User user) {
+        return epochDay(user.getDateOfBirth());
+    }
+
+    private static int epochDay(LocalDate date) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, date.toEpochDay()));
+    }
+
+    private static boolean isNewer(User indexed, User user) {
+        return indexed.getVersion() != null && user.getVersion() != null
+            && indexed.getVersion() > user.getVersion();
+    }
+
+    private static User copyOf(User user) {
+        return new User(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+            user.getDateOfBirth(), user.getAddress(), user.getPhoneNumber(), user.getVersion());
+    }
+
+    private static long userBytes(User user) {
+        // Object header and eight references, boxed ID and version, LocalDate.
+        return 48 + 16 + 16 + 24 + stringBytes(user.getFirstName()) + stringBytes(user.getLastName())
+            + stringBytes(user.getEmail()) + stringBytes(user.getAddress()) + stringBytes(user.getPhoneNumber());
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 24 + arrayBytes(value.length(), 1);
+    }
+
+    private static long arrayBytes(int length, int elementBytes) {
+        return (16 + (long) length * elementBytes + 7) & ~7L;
+    }
+
+    private static int[] insert(int[] array, int at, int value) {
+        int[] copy = new int[array.length + 1];
+        System.arraycopy(array, 0, copy, 0, at);
+        copy[at] = value;
+        System.arraycopy(array, at, copy, at + 1, array.length - at);
+        return copy;
+    }
+
+    private static long[] insert(long[] array, int at, long value) {
+        long[] copy = new long[array.length + 1];
+        System.arraycopy(array, 0, copy, 0, at);
+        copy[at] = value;
+        System.arraycopy(array, at, copy, at + 1, array.length - at);
+        return copy;
+    }
+
+    private static <T> T[] insert(T[] array, int at, T value) {
+        T[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[at] = value;
+        System.arraycopy(array, at, copy, at + 1, array.length - at);
+        return copy;
+    }
+
+    private static int[] remove(int[] array, int at) {
+        int[] copy = new int[array.length - 1];
+        System.arraycopy(array, 0, copy, 0, at);
+        System.arraycopy(array, at + 1, copy, at, copy.length - at);
+        return copy;
+    }
+
+    private static long[] remove(long[] array, int at) {
+        long[] copy = new long[array.length - 1];
+        System.arraycopy(array, 0, copy, 0, at);
+        System.arraycopy(array, at + 1, copy, at, copy.length - at);
+        return copy;
+    }
+
+    private static <T> T[] remove(T[] array, int at) {
+        T[] copy = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, at + 1, copy, at, copy.length - at);
+        return copy;
+    }
+
+    /**
+     * An immutable sparse table of the non-empty segments, sorted by their
+     * segment numbers.
+     */
+    private record Snapshot(int[] keys, Segment[] segments, int size) {
+        static final Snapshot EMPTY = new Snapshot(new int[0], new Segment[0], 0);
+
+        static Snapshot of(List<User> sortedUsers) {
+            List<Integer> keys = new ArrayList<>();
+            List<Segment> segments = new ArrayList<>();
+            int start = 0;
+            while (start < sortedUsers.size()) {
+                int segment = segmentOf(day(sortedUsers.get(start)));
+                int end = start;
+                while (end < sortedUsers.size() && segmentOf(day(sortedUsers.get(end))) == segment) {
+                    end++;
+                }
+                keys.add(segment);
+                segments.add(Segment.of(sortedUsers.subList(start, end)));
+                start = end;
+            }
+            return new Snapshot(keys.stream().mapToInt(Integer::intValue).toArray(),
+                segments.toArray(new Segment[0]), sortedUsers.size());
+        }
+
+        /**
+         * Returns the table index of the first segment numbered at or after
+         * the given segment number.
+         */
+        int lowerBound(int segment) {
+            int index = Arrays.binarySearch(keys, segment);
+            return index < 0 ? -index - 1 : index;
+        }
+
+        /**
+         * Returns a snapshot in which the previous user is removed and the new
+         * user is added; either may be {@code null}.
+         */
+        Snapshot replace(User previous, User user) {
+            Snapshot result = this;
+            if (previous != null) {
+                result = result.change(segmentOf(day(previous)), segment -> segment.without(previous));
+            }
+            if (user != null) {
+                result = result.change(segmentOf(day(user)),
+                    segment -> segment == null ? Segment.of(List.of(user)) : segment.with(user));
+            }
+            return new Snapshot(result.keys, result.segments,
+                size + (user != null ? 1 : 0) - (previous != null ? 1 : 0));
+        }
+
+        /**
+         * Returns a snapshot in which the segment with the given number, or
+         * {@code null} if there is none, is replaced by the changed segment;
+         * a {@code null} result drops the segment from the table.
+         */
+        private Snapshot change(int key, UnaryOperator<Segment> change) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index < 0) {
+                int at = -index - 1;
+                return new Snapshot(insert(keys, at, key), insert(segments, at, change.apply(null)), size);
+            }
+            Segment changed = change.apply(segments[index]);
+            if (changed == null) {
+                return new Snapshot(remove(keys, index), remove(segments, index), size);
+            }
+            Segment[] table = segments.clone();
+            table[index] = changed;
+            return new Snapshot(keys, table, size);
+        }
+    }
+
+    /**
+     * An immutable run of users sorted by epoch day of the date of birth and ID.
+     */
+    private record Segment(int[] days, long[] ids, User[] users) {
+
+        static Segment of(List<User> sortedUsers) {
+            int[] days = new int[sortedUsers.size()];
+            long[] ids = new long[sortedUsers.size()];
+            User[] users = sortedUsers.toArray(new User[0]);
+            for (int i = 0; i < users.length; i++) {
+                days[i] = day(users[i]);
+                ids[i] = users[i].getId();
+            }
+            return new Segment(days, ids, users);
+        }
+
+        /**
+         * Returns the index of the first user born on or after the given day.
+         */
+        int lowerBound(int day) {
+            int low = 0;
+            int high = days.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] < day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Returns the index of the first user born after the given day.
+         */
+        int upperBound(int day) {
+            return day == Integer.MAX_VALUE ? days.length : lowerBound(day + 1);
+        }
+
+        Segment with(User user) {
+            int day = day(user);
+            int index = indexOf(day, user.getId());
+            int at = index < 0 ? -index - 1 : index;
+            return new Segment(insert(days, at, day), insert(ids, at, user.getId()), insert(users, at, user));
+        }
+
+        Segment without(User user) {
+            int index = indexOf(day(user), user.getId());
+            if (days.length == 1) {
+                return null;
+            }
+            return new Segment(remove(days, index), remove(ids, index), remove(users, index));
+        }
+
+        long memoryBytes() {
+            long bytes = 32 + arrayBytes(days.length, 4) + arrayBytes(ids.length, 8) + arrayBytes(users.length, 4);
+            for (User user : users) {
+                bytes += userBytes(user);
+            }
+            return bytes;
+        }
+
+        /**
+         * Finds the user with the given day and ID; returns its index, or
+         * {@code -(insertion point) - 1} if there is none.
+         */
+        private int indexOf(int day, long id) {
+            int low = lowerBound(day);
+            int high = upperBound(day);
+            return Arrays.binarySearch(ids, low, high, id);
+        }
+    }
+}
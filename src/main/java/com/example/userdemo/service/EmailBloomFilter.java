@@ -0,0 +1,131 @@
+package com.example.userdemo.service;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of the normalized email addresses of the saved users, used to
+ * skip the duplicate email lookup for addresses that are certainly new.
+ *
+ * {@link #mightContain(String)} never returns {@code false} for an added
+ * address, but returns {@code true} for about the configured share of the
+ * addresses that were never added, so a positive answer has to be confirmed
+ * by the database. Addresses cannot be removed; addresses of deleted or
+ * updated users stay in the filter and only add to the false positives until
+ * it is rebuilt at the next start. Once more addresses than expected are
+ * added the false positive rate rises above the configured one.
+ *
+ * Adding and checking are lock-free and thread-safe.
+ */
+public class EmailBloomFilter {
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    /**
+     * Creates an empty filter sized for the expected number of addresses.
+     *
+     * @param expectedEmails    The expected number of addresses.
+     * @param falsePositiveRate The share of false positives once the expected
+     *                          number of addresses is added, between 0 and 1.
+     */
+    public EmailBloomFilter(long expectedEmails, double falsePositiveRate) {
+        if (expectedEmails < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("The expected number of emails must be positive and the false "
+                + "positive rate between 0 and 1");
+        }
+        double ln2 = Math.log(2);
+        long words = Math.max(1, (long) Math.ceil(-expectedEmails * Math.log(falsePositiveRate) / (ln2 * ln2) / 64));
+        this.bits = new AtomicLongArray(Math.toIntExact(words));
+        this.bitCount = words * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedEmails * ln2));
+    }
+
+    /**
+     * Adds the normalized form of an email address.
+     *
+     * @param email The email address.
+     */
+    public void add(String email) {
+        long hash = hash(normalize(email));
+        long step = step(hash);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(hash + i * step, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * Checks whether an address with the same normalized form may have been
+     * added.
+     *
+     * @param email The email address.
+     * @return {@code false} if no such address was added; {@code true} if one
+     *         probably was.
+     */
+    public boolean mightContain(String email) {
+        long hash = hash(normalize(email));
+        long step = step(hash);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(hash + i * step, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the size of the bit array of the filter.
+     *
+     * @return The size of the filter in bytes.
+     */
+    public long memoryBytes() {
+        return bitCount / 8;
+    }
+
+    /**
+     * Returns the normalized form of an email address: trimmed and in lower
+     * case, so addresses that differ only in case share their filter bits.
+     *
+     * @param email The email address.
+     * @return The normalized email address.
+     */
+    static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the characters followed by the MurmurHash3
+     * finalizer.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * The second hash of double hashing; odd, so the probes do not repeat
+     * early.
+     */
+    private static long step(long hash) {
+        return mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe53e9ec3L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
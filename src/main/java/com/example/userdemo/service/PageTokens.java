@@ -0,0 +1,92 @@
+package com.example.userdemo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static com.example.userdemo.constatnt.ErrorMessages.WRONG_PAGE_TOKEN;
+
+/**
+ * Encoding of the opaque page tokens. A token holds a number: the ID of the
+ * last user of the previous page for keyset pagination, or the position of
+ * the next page for search results. Tokens of sorted filter pages also hold
+ * the sort order and the sort column value of the last user, see
+ * {@link #encodeKeyset}.
+ */
+public final class PageTokens {
+    private PageTokens() {
+    }
+
+    /**
+     * Encodes the ID of the last user of a page, or the position of the next
+     * page.
+     *
+     * @param lastId The ID of the last user of the page, or the position.
+     * @return The token of the next page.
+     */
+    public static String encode(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(lastId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a page token.
+     *
+     * @param pageToken The token returned with the previous page.
+     * @return The ID of the last user of the previous page, or the position.
+     * @throws IllegalArgumentException If the token is malformed.
+     */
+    public static long decode(String pageToken) {
+        try {
+            String lastId = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+            return Long.parseLong(lastId);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(WRONG_PAGE_TOKEN, e);
+        }
+    }
+
+    /**
+     * Encodes the position after the last user of a sorted page.
+     *
+     * @param sort      The sort order of the page, which the token is bound to.
+     * @param lastId    The ID of the last user of the page.
+     * @param lastValue The sort column value of the last user of the page.
+     * @return The token of the next page.
+     */
+    public static String encodeKeyset(String sort, Long lastId, Object lastValue) {
+        String keyset = sort + "\n" + lastId + "\n" + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(keyset.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token of a sorted page.
+     *
+     * @param pageToken The token returned with the previous page.
+     * @param sort      The sort order of the requested page.
+     * @return The position after the last user of the previous page.
+     * @throws IllegalArgumentException If the token is malformed or was
+     *                                  returned for another sort order.
+     */
+    public static Keyset decodeKeyset(String pageToken, String sort) {
+        String[] keyset;
+        long lastId;
+        try {
+            keyset = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8).split("\n", 3);
+            lastId = keyset.length == 3 ? Long.parseLong(keyset[1]) : 0L;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(WRONG_PAGE_TOKEN, e);
+        }
+        if (keyset.length != 3 || !keyset[0].equals(sort)) {
+            throw new IllegalArgumentException(WRONG_PAGE_TOKEN);
+        }
+        return new Keyset(lastId, keyset[2]);
+    }
+
+    /**
+     * The position after the last user of a sorted page.
+     *
+     * @param lastId    The ID of the last user.
+     * @param lastValue The sort column value of the last user, as a string.
+     */
+    public record Keyset(long lastId, String lastValue) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.userdemo.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * The IDs of recently removed users, used by the in-process indexes to ignore
+ * writes of a deleted user that are applied after its removal.
+ *
+ * Index writes run after commit, so a write committed before a delete can
+ * only be applied after it within a short window; once that has passed, no
+ * stale write of the ID can arrive any more. Tombstones therefore expire
+ * after a retention period, and expired tombstones are dropped by the next
+ * write, so their number is bounded by the delete rate rather than growing
+ * with every delete. Not thread-safe; the indexes guard it with their write
+ * lock.
+ */
+public class Tombstones {
+    /** Far longer than the time between the commit and the index write of a transaction. */
+    public static final Duration DEFAULT_RETENTION = Duration.ofMinutes(1);
+
+    private final long retentionNanos;
+    private final LongSupplier nanoTime;
+    /** The removal times of the IDs, oldest first. */
+    private final LinkedHashMap<Long, Long> removedAt = new LinkedHashMap<>();
+
+    public Tombstones() {
+        this(DEFAULT_RETENTION, System::nanoTime);
+    }
+
+    /**
+     * Creates an empty set of tombstones.
+     *
+     * @param retention The time for which a removed ID is kept.
+     * @param nanoTime  The source of {@link System#nanoTime()} values.
+     */
+    public Tombstones(Duration retention, LongSupplier nanoTime) {
+        this.retentionNanos = retention.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Keeps the ID of a removed user for the retention period.
+     *
+     * @param id The ID of the removed user.
+     */
+    public void add(Long id) {
+        long now = expire();
+        // Re-inserted, so the entries stay in removal order.
+        removedAt.remove(id);
+        removedAt.put(id, now);
+    }
+
+    /**
+     * Checks whether the user with the given ID was removed within the
+     * retention period.
+     *
+     * @param id The ID of the user.
+     * @return Whether the ID has an unexpired tombstone.
+     */
+    public boolean contains(Long id) {
+        expire();
+        return removedAt.containsKey(id);
+    }
+
+    public void clear() {
+        removedAt.clear();
+    }
+
+    public int size() {
+        return removedAt.size();
+    }
+
+    /**
+     * Estimates the heap used by the tombstones: a linked hash map entry, the
+     * boxed ID and removal time, and a table slot per tombstone.
+     *
+     * @return The estimated size of the tombstones in bytes.
+     */
+    public long memoryBytes() {
+        return removedAt.size() * (40L + 16L + 16L + 4L);
+    }
+
+    /**
+     * Drops the expired tombstones and returns the current time.
+     */
+    private long expire() {
+        long now = nanoTime.getAsLong();
+        Iterator<Map.Entry<Long, Long>> oldest = removedAt.entrySet().iterator();
+        while (oldest.hasNext() && now - oldest.next().getValue() >= retentionNanos) {
+            oldest.remove();
+        }
+        return now;
+    }
+}
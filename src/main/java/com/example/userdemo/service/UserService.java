@@ -1,10 +1,17 @@
 package com.example.userdemo.service;
 
+import com.example.userdemo.dto.UserBatchResultDto;
+import com.example.userdemo.dto.UserFilterDto;
+import com.example.userdemo.dto.UserPageDto;
+import com.example.userdemo.dto.UserSummaryDto;
 import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.exception.ConflictException;
+import com.example.userdemo.exception.PreconditionFailedException;
 import com.example.userdemo.model.User;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * The UserService interface that provides methods for managing user data.
@@ -15,17 +22,31 @@ public interface UserService {
      *
      * @param user The user entity to be created.
      * @return The created user entity.
+     * @throws ConflictException If a saved user has the same email address.
      */
     User create(User user);
 
+    /**
+     * Creates many users at once. Every user is validated on its own; invalid
+     * users and users whose email address is already taken are reported and
+     * skipped while the remaining users are inserted in JDBC batches.
+     *
+     * @param users The user entities to be created.
+     * @return The result for every submitted user, in the submitted order.
+     */
+    List<UserBatchResultDto> createAll(List<User> users);
+
     /**
      * Updates all data in an existing user with the given ID.
      *
-     * @param id   The ID of the user to be updated.
-     * @param user The user entity with updated information.
+     * @param id      The ID of the user to be updated.
+     * @param user    The user entity with updated information.
+     * @param version The expected current version of the user, or {@code null}
+     *                to update regardless of the version.
      * @return The updated user entity.
+     * @throws PreconditionFailedException If the user has a different version.
      */
-    User update(Long id, User user);
+    User update(Long id, User user, Long version);
 
     /**
      * Partially updates an existing user with the given ID using the provided
@@ -33,9 +54,12 @@ public interface UserService {
      *
      * @param id      The ID of the user to be updated.
      * @param userDto The UserUpdateDto containing the updated user information.
+     * @param version The expected current version of the user, or {@code null}
+     *                to update regardless of the version.
      * @return The updated user entity.
+     * @throws PreconditionFailedException If the user has a different version.
      */
-    User update(Long id, UserUpdateDto userDto);
+    User update(Long id, UserUpdateDto userDto, Long version);
 
     /**
      * Deletes a user with the given ID.
@@ -44,6 +68,22 @@ public interface UserService {
      */
     void delete(Long userId);
 
+    /**
+     * Retrieves a user by ID.
+     *
+     * @param id The ID of the user to be retrieved.
+     * @return The user entity.
+     */
+    User getById(Long id);
+
+    /**
+     * Retrieves a user by email address.
+     *
+     * @param email The email address of the user to be retrieved.
+     * @return The user entity.
+     */
+    User getByEmail(String email);
+
     /**
      * Retrieves a list of users with a date of birth within the specified date
      * range.
@@ -54,10 +94,103 @@ public interface UserService {
      */
     List<User> getByDateOfBirth(LocalDate from, LocalDate to);
 
+    /**
+     * Retrieves summaries of the users with a date of birth within the
+     * specified date range.
+     *
+     * @param from The start date of the date range (inclusive).
+     * @param to   The end date of the date range (inclusive).
+     * @return A list of user summaries with date of birth within the specified range.
+     */
+    List<UserSummaryDto> getSummariesByDateOfBirth(LocalDate from, LocalDate to);
+
     /**
      * Retrieves a list of all users.
      *
      * @return A list of all users.
      */
     List<User> getAll();
+
+    /**
+     * Retrieves summaries of all users.
+     *
+     * @return A list of summaries of all users.
+     */
+    List<UserSummaryDto> getAllSummaries();
+
+    /**
+     * Retrieves a single page of users ordered by ID using keyset pagination.
+     *
+     * @param pageToken The continuation token returned with the previous page,
+     *                  or {@code null} to fetch the first page.
+     * @param pageSize  The maximum number of users in the page, or {@code null}
+     *                  to use the configured default.
+     * @return The page of users together with the token for the next page.
+     */
+    UserPageDto getPage(String pageToken, Integer pageSize);
+
+    /**
+     * Retrieves a single page of users matching the filter, in the sort order
+     * of the filter, using keyset pagination.
+     *
+     * @param filter    The conditions and the sort order.
+     * @param pageToken The continuation token returned with the previous page
+     *                  of the same sort order, or {@code null} to fetch the
+     *                  first page.
+     * @param pageSize  The maximum number of users in the page, or {@code null}
+     *                  to use the configured default.
+     * @return The page of users together with the token for the next page.
+     * @throws IllegalArgumentException If the filter, sort order, page token
+     *                                  or page size is not valid.
+     */
+    UserPageDto filter(UserFilterDto filter, String pageToken, Integer pageSize);
+
+    /**
+     * Searches users by first name, last name, email and address. Every word
+     * of the query must match a word of one of the fields exactly, as a
+     * prefix, or with a typo or two; the best matches come first.
+     *
+     * @param query     The search text.
+     * @param pageToken The continuation token returned with the previous page,
+     *                  or {@code null} to fetch the first page.
+     * @param pageSize  The maximum number of users in the page, or {@code null}
+     *                  to use the configured default.
+     * @return The page of matching users together with the token for the next
+     *         page.
+     * @throws IllegalArgumentException If the query has no word, or the page
+     *                                  is beyond the searchable results.
+     * @throws com.example.userdemo.exception.NotFoundException If the search
+     *                                  is not enabled.
+     */
+    UserPageDto search(String query, String pageToken, Integer pageSize);
+
+    /**
+     * Streams all users ordered by ID to the given action, one row at a time.
+     * Each user is detached from the persistence context once the action
+     * returns, so memory use does not depend on the number of users.
+     *
+     * @param action The action to be performed for each user.
+     */
+    void streamAll(Consumer<User> action);
+
+    /**
+     * Streams users with a date of birth within the specified date range to the
+     * given action, one row at a time. Each user is detached from the
+     * persistence context once the action returns.
+     *
+     * @param from   The start date of the date range (inclusive).
+     * @param to     The end date of the date range (inclusive).
+     * @param action The action to be performed for each user.
+     */
+    void streamByDateOfBirth(LocalDate from, LocalDate to, Consumer<User> action);
+
+    /**
+     * Checks that the specified date range is valid, i.e. that {@code from} does
+     * not occur after {@code to}.
+     *
+     * @param from The start date of the date range.
+     * @param to   The end date of the date range.
+     * @throws IllegalArgumentException If the date range is not valid.
+     */
+    void validateTimePeriod(LocalDate from, LocalDate to);
 }
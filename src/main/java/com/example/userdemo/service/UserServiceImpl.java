@@ -1,90 +1,501 @@
 package com.example.userdemo.service;
 
+import com.example.userdemo.dto.UserBatchResultDto;
+import com.example.userdemo.dto.UserFilterDto;
+import com.example.userdemo.dto.UserPageDto;
+import com.example.userdemo.dto.UserSummaryDto;
 import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.exception.ConflictException;
 import com.example.userdemo.exception.NotFoundException;
+import com.example.userdemo.exception.PreconditionFailedException;
 import com.example.userdemo.model.User;
+import com.example.userdemo.repository.UserFilter;
 import com.example.userdemo.repository.UserRepository;
+import com.example.userdemo.search.UserSearchIndex;
+import com.example.userdemo.validators.AgeValidator;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import static com.example.userdemo.config.CachingConfig.USERS_CACHE;
+import static com.example.userdemo.constatnt.ErrorMessages.DUPLICATE_EMAIL;
+import static com.example.userdemo.constatnt.ErrorMessages.EMAIL_ALREADY_EXISTS;
+import static com.example.userdemo.constatnt.ErrorMessages.SEARCH_DISABLED;
+import static com.example.userdemo.constatnt.ErrorMessages.USER_NOT_FOUND_BY_EMAIL;
 import static com.example.userdemo.constatnt.ErrorMessages.USER_NOT_FOUND_BY_ID;
+import static com.example.userdemo.constatnt.ErrorMessages.USER_VERSION_MISMATCH;
+import static com.example.userdemo.constatnt.ErrorMessages.WRONG_AGE_RANGE;
+import static com.example.userdemo.constatnt.ErrorMessages.WRONG_BATCH_SIZE;
+import static com.example.userdemo.constatnt.ErrorMessages.WRONG_NAME_FILTER;
+import static com.example.userdemo.constatnt.ErrorMessages.WRONG_PAGE_SIZE;
+import static com.example.userdemo.constatnt.ErrorMessages.WRONG_PAGE_TOKEN;
+import static com.example.userdemo.constatnt.ErrorMessages.WRONG_SEARCH_PAGE;
+import static com.example.userdemo.constatnt.ErrorMessages.WRONG_SORT;
 import static com.example.userdemo.constatnt.ErrorMessages.WRONG_TIME_PERIOD;
-import static org.apache.logging.log4j.util.Strings.isNotBlank;
+import static com.example.userdemo.constatnt.ValidationConstants.FILTER_MAX_AGE;
 
 @Service
 @RequiredArgsConstructor
+@CacheConfig(cacheNames = USERS_CACHE)
+@Timed(value = UserServiceImpl.TIMER_NAME, histogram = true)
 public class UserServiceImpl implements UserService {
+    public static final String TIMER_NAME = "userdemo.service";
+    private static final int EMAIL_LOOKUP_CHUNK_SIZE = 1000;
+
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+
+    @Value("${userdemo.pagination.defaultPageSize}")
+    private int defaultPageSize;
+
+    @Value("${userdemo.pagination.maxPageSize}")
+    private int maxPageSize;
+
+    @Value("${userdemo.batch.maxSize}")
+    private int maxBatchSize;
+
+    /**
+     * The optional in-memory date of birth index; range queries go to the
+     * database when it is not configured.
+     */
+    @Autowired(required = false)
+    private DateOfBirthIndex dateOfBirthIndex;
+
+    /**
+     * The optional filter of the saved email addresses; without it duplicate
+     * emails are only detected by the unique constraint.
+     */
+    @Autowired(required = false)
+    private EmailBloomFilter emailFilter;
+
+    /**
+     * The optional full-text index of the users; searches are rejected when it
+     * is not configured.
+     */
+    @Autowired(required = false)
+    private UserSearchIndex userSearchIndex;
+
+    /**
+     * The current date of the age filter, shared with the age validation.
+     */
+    @Autowired(required = false)
+    private CurrentDateProvider currentDateProvider = CurrentDateProvider.SYSTEM;
 
     @Override
     @Transactional
+    @CachePut(key = "#result.id")
     public User create(User user) {
+        if (emailFilter != null) {
+            // Only a possible duplicate costs a lookup; certainly new emails go straight to the INSERT.
+            if (emailFilter.mightContain(user.getEmail()) && userRepository.existsByEmail(user.getEmail())) {
+                throw new ConflictException(EMAIL_ALREADY_EXISTS + user.getEmail());
+            }
+            emailFilter.add(user.getEmail());
+        }
         user.setId(null);
-        return userRepository.save(user);
+        user.setVersion(null);
+        User savedUser = userRepository.save(user);
+        index(savedUser);
+        return savedUser;
     }
 
     @Override
     @Transactional
-    public User update(Long id, User user) {
-        userRepository.findById(id).orElseThrow(() -> new NotFoundException(USER_NOT_FOUND_BY_ID + id));
-        user.setId(id);
-        return userRepository.save(user);
+    public List<UserBatchResultDto> createAll(List<User> users) {
+        if (users.isEmpty() || users.size() > maxBatchSize) {
+            throw new IllegalArgumentException(WRONG_BATCH_SIZE + maxBatchSize);
+        }
+        List<UserBatchResultDto> results = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            List<String> errors = validate(users.get(i));
+            UserBatchResultDto.Status status = errors.isEmpty()
+                    ? UserBatchResultDto.Status.CREATED
+                    : UserBatchResultDto.Status.INVALID;
+            results.add(new UserBatchResultDto(i, status, null, errors));
+        }
+        rejectDuplicateEmails(users, results);
+
+        List<User> validUsers = new ArrayList<>(users.size());
+        for (UserBatchResultDto result : results) {
+            if (result.getStatus() == UserBatchResultDto.Status.CREATED) {
+                User user = users.get(result.getIndex());
+                user.setId(null);
+                user.setVersion(null);
+                validUsers.add(user);
+            }
+        }
+        // The inserts are sent in JDBC batches when the transaction is flushed.
+        userRepository.saveAll(validUsers);
+        for (UserBatchResultDto result : results) {
+            if (result.getStatus() == UserBatchResultDto.Status.CREATED) {
+                result.setId(users.get(result.getIndex()).getId());
+                index(users.get(result.getIndex()));
+                if (emailFilter != null) {
+                    emailFilter.add(users.get(result.getIndex()).getEmail());
+                }
+            }
+        }
+        return results;
     }
 
     @Override
     @Transactional
-    public User update(Long id, UserUpdateDto userDto) {
-        User user = userRepository.findById(id).orElseThrow(() -> new NotFoundException(USER_NOT_FOUND_BY_ID + id));
-        updateWithDto(user, userDto);
+    @CachePut(key = "#id")
+    public User update(Long id, User user, Long version) {
+        if (emailFilter != null) {
+            emailFilter.add(user.getEmail());
+        }
+        Long newVersion;
+        if (version == null) {
+            newVersion = userRepository.updateFullyReturningVersion(id, user);
+        } else {
+            newVersion = userRepository.updateFully(id, version, user) == 0 ? null : version + 1;
+        }
+        if (newVersion == null) {
+            throw updateFailure(id, version);
+        }
+        user.setId(id);
+        user.setVersion(newVersion);
+        index(user);
         return user;
     }
 
     @Override
+    @Transactional
+    @CachePut(key = "#id")
+    public User update(Long id, UserUpdateDto userDto, Long version) {
+        if (emailFilter != null && userDto.getEmail() != null) {
+            emailFilter.add(userDto.getEmail());
+        }
+        User updatedUser = userRepository.updatePartially(id, version, userDto);
+        if (updatedUser == null) {
+            throw updateFailure(id, version);
+        }
+        index(updatedUser);
+        return updatedUser;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(key = "#userId")
     public void delete(Long userId) {
-        User user = userRepository
-                .findById(userId)
-                .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND_BY_ID + userId));
-        userRepository.delete(user);
+        if (userRepository.deleteUserById(userId) == 0) {
+            throw new NotFoundException(USER_NOT_FOUND_BY_ID + userId);
+        }
+        if (dateOfBirthIndex != null) {
+            afterCommit(() -> dateOfBirthIndex.remove(userId));
+        }
+        if (userSearchIndex != null) {
+            afterCommit(() -> userSearchIndex.remove(userId));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable
+    public User getById(Long id) {
+        return userRepository.findById(id).orElseThrow(() -> new NotFoundException(USER_NOT_FOUND_BY_ID + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public User getByEmail(String email) {
+        return userRepository.findDetachedByEmail(email)
+                .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND_BY_EMAIL + email));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<User> getByDateOfBirth(LocalDate from, LocalDate to) {
-        if (from.isAfter(to)) {
-            throw new IllegalArgumentException(WRONG_TIME_PERIOD);
+        validateTimePeriod(from, to);
+        if (dateOfBirthIndex != null) {
+            return dateOfBirthIndex.findByDateOfBirthBetween(from, to);
+        }
+        return userRepository.findDetachedByDateOfBirthBetween(from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserSummaryDto> getSummariesByDateOfBirth(LocalDate from, LocalDate to) {
+        validateTimePeriod(from, to);
+        if (dateOfBirthIndex != null) {
+            return dateOfBirthIndex.findByDateOfBirthBetween(from, to).stream()
+                    .map(user -> new UserSummaryDto(user.getId(), user.getFirstName(), user.getLastName(),
+                            user.getEmail(), user.getDateOfBirth()))
+                    .toList();
         }
-        return userRepository.findByDateOfBirthBetween(from, to);
+        return userRepository.findSummariesByDateOfBirthBetween(from, to);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<User> getAll() {
-        return userRepository.findAll();
+        return userRepository.findAllDetached();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserSummaryDto> getAllSummaries() {
+        return userRepository.findAllSummaries();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserPageDto getPage(String pageToken, Integer pageSize) {
+        int size = pageSize(pageSize);
+        long lastId = pageToken == null ? 0L : PageTokens.decode(pageToken);
+
+        // One extra row tells whether a next page exists without a count query.
+        List<User> users = userRepository.findByIdGreaterThan(lastId,
+            PageRequest.of(0, size + 1, Sort.by(Sort.Direction.ASC, "id")));
+        if (users.size() <= size) {
+            return new UserPageDto(users, null);
+        }
+        List<User> page = users.subList(0, size);
+        return new UserPageDto(page, PageTokens.encode(page.get(size - 1).getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserPageDto filter(UserFilterDto filter, String pageToken, Integer pageSize) {
+        int size = pageSize(pageSize);
+        String firstName = blankToNull(filter.getFirstName());
+        String firstNamePrefix = blankToNull(filter.getFirstNameStartsWith());
+        String lastName = blankToNull(filter.getLastName());
+        String lastNamePrefix = blankToNull(filter.getLastNameStartsWith());
+        if ((firstName != null && firstNamePrefix != null) || (lastName != null && lastNamePrefix != null)) {
+            throw new IllegalArgumentException(WRONG_NAME_FILTER);
+        }
+        Integer minAge = filter.getMinAge();
+        Integer maxAge = filter.getMaxAge();
+        if (!isValidAge(minAge) || !isValidAge(maxAge) || (minAge != null && maxAge != null && minAge > maxAge)) {
+            throw new IllegalArgumentException(WRONG_AGE_RANGE);
+        }
+
+        String[] sort = filter.getSort() == null || filter.getSort().isBlank()
+                ? new String[]{"id"}
+                : filter.getSort().split(",", -1);
+        UserFilter.SortField sortField = UserFilter.SortField.of(sort[0].trim());
+        String direction = sort.length > 1 ? sort[1].trim().toLowerCase() : "asc";
+        if (sortField == null || sort.length > 2 || !(direction.equals("asc") || direction.equals("desc"))) {
+            throw new IllegalArgumentException(WRONG_SORT);
+        }
+        String sortKey = sortField.attribute() + "," + direction;
+
+        // Age bounds become date of birth bounds by the rule of the age validation.
+        LocalDate today = currentDateProvider.today();
+        UserFilter.UserFilterBuilder userFilter = UserFilter.builder()
+                .firstName(firstName)
+                .firstNamePrefix(firstNamePrefix)
+                .lastName(lastName)
+                .lastNamePrefix(lastNamePrefix)
+                .bornOnOrBefore(minAge == null ? null : AgeValidator.latestDateOfBirth(today, minAge))
+                .bornAfter(maxAge == null ? null : AgeValidator.latestDateOfBirth(today, maxAge + 1))
+                .hasPhone(filter.getHasPhone())
+                .hasAddress(filter.getHasAddress())
+                .sort(sortField)
+                .descending(direction.equals("desc"));
+        if (pageToken != null) {
+            PageTokens.Keyset keyset = PageTokens.decodeKeyset(pageToken, sortKey);
+            try {
+                userFilter.afterId(keyset.lastId()).afterValue(sortField.parse(keyset.lastValue()));
+            } catch (DateTimeException e) {
+                throw new IllegalArgumentException(WRONG_PAGE_TOKEN, e);
+            }
+        }
+
+        // One extra row tells whether a next page exists without a count query.
+        List<User> users = userRepository.findByFilter(userFilter.build(), size + 1);
+        if (users.size() <= size) {
+            return new UserPageDto(users, null);
+        }
+        List<User> page = users.subList(0, size);
+        User last = page.get(size - 1);
+        return new UserPageDto(page, PageTokens.encodeKeyset(sortKey, last.getId(), sortField.valueOf(last)));
     }
 
-    private void updateWithDto(User user, UserUpdateDto updatedUser) {
-        if (isNotBlank(updatedUser.getFirstName())) {
-            user.setFirstName(updatedUser.getFirstName());
+    @Override
+    @Transactional(readOnly = true)
+    public UserPageDto search(String query, String pageToken, Integer pageSize) {
+        if (userSearchIndex == null) {
+            throw new NotFoundException(SEARCH_DISABLED);
         }
-        if (isNotBlank(updatedUser.getLastName())) {
-            user.setLastName(updatedUser.getLastName());
+        int size = pageSize(pageSize);
+        long offset = pageToken == null ? 0L : PageTokens.decode(pageToken);
+        if (offset < 0 || offset + size > UserSearchIndex.MAX_RESULTS) {
+            throw new IllegalArgumentException(WRONG_SEARCH_PAGE + UserSearchIndex.MAX_RESULTS);
         }
-        if (isNotBlank(updatedUser.getEmail())) {
-            user.setEmail(updatedUser.getEmail());
+        UserSearchIndex.SearchResult result = userSearchIndex.search(query, (int) offset, size);
+        if (result.ids().isEmpty()) {
+            return new UserPageDto(List.of(), null);
         }
-        if (Objects.nonNull(updatedUser.getDateOfBirth())) {
-            user.setDateOfBirth(updatedUser.getDateOfBirth());
+
+        // The index only holds IDs; the users are read by primary key and put back in rank order.
+        Map<Long, User> usersById = new HashMap<>();
+        for (User user : userRepository.findDetachedByIdIn(result.ids())) {
+            usersById.put(user.getId(), user);
         }
-        if (isNotBlank(updatedUser.getAddress())) {
-            user.setAddress(updatedUser.getAddress());
+        List<User> users = result.ids().stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new UserPageDto(users, result.hasMore() ? PageTokens.encode(offset + size) : null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<User> action) {
+        try (Stream<User> users = userRepository.streamAllByOrderByIdAsc()) {
+            forEachDetached(users, action);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamByDateOfBirth(LocalDate from, LocalDate to, Consumer<User> action) {
+        validateTimePeriod(from, to);
+        try (Stream<User> users = userRepository.streamByDateOfBirthBetween(from, to)) {
+            forEachDetached(users, action);
+        }
+    }
+
+    @Override
+    public void validateTimePeriod(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException(WRONG_TIME_PERIOD);
         }
-        if (isNotBlank(updatedUser.getPhoneNumber())) {
-            user.setPhoneNumber(updatedUser.getPhoneNumber());
+    }
+
+    private int pageSize(Integer pageSize) {
+        int size = pageSize == null ? defaultPageSize : pageSize;
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException(WRONG_PAGE_SIZE + maxPageSize);
+        }
+        return size;
+    }
+
+    /**
+     * Bounds the filter ages, so the date of birth bounds computed from them
+     * stay within the supported dates.
+     */
+    private static boolean isValidAge(Integer age) {
+        return age == null || (age >= 0 && age <= FILTER_MAX_AGE);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private void forEachDetached(Stream<User> users, Consumer<User> action) {
+        users.forEach(user -> {
+            action.accept(user);
+            entityManager.detach(user);
+        });
+    }
+
+    private RuntimeException updateFailure(Long id, Long version) {
+        if (version != null && userRepository.existsById(id)) {
+            return new PreconditionFailedException(USER_VERSION_MISMATCH + id);
+        }
+        return new NotFoundException(USER_NOT_FOUND_BY_ID + id);
+    }
+
+    private List<String> validate(User user) {
+        Set<ConstraintViolation<User>> violations = validator.validate(user);
+        List<String> errors = new ArrayList<>(violations.size());
+        for (ConstraintViolation<User> violation : violations) {
+            errors.add(violation.getPropertyPath() + " - " + violation.getMessage());
+        }
+        return errors;
+    }
+
+    private void rejectDuplicateEmails(List<User> users, List<UserBatchResultDto> results) {
+        Set<String> batchEmails = new HashSet<>();
+        List<String> emails = new ArrayList<>(users.size());
+        for (UserBatchResultDto result : results) {
+            if (result.getStatus() != UserBatchResultDto.Status.CREATED) {
+                continue;
+            }
+            String email = users.get(result.getIndex()).getEmail();
+            if (!batchEmails.add(email)) {
+                markConflict(result);
+            } else if (emailFilter == null || emailFilter.mightContain(email)) {
+                emails.add(email);
+            }
+        }
+
+        Set<String> existingEmails = new HashSet<>();
+        for (int from = 0; from < emails.size(); from += EMAIL_LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = emails.subList(from, Math.min(from + EMAIL_LOOKUP_CHUNK_SIZE, emails.size()));
+            existingEmails.addAll(userRepository.findExistingEmails(chunk));
+        }
+        if (existingEmails.isEmpty()) {
+            return;
+        }
+        for (UserBatchResultDto result : results) {
+            if (result.getStatus() == UserBatchResultDto.Status.CREATED
+                    && existingEmails.contains(users.get(result.getIndex()).getEmail())) {
+                markConflict(result);
+            }
+        }
+    }
+
+    private void markConflict(UserBatchResultDto result) {
+        result.setStatus(UserBatchResultDto.Status.CONFLICT);
+        result.setErrors(List.of(DUPLICATE_EMAIL));
+    }
+
+    /**
+     * Puts the user into the date of birth and search indexes once the
+     * transaction commits, so rolled back writes never become visible to range
+     * queries and searches.
+     */
+    private void index(User user) {
+        if (dateOfBirthIndex != null) {
+            afterCommit(() -> dateOfBirthIndex.put(user));
+        }
+        if (userSearchIndex != null) {
+            afterCommit(() -> userSearchIndex.put(user));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
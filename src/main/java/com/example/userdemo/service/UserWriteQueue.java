@@ -0,0 +1,303 @@
+package com.example.userdemo.service;
+
+import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.dto.WriteStatusDto;
+import com.example.userdemo.exception.ConflictException;
+import com.example.userdemo.exception.NotFoundException;
+import com.example.userdemo.exception.PreconditionFailedException;
+import com.example.userdemo.exception.ServiceUnavailableException;
+import com.example.userdemo.exception.TooManyRequestsException;
+import com.example.userdemo.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import static com.example.userdemo.constatnt.ErrorMessages.DUPLICATE_EMAIL;
+import static com.example.userdemo.constatnt.ErrorMessages.WRITE_NOT_FOUND_BY_ID;
+import static com.example.userdemo.constatnt.ErrorMessages.WRITE_QUEUE_FULL;
+import static com.example.userdemo.constatnt.ErrorMessages.WRITE_QUEUE_STOPPED;
+
+/**
+ * Bounded queue of user writes which are applied by a single writer thread in
+ * micro-batches (group commit).
+ *
+ * The writer takes the first queued write, waits up to the linger time for
+ * more until the batch is full, and applies the whole batch through
+ * UserService in one transaction. If the transaction fails, the writes of the
+ * batch are retried one per transaction, so a single failing write (a taken
+ * email, a stale version) fails alone. The status of every write is kept for
+ * the configured retention time.
+ *
+ * When the queue is full new writes are rejected with a
+ * {@link TooManyRequestsException}. The queue stops in a phase after the web
+ * server, so the requests still running during graceful shutdown can queue
+ * their writes; writes still queued are applied before the writer exits. Once
+ * stopping has begun new writes are rejected with a
+ * {@link ServiceUnavailableException} instead of being accepted and lost.
+ */
+public class UserWriteQueue implements SmartLifecycle {
+    public static final String QUEUED_METRIC = "userdemo.writes.queued";
+    public static final String BATCH_SIZE_METRIC = "userdemo.writes.batch.size";
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final long RETRY_AFTER_SECONDS = 1;
+    /** Below the phases of the web server (DEFAULT_PHASE - 1024 and - 2048), so the queue stops after it. */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Write> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Cache<UUID, WriteStatusDto> statuses;
+    private final DistributionSummary batchSizes;
+    /** Held to queue a write, and exclusively to begin stopping, so no write is queued after the last drain. */
+    private final ReadWriteLock stopLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private volatile boolean stopping;
+    private Thread writer;
+
+    /**
+     * Creates a write queue. The writer thread is started with the
+     * application context.
+     *
+     * @param userService        The service that applies the writes.
+     * @param transactionManager The transaction manager of the batches.
+     * @param meterRegistry      The registry of the queue metrics.
+     * @param capacity           The maximum number of queued writes.
+     * @param batchSize          The maximum number of writes per transaction.
+     * @param linger             How long the writer waits for more writes
+     *                           before committing a batch that is not full.
+     * @param statusRetention    How long the status of a write is kept.
+     */
+    public UserWriteQueue(UserService userService, PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry, int capacity, int batchSize, Duration linger,
+                          Duration statusRetention) {
+        this.userService = userService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.statuses = Caffeine.newBuilder().expireAfterWrite(statusRetention).build();
+        meterRegistry.gauge(QUEUED_METRIC, queue, BlockingQueue::size);
+        this.batchSizes = DistributionSummary.builder(BATCH_SIZE_METRIC)
+            .description("Writes committed per transaction")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queues the creation of a user.
+     *
+     * @param user The validated user to be created.
+     * @return The status of the queued write.
+     * @throws TooManyRequestsException    If the queue is full.
+     * @throws ServiceUnavailableException If the queue is stopping.
+     */
+    public WriteStatusDto create(User user) {
+        return submit(service -> service.create(user));
+    }
+
+    /**
+     * Queues the complete update of a user.
+     *
+     * @param id      The ID of the user to be updated.
+     * @param user    The validated user with updated information.
+     * @param version The expected current version, or {@code null}.
+     * @return The status of the queued write.
+     * @throws TooManyRequestsException    If the queue is full.
+     * @throws ServiceUnavailableException If the queue is stopping.
+     */
+    public WriteStatusDto update(Long id, User user, Long version) {
+        return submit(service -> service.update(id, user, version));
+    }
+
+    /**
+     * Queues the partial update of a user.
+     *
+     * @param id      The ID of the user to be updated.
+     * @param userDto The validated fields to be updated.
+     * @param version The expected current version, or {@code null}.
+     * @return The status of the queued write.
+     * @throws TooManyRequestsException    If the queue is full.
+     * @throws ServiceUnavailableException If the queue is stopping.
+     */
+    public WriteStatusDto update(Long id, UserUpdateDto userDto, Long version) {
+        return submit(service -> service.update(id, userDto, version));
+    }
+
+    /**
+     * Returns the status of a write.
+     *
+     * @param id The ID of the write.
+     * @return The status of the write.
+     * @throws NotFoundException If the write is unknown or its status expired.
+     */
+    public WriteStatusDto getStatus(UUID id) {
+        WriteStatusDto status = statuses.getIfPresent(id);
+        if (status == null) {
+            throw new NotFoundException(WRITE_NOT_FOUND_BY_ID + id);
+        }
+        return status;
+    }
+
+    @Override
+    public void start() {
+        stopping = false;
+        running = true;
+        writer = new Thread(this::run, "user-writer");
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        stopLock.writeLock().lock();
+        try {
+            stopping = true;
+            running = false;
+        } finally {
+            stopLock.writeLock().unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private WriteStatusDto submit(Function<UserService, User> operation) {
+        UUID id = UUID.randomUUID();
+        WriteStatusDto status = WriteStatusDto.builder().id(id).status(WriteStatusDto.Status.QUEUED).build();
+        stopLock.readLock().lock();
+        try {
+            if (stopping) {
+                throw new ServiceUnavailableException(WRITE_QUEUE_STOPPED, RETRY_AFTER_SECONDS);
+            }
+            statuses.put(id, status);
+            if (!queue.offer(new Write(id, operation))) {
+                statuses.invalidate(id);
+                throw new TooManyRequestsException(WRITE_QUEUE_FULL, RETRY_AFTER_SECONDS);
+            }
+        } finally {
+            stopLock.readLock().unlock();
+        }
+        return status;
+    }
+
+    private void run() {
+        List<Write> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                fill(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                apply(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void fill(List<Write> batch) throws InterruptedException {
+        Write first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            Write next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void apply(List<Write> batch) {
+        try {
+            List<User> users = transactionTemplate.execute(transaction ->
+                batch.stream().map(write -> write.operation().apply(userService)).toList());
+            batchSizes.record(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), users.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+            } else {
+                batch.forEach(write -> apply(List.of(write)));
+            }
+        }
+    }
+
+    private void complete(Write write, User user) {
+        statuses.put(write.id(), WriteStatusDto.builder()
+            .id(write.id())
+            .status(WriteStatusDto.Status.COMPLETED)
+            .userId(user.getId())
+            .version(user.getVersion())
+            .build());
+    }
+
+    private void fail(Write write, RuntimeException e) {
+        HttpStatus httpStatus;
+        String error = e.getMessage();
+        if (e instanceof NotFoundException) {
+            httpStatus = HttpStatus.NOT_FOUND;
+        } else if (e instanceof PreconditionFailedException || e instanceof ObjectOptimisticLockingFailureException) {
+            httpStatus = HttpStatus.PRECONDITION_FAILED;
+        } else if (e instanceof ConflictException) {
+            httpStatus = HttpStatus.CONFLICT;
+        } else if (e instanceof DataIntegrityViolationException) {
+            httpStatus = HttpStatus.CONFLICT;
+            error = DUPLICATE_EMAIL;
+        } else if (e instanceof IllegalArgumentException) {
+            httpStatus = HttpStatus.BAD_REQUEST;
+        } else {
+            httpStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+        }
+        statuses.put(write.id(), WriteStatusDto.builder()
+            .id(write.id())
+            .status(WriteStatusDto.Status.FAILED)
+            .httpStatus(httpStatus.value())
+            .errors(List.of(String.valueOf(error)))
+            .build());
+    }
+
+    private record Write(UUID id, Function<UserService, User> operation) {
+    }
+}
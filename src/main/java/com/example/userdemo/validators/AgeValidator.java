@@ -1,17 +1,24 @@
 package com.example.userdemo.validators;
 
 import com.example.userdemo.annotations.ValidAge;
+import com.example.userdemo.service.CurrentDateProvider;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 
 import java.time.LocalDate;
-import java.time.Period;
 
 /**
  * Custom validator for age validation based on the ValidAge annotation.
+ *
+ * A user is old enough when the date of birth is not after the cutoff date,
+ * today minus the minimum age in years, which is the same as the user's age
+ * by Period being at least the minimum age. The cutoff is computed once per
+ * day, so a check is a single date comparison that allocates nothing.
  */
 @Getter
 @Setter
@@ -21,6 +28,13 @@ public class AgeValidator implements ConstraintValidator<ValidAge, LocalDate> {
     @Value("${userdemo.validation.userMinAcceptableAge}")
     private int defaultUserMinAge;
 
+    @Autowired(required = false)
+    private CurrentDateProvider currentDateProvider = CurrentDateProvider.SYSTEM;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile Cutoff cutoff;
+
     /**
      * Validates if a user's age is greater than or equal to the specified minimum
      * age.
@@ -36,11 +50,8 @@ public class AgeValidator implements ConstraintValidator<ValidAge, LocalDate> {
         }
 
         int minExpectedAge = customUserMinAge == 0 ? defaultUserMinAge : customUserMinAge;
-        LocalDate currentDate = LocalDate.now();
 
-        int currentAge = Period.between(dateOfBirth, currentDate).getYears();
-
-        if (currentAge < minExpectedAge) {
+        if (dateOfBirth.isAfter(cutoffDate(minExpectedAge))) {
             formatMessage(context, minExpectedAge);
             return false;
         }
@@ -48,6 +59,38 @@ public class AgeValidator implements ConstraintValidator<ValidAge, LocalDate> {
         return true;
     }
 
+    /**
+     * Returns the latest date of birth of a user of the given minimum age,
+     * recomputing it only when the current date or the age changes.
+     *
+     * @param minAge The minimum acceptable age.
+     * @return The cutoff date.
+     */
+    private LocalDate cutoffDate(int minAge) {
+        LocalDate today = currentDateProvider.today();
+        Cutoff current = cutoff;
+        // The provider returns the same instance for the whole day.
+        if (current == null || current.today() != today || current.minAge() != minAge) {
+            current = new Cutoff(today, minAge, latestDateOfBirth(today, minAge));
+            cutoff = current;
+        }
+        return current.date();
+    }
+
+    /**
+     * Returns the latest date of birth of a person who is at least the given
+     * age on the given day: a person is that old when their date of birth is
+     * not after this date. A person born on February 29 turns a year older on
+     * March 1 of a common year.
+     *
+     * @param today The day the age is computed for.
+     * @param age   The age in years.
+     * @return The latest date of birth of that age.
+     */
+    public static LocalDate latestDateOfBirth(LocalDate today, int age) {
+        return today.minusYears(age);
+    }
+
     /**
      * Formats a custom error message for age validation.
      *
@@ -66,4 +109,7 @@ public class AgeValidator implements ConstraintValidator<ValidAge, LocalDate> {
     public void initialize(ValidAge validAge) {
         this.customUserMinAge = validAge.minAge();
     }
+
+    private record Cutoff(LocalDate today, int minAge, LocalDate date) {
+    }
 }
@@ -0,0 +1,73 @@
+package com.example.userdemo.validators;
+
+import com.example.userdemo.annotations.ValidEmail;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Custom validator for email addresses based on the ValidEmail annotation.
+ *
+ * It accepts the same strings as ValidationConstants.EMAIL_PATTERN,
+ * {@code ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,4}$}: a non-empty local
+ * part, a single '@' and a domain whose part after the last '.' is a top-level
+ * domain of 2 to 4 letters preceded by at least one character. The string is
+ * scanned once and nothing is allocated.
+ */
+public class EmailValidator implements ConstraintValidator<ValidEmail, CharSequence> {
+    private static final int TLD_MIN_LENGTH = 2;
+    private static final int TLD_MAX_LENGTH = 4;
+
+    /**
+     * Validates if a string is a valid email address.
+     *
+     * @param email   The email address to be validated.
+     * @param context The constraint validator context.
+     * @return True if the email address is valid or null; otherwise, false.
+     */
+    @Override
+    public boolean isValid(CharSequence email, ConstraintValidatorContext context) {
+        return email == null || isValidEmail(email);
+    }
+
+    static boolean isValidEmail(CharSequence email) {
+        int length = email.length();
+        int at = -1;
+        int lastDot = -1;
+        for (int i = 0; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                if (at >= 0) {
+                    return false;
+                }
+                at = i;
+            } else if (c == '.') {
+                if (at >= 0) {
+                    lastDot = i;
+                }
+            } else if (!isLetterOrDigit(c) && (at >= 0 || (c != '+' && c != '_')) && c != '-') {
+                return false;
+            }
+        }
+        if (at < 1 || lastDot < at + 2) {
+            return false;
+        }
+        int tldLength = length - lastDot - 1;
+        if (tldLength < TLD_MIN_LENGTH || tldLength > TLD_MAX_LENGTH) {
+            return false;
+        }
+        for (int i = lastDot + 1; i < length; i++) {
+            if (!isLetter(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isLetterOrDigit(char c) {
+        return isLetter(c) || (c >= '0' && c <= '9');
+    }
+}
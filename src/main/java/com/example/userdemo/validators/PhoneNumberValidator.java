@@ -0,0 +1,136 @@
+package com.example.userdemo.validators;
+
+import com.example.userdemo.annotations.ValidPhoneNumber;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Custom validator for phone numbers based on the ValidPhoneNumber annotation.
+ *
+ * It accepts the same strings as ValidationConstants.PHONE_NUMBER_PATTERN: an
+ * optional international prefix ({@code +} and 1 to 3 digits, optionally
+ * followed by a space) and one of three national formats:
+ * <ul>
+ *     <li>{@code (123)456-7890}, {@code 123.456.7890}, {@code 1234567890}: a
+ *     3 digit area code, optionally in parentheses, then 3 and 4 digits, each
+ *     group optionally preceded by '-', ' ' or '.';</li>
+ *     <li>{@code 123 456 789}: three groups of 3 digits, optionally separated
+ *     by a space;</li>
+ *     <li>{@code 123 45 67 89}: 3 digits and three groups of 2 digits,
+ *     optionally separated by a space.</li>
+ * </ul>
+ * Instead of backtracking through the alternation, every possible prefix
+ * length is tried with deterministic scanners of the three formats, so the
+ * cost is linear in the length of the input and nothing is allocated.
+ */
+public class PhoneNumberValidator implements ConstraintValidator<ValidPhoneNumber, CharSequence> {
+    private static final int PREFIX_MAX_DIGITS = 3;
+
+    /**
+     * Validates if a string is a valid phone number.
+     *
+     * @param phoneNumber The phone number to be validated.
+     * @param context     The constraint validator context.
+     * @return True if the phone number is valid or null; otherwise, false.
+     */
+    @Override
+    public boolean isValid(CharSequence phoneNumber, ConstraintValidatorContext context) {
+        return phoneNumber == null || isValidPhoneNumber(phoneNumber);
+    }
+
+    static boolean isValidPhoneNumber(CharSequence phoneNumber) {
+        if (phoneNumber.length() == 0 || phoneNumber.charAt(0) != '+') {
+            return isValidNationalNumber(phoneNumber, 0);
+        }
+        for (int digits = 1; digits <= PREFIX_MAX_DIGITS; digits++) {
+            if (!isDigit(phoneNumber, digits)) {
+                return false;
+            }
+            int next = digits + 1;
+            if (isValidNationalNumber(phoneNumber, next)
+                || (isChar(phoneNumber, next, ' ') && isValidNationalNumber(phoneNumber, next + 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isValidNationalNumber(CharSequence s, int start) {
+        return isAreaCodeFormat(s, start) || isThreeGroupsFormat(s, start) || isPairsFormat(s, start);
+    }
+
+    /**
+     * {@code ((\(\d{3}\))|\d{3})[- .]?\d{3}[- .]?\d{4}}
+     */
+    private static boolean isAreaCodeFormat(CharSequence s, int i) {
+        if (isChar(s, i, '(')) {
+            i = digits(s, i + 1, 3);
+            if (i < 0 || !isChar(s, i, ')')) {
+                return false;
+            }
+            i++;
+        } else {
+            i = digits(s, i, 3);
+        }
+        i = digits(s, skipSeparator(s, i), 3);
+        i = digits(s, skipSeparator(s, i), 4);
+        return i == s.length();
+    }
+
+    /**
+     * {@code (\d{3}[ ]?){2}\d{3}}
+     */
+    private static boolean isThreeGroupsFormat(CharSequence s, int i) {
+        i = digits(s, i, 3);
+        i = digits(s, skipSpace(s, i), 3);
+        i = digits(s, skipSpace(s, i), 3);
+        return i == s.length();
+    }
+
+    /**
+     * {@code (\d{3}[ ]?)(\d{2}[ ]?){2}\d{2}}
+     */
+    private static boolean isPairsFormat(CharSequence s, int i) {
+        i = digits(s, i, 3);
+        i = digits(s, skipSpace(s, i), 2);
+        i = digits(s, skipSpace(s, i), 2);
+        i = digits(s, skipSpace(s, i), 2);
+        return i == s.length();
+    }
+
+    /**
+     * Returns the index after {@code count} digits starting at {@code i}, or -1
+     * if there are fewer digits or {@code i} is already -1.
+     */
+    private static int digits(CharSequence s, int i, int count) {
+        if (i < 0) {
+            return -1;
+        }
+        for (int end = i + count; i < end; i++) {
+            if (!isDigit(s, i)) {
+                return -1;
+            }
+        }
+        return i;
+    }
+
+    private static int skipSeparator(CharSequence s, int i) {
+        return isChar(s, i, '-') || isChar(s, i, ' ') || isChar(s, i, '.') ? i + 1 : i;
+    }
+
+    private static int skipSpace(CharSequence s, int i) {
+        return isChar(s, i, ' ') ? i + 1 : i;
+    }
+
+    private static boolean isDigit(CharSequence s, int i) {
+        if (i < 0 || i >= s.length()) {
+            return false;
+        }
+        char c = s.charAt(i);
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isChar(CharSequence s, int i, char expected) {
+        return i >= 0 && i < s.length() && s.charAt(i) == expected;
+    }
+}
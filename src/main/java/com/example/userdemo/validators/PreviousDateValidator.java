@@ -1,8 +1,11 @@
 package com.example.userdemo.validators;
 
 import com.example.userdemo.annotations.BeforeCurrentDate;
+import com.example.userdemo.service.CurrentDateProvider;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import java.time.LocalDate;
 
@@ -11,6 +14,10 @@ import java.time.LocalDate;
  * based on the BeforeCurrentDate annotation.
  */
 public class PreviousDateValidator implements ConstraintValidator<BeforeCurrentDate, LocalDate> {
+    @Setter
+    @Autowired(required = false)
+    private CurrentDateProvider currentDateProvider = CurrentDateProvider.SYSTEM;
+
     /**
      * Validates if a date is before the current date.
      *
@@ -21,7 +28,7 @@ public class PreviousDateValidator implements ConstraintValidator<BeforeCurrentD
      */
     @Override
     public boolean isValid(LocalDate date, ConstraintValidatorContext context) {
-        return date == null || date.isBefore(LocalDate.now());
+        return date == null || date.isBefore(currentDateProvider.today());
     }
 
     @Override
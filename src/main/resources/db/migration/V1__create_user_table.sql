@@ -0,0 +1,16 @@
+CREATE SEQUENCE USER_TABLE_SEQ START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE USER_TABLE (
+    id            BIGINT       NOT NULL,
+    first_name    VARCHAR(30)  NOT NULL,
+    last_name     VARCHAR(30)  NOT NULL,
+    email         VARCHAR(50)  NOT NULL,
+    date_of_birth DATE         NOT NULL,
+    address       VARCHAR(255),
+    phone_number  VARCHAR(255),
+    version       BIGINT       NOT NULL,
+    CONSTRAINT PK_USER_TABLE PRIMARY KEY (id),
+    CONSTRAINT UK_USER_TABLE_EMAIL UNIQUE (email)
+);
+
+CREATE INDEX IDX_USER_TABLE_DATE_OF_BIRTH ON USER_TABLE (date_of_birth, id);
@@ -0,0 +1,2 @@
+CREATE INDEX IDX_USER_TABLE_FIRST_NAME ON USER_TABLE (first_name, id);
+CREATE INDEX IDX_USER_TABLE_LAST_NAME ON USER_TABLE (last_name, id);
@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS USER_TABLE (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name    VARCHAR(30)  NOT NULL,
+    last_name     VARCHAR(30)  NOT NULL,
+    email         VARCHAR(50)  NOT NULL UNIQUE,
+    date_of_birth DATE         NOT NULL,
+    address       VARCHAR(255),
+    phone_number  VARCHAR(255),
+    version       BIGINT       NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS IDX_USER_TABLE_DATE_OF_BIRTH ON USER_TABLE (date_of_birth, id);
+CREATE INDEX IF NOT EXISTS IDX_USER_TABLE_FIRST_NAME ON USER_TABLE (first_name, id);
+CREATE INDEX IF NOT EXISTS IDX_USER_TABLE_LAST_NAME ON USER_TABLE (last_name, id);
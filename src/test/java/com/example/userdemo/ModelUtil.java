@@ -1,5 +1,6 @@
 package com.example.userdemo;
 
+import com.example.userdemo.dto.UserSummaryDto;
 import com.example.userdemo.dto.UserUpdateDto;
 import com.example.userdemo.model.User;
 import org.junit.jupiter.params.provider.Arguments;
@@ -30,6 +31,16 @@ public class ModelUtil {
             .build();
     }
 
+    public static UserSummaryDto getUserSummary() {
+        return UserSummaryDto.builder()
+            .id(1L)
+            .firstName("Test_Name")
+            .lastName("Test_LastName")
+            .email("test@example.com")
+            .dateOfBirth(LocalDate.of(1990, 1, 1))
+            .build();
+    }
+
     public static User getUpdatedUser() {
         return User.builder()
             .firstName("New_Name")
@@ -0,0 +1,65 @@
+package com.example.userdemo;
+
+import com.example.userdemo.cache.OffHeapUserStore;
+import com.example.userdemo.model.User;
+import com.example.userdemo.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.NestedExceptionUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.example.userdemo.ModelUtil.getNewUser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * Restarts the application with the off-heap users cache in a memory-mapped
+ * file, checking that the file is only reloaded for the same database.
+ */
+class OffHeapCacheFileTest {
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void fileIsReloadedForTheSameDatabaseOnlyTest() throws Exception {
+        User created;
+        try (ConfigurableApplicationContext context = start("prod")) {
+            User user = getNewUser();
+            user.setEmail("offheap@example.com");
+            created = context.getBean(UserService.class).create(user);
+        }
+        try (ConfigurableApplicationContext context = start("prod")) {
+            assertThat(context.getBean(OffHeapUserStore.class).get(created.getId())).isEqualTo(created);
+        }
+
+        // A recreated database hands out the same IDs again.
+        Files.delete(dataDir.resolve("userdemo.mv.db"));
+        try (ConfigurableApplicationContext context = start("prod")) {
+            assertThat(context.getBean(OffHeapUserStore.class).size()).isZero();
+        }
+    }
+
+    @Test
+    void fileIsRefusedForSchemaCreatedByHibernateTest() {
+        Throwable failure = catchThrowable(() -> start("default").close());
+
+        assertThat(NestedExceptionUtils.getMostSpecificCause(failure))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("spring.jpa.hibernate.ddl-auto");
+    }
+
+    private ConfigurableApplicationContext start(String profile) {
+        return new SpringApplicationBuilder(UserdemoApplication.class)
+            .profiles(profile)
+            .run("--server.port=0",
+                "--userdemo.data.dir=" + dataDir,
+                "--spring.datasource.url=jdbc:h2:file:" + dataDir + "/userdemo",
+                "--userdemo.cache.offHeap.enabled=true",
+                "--userdemo.cache.offHeap.capacity=1MB",
+                "--userdemo.cache.offHeap.file=" + dataDir.resolve("users.cache"));
+    }
+}
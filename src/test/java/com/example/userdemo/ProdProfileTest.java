@@ -0,0 +1,81 @@
+package com.example.userdemo;
+
+import com.example.userdemo.model.User;
+import com.example.userdemo.service.UserService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.example.userdemo.ModelUtil.getNewUser;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application with the prod profile on a file-mode H2 database in
+ * a temporary directory. Hibernate validates the schema created by the Flyway
+ * migrations against the entity mapping.
+ */
+@SpringBootTest
+@ActiveProfiles("prod")
+class ProdProfileTest {
+    @TempDir
+    static Path dataDir;
+
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Value("${spring.jpa.show-sql}")
+    private boolean showSql;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("userdemo.data.dir", () -> dataDir.toString());
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Test
+    void schemaIsMigratedTest() {
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("2");
+        assertThat(Files.exists(dataDir.resolve("userdemo.mv.db"))).isTrue();
+    }
+
+    @Test
+    void dataSourceIsTunedTest() {
+        HikariDataSource hikariDataSource = (HikariDataSource) dataSource;
+
+        assertThat(hikariDataSource.getPoolName()).isEqualTo("userdemo");
+        assertThat(hikariDataSource.getMaximumPoolSize()).isEqualTo(10);
+        assertThat(hikariDataSource.getMinimumIdle()).isEqualTo(10);
+        assertThat(hikariDataSource.isAutoCommit()).isFalse();
+        assertThat(showSql).isFalse();
+        assertThat(meterRegistry.get("hikaricp.connections.max").tag("pool", "userdemo").gauge().value())
+            .isEqualTo(10);
+    }
+
+    @Test
+    void userIsStoredTest() {
+        User user = getNewUser();
+        user.setEmail("prod@example.com");
+
+        User created = userService.create(user);
+
+        assertThat(userService.getById(created.getId())).isEqualTo(created);
+        assertThat(created.getVersion()).isZero();
+    }
+}
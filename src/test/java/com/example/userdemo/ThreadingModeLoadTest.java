@@ -0,0 +1,135 @@
+package com.example.userdemo;
+
+import com.example.userdemo.model.User;
+import com.example.userdemo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares throughput and p99 latency of the platform thread and virtual thread
+ * request execution modes under many concurrent clients.
+ *
+ * The test starts the application on a random port once per mode and is
+ * skipped unless run explicitly:
+ * {@code mvn test -Dtest=ThreadingModeLoadTest -Duserdemo.loadTest=true}.
+ * The number of clients and requests per client can be changed with the
+ * userdemo.loadTest.clients and userdemo.loadTest.requestsPerClient
+ * properties. The virtual thread mode is measured only on Java 21 or later.
+ */
+@EnabledIfSystemProperty(named = "userdemo.loadTest", matches = "true")
+class ThreadingModeLoadTest {
+    private static final int CLIENTS = Integer.getInteger("userdemo.loadTest.clients", 1000);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("userdemo.loadTest.requestsPerClient", 20);
+    private static final int SEEDED_USERS = 1000;
+
+    @Test
+    void platformAndVirtualThreadsTest() throws Exception {
+        LoadResult platform = run(false);
+        print("platform", platform);
+        assertTrue(platform.completed() > 0);
+
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads require Java 21 or later");
+        LoadResult virtual = run(true);
+        print("virtual", virtual);
+        assertTrue(virtual.completed() > 0);
+    }
+
+    private LoadResult run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(UserdemoApplication.class)
+            .properties("server.port=0",
+                "spring.jpa.show-sql=false",
+                "userdemo.threads.virtual=" + virtualThreads,
+                "userdemo.threads.permitTimeout=10s")
+            .run()) {
+            seed(context.getBean(UserRepository.class));
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            return load(URI.create("http://localhost:" + port + "/v1/users?pageSize=20"));
+        }
+    }
+
+    private void seed(UserRepository userRepository) {
+        userRepository.saveAll(IntStream.range(0, SEEDED_USERS)
+            .mapToObj(i -> {
+                User user = ModelUtil.getNewUser();
+                user.setEmail("load" + i + "@example.com");
+                return user;
+            })
+            .toList());
+    }
+
+    private LoadResult load(URI uri) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+        long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        AtomicInteger completed = new AtomicInteger();
+        LongAdder failed = new LongAdder();
+        ConcurrentMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] clients = new Thread[CLIENTS];
+
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = new Thread(() -> {
+                awaitQuietly(start);
+                for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                    long begin = System.nanoTime();
+                    try {
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                        latencies[completed.getAndIncrement()] = System.nanoTime() - begin;
+                    } catch (Exception e) {
+                        failed.increment();
+                    }
+                }
+            });
+            clients[i].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : clients) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        long[] measured = Arrays.copyOf(latencies, completed.get());
+        Arrays.sort(measured);
+        long p99 = measured.length == 0 ? 0 : measured[(int) Math.ceil(measured.length * 0.99) - 1];
+        return new LoadResult(measured.length, failed.sum(), statuses, elapsed, p99);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void print(String mode, LoadResult result) {
+        System.out.printf("%-8s clients=%d requests=%d failed=%d statuses=%s throughput=%.1f req/s p99=%.1f ms%n",
+            mode, CLIENTS, result.completed(), result.failed(), result.statuses(),
+            result.completed() / (result.elapsedNanos() / 1e9), result.p99Nanos() / 1e6);
+    }
+
+    private record LoadResult(int completed, long failed, ConcurrentMap<Integer, LongAdder> statuses,
+                              long elapsedNanos, long p99Nanos) {
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.userdemo;
+
+import com.example.userdemo.constatnt.ErrorMessages;
+import com.example.userdemo.dto.UserBatchResultDto;
+import com.example.userdemo.dto.UserPageDto;
+import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contract of the /v1/users API. The same tests run over HTTP against the
+ * blocking and the reactive application, see the subclasses.
+ */
+public abstract class UserApiContractTest {
+    private static final String USERS = "/v1/users";
+    private static final String RUN = UUID.randomUUID().toString().substring(0, 8);
+    private static final AtomicInteger EMAIL_SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    public void registerTest() {
+        User user = newUser(LocalDate.of(1990, 1, 1));
+
+        webTestClient.post().uri(USERS).bodyValue(user).exchange()
+            .expectStatus().isCreated()
+            .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+            .expectBody()
+            .jsonPath("$.id").isNumber()
+            .jsonPath("$.version").isEqualTo(0)
+            .jsonPath("$.email").isEqualTo(user.getEmail())
+            .jsonPath("$.dateOfBirth").isEqualTo("1990-01-01");
+    }
+
+    @Test
+    public void registerInvalidUserTest() {
+        webTestClient.post().uri(USERS).bodyValue(ModelUtil.getInvalidUser()).exchange()
+            .expectStatus().isBadRequest()
+            .expectBody().jsonPath("$.errors.length()").isEqualTo(5);
+    }
+
+    @Test
+    public void registerUnderageUserTest() {
+        User user = newUser(LocalDate.now().minusYears(10));
+
+        webTestClient.post().uri(USERS).bodyValue(user).exchange()
+            .expectStatus().isBadRequest()
+            .expectBody().jsonPath("$.errors[0]").value(error -> assertThat((String) error).startsWith("dateOfBirth"));
+    }
+
+    @Test
+    public void registerDuplicateEmailTest() {
+        User savedUser = register(newUser(LocalDate.of(1990, 1, 1)));
+        User duplicate = newUser(LocalDate.of(1991, 1, 1));
+        duplicate.setEmail(savedUser.getEmail());
+
+        webTestClient.post().uri(USERS).bodyValue(duplicate).exchange()
+            .expectStatus().isEqualTo(409)
+            .expectBody().jsonPath("$.message").isNotEmpty();
+        webTestClient.get().uri(USERS + "/by-email?email={email}", savedUser.getEmail()).exchange()
+            .expectStatus().isOk()
+            .expectBody(User.class).isEqualTo(savedUser);
+    }
+
+    @Test
+    public void getByEmailTest() {
+        User savedUser = register(newUser(LocalDate.of(1990, 1, 1)));
+        String unknown = "unknown" + RUN + "@example.com";
+
+        webTestClient.get().uri(USERS + "/by-email?email={email}", savedUser.getEmail()).exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+            .expectBody(User.class).isEqualTo(savedUser);
+        webTestClient.get().uri(USERS + "/by-email?email={email}", unknown).exchange()
+            .expectStatus().isNotFound()
+            .expectBody().jsonPath("$.message").isEqualTo(ErrorMessages.USER_NOT_FOUND_BY_EMAIL + unknown);
+    }
+
+    @Test
+    public void registerAllTest() {
+        User valid = newUser(LocalDate.of(1990, 1, 1));
+        User duplicate = newUser(LocalDate.of(1990, 1, 1));
+        duplicate.setEmail(valid.getEmail());
+
+        List<UserBatchResultDto> results = webTestClient.post().uri(USERS + "/batch")
+            .bodyValue(List.of(valid, ModelUtil.getInvalidUser(), duplicate)).exchange()
+            .expectStatus().isOk()
+            .expectBodyList(UserBatchResultDto.class).returnResult().getResponseBody();
+
+        assertThat(results).extracting(UserBatchResultDto::getStatus).containsExactly(
+            UserBatchResultDto.Status.CREATED, UserBatchResultDto.Status.INVALID, UserBatchResultDto.Status.CONFLICT);
+        assertThat(results.get(0).getId()).isNotNull();
+        getUser(results.get(0).getId()).expectStatus().isOk();
+    }
+
+    @Test
+    public void getByIdTest() {
+        User savedUser = register(newUser(LocalDate.of(1990, 1, 1)));
+
+        getUser(savedUser.getId())
+            .expectStatus().isOk()
+            .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+            .expectBody(User.class).isEqualTo(savedUser);
+
+        webTestClient.get().uri(USERS + "/" + savedUser.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+            .exchange()
+            .expectStatus().isNotModified()
+            .expectBody().isEmpty();
+    }
+
+    @Test
+    public void getByIdNotFoundTest() {
+        getUser(Long.MAX_VALUE)
+            .expectStatus().isNotFound()
+            .expectBody().jsonPath("$.message").isEqualTo(ErrorMessages.USER_NOT_FOUND_BY_ID + Long.MAX_VALUE);
+    }
+
+    @Test
+    public void updateFullyTest() {
+        User savedUser = register(newUser(LocalDate.of(1990, 1, 1)));
+        User updatedUser = newUser(LocalDate.of(1991, 2, 3));
+        updatedUser.setFirstName("Updated_Name");
+
+        webTestClient.put().uri(USERS + "/" + savedUser.getId()).header(HttpHeaders.IF_MATCH, "\"1\"")
+            .bodyValue(updatedUser).exchange()
+            .expectStatus().isEqualTo(412);
+
+        webTestClient.put().uri(USERS + "/" + savedUser.getId()).header(HttpHeaders.IF_MATCH, "\"0\"")
+            .bodyValue(updatedUser).exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+            .expectBody().jsonPath("$.firstName").isEqualTo("Updated_Name");
+
+        getUser(savedUser.getId())
+            .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+            .expectBody()
+            .jsonPath("$.firstName").isEqualTo("Updated_Name")
+            .jsonPath("$.dateOfBirth").isEqualTo("1991-02-03")
+            .jsonPath("$.version").isEqualTo(1);
+    }
+
+    @Test
+    public void updatePartiallyTest() {
+        User savedUser = register(newUser(LocalDate.of(1990, 1, 1)));
+        UserUpdateDto userDto = UserUpdateDto.builder().lastName("Patched_LastName").build();
+
+        webTestClient.patch().uri(USERS + "/" + savedUser.getId()).bodyValue(userDto).exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+            .expectBody()
+            .jsonPath("$.lastName").isEqualTo("Patched_LastName")
+            .jsonPath("$.firstName").isEqualTo(savedUser.getFirstName());
+
+        webTestClient.patch().uri(USERS + "/" + Long.MAX_VALUE).bodyValue(userDto).exchange()
+            .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void deleteTest() {
+        User savedUser = register(newUser(LocalDate.of(1990, 1, 1)));
+
+        webTestClient.delete().uri(USERS + "/" + savedUser.getId()).exchange().expectStatus().isOk();
+        getUser(savedUser.getId()).expectStatus().isNotFound();
+        webTestClient.delete().uri(USERS + "/" + savedUser.getId()).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    public void getByDateOfBirthTest() {
+        User first = register(newUser(LocalDate.of(1931, 3, 1)));
+        User second = register(newUser(LocalDate.of(1931, 3, 31)));
+        register(newUser(LocalDate.of(1931, 4, 1)));
+
+        List<User> users = webTestClient.get()
+            .uri(USERS + "/byDateOfBirth?from=1931-03-01&to=1931-03-31").exchange()
+            .expectStatus().isOk()
+            .expectBodyList(User.class).returnResult().getResponseBody();
+
+        assertThat(users).containsExactlyInAnyOrder(first, second);
+    }
+
+    @Test
+    public void getByDateOfBirthWrongTimePeriodTest() {
+        webTestClient.get().uri(USERS + "/byDateOfBirth?from=2000-01-02&to=2000-01-01").exchange()
+            .expectStatus().isBadRequest()
+            .expectBody().jsonPath("$.message").isEqualTo(ErrorMessages.WRONG_TIME_PERIOD);
+    }
+
+    @Test
+    public void streamByDateOfBirthTest() {
+        User first = register(newUser(LocalDate.of(1932, 6, 1)));
+        User second = register(newUser(LocalDate.of(1932, 6, 2)));
+        String uri = USERS + "/byDateOfBirth/stream?from=1932-06-01&to=1932-06-30";
+
+        List<User> ndjson = webTestClient.get().uri(uri).accept(MediaType.APPLICATION_NDJSON).exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .returnResult(User.class).getResponseBody().collectList().block();
+        List<User> jsonArray = webTestClient.get().uri(uri).accept(MediaType.APPLICATION_JSON).exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+            .expectBodyList(User.class).returnResult().getResponseBody();
+
+        assertThat(ndjson).containsExactlyInAnyOrder(first, second);
+        assertThat(jsonArray).containsExactlyInAnyOrder(first, second);
+    }
+
+    @Test
+    public void getAllTest() {
+        User savedUser = register(newUser(LocalDate.of(1990, 1, 1)));
+
+        webTestClient.get().uri(USERS + "/all").exchange()
+            .expectStatus().isOk()
+            .expectBodyList(User.class).contains(savedUser);
+    }
+
+    @Test
+    public void streamAllTest() {
+        User savedUser = register(newUser(LocalDate.of(1990, 1, 1)));
+
+        List<User> users = webTestClient.get().uri(USERS + "/stream").accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus().isOk()
+            .returnResult(User.class).getResponseBody().collectList().block();
+
+        assertThat(users).contains(savedUser);
+        assertThat(users).extracting(User::getId).isSorted();
+    }
+
+    @Test
+    public void getPageTest() {
+        List<Long> savedIds = List.of(
+            register(newUser(LocalDate.of(1990, 1, 1))).getId(),
+            register(newUser(LocalDate.of(1990, 1, 1))).getId(),
+            register(newUser(LocalDate.of(1990, 1, 1))).getId());
+
+        List<Long> ids = new ArrayList<>();
+        String pageToken = null;
+        do {
+            String uri = USERS + "?pageSize=2" + (pageToken == null ? "" : "&pageToken=" + pageToken);
+            UserPageDto page = webTestClient.get().uri(uri).exchange()
+                .expectStatus().isOk()
+                .expectBody(UserPageDto.class).returnResult().getResponseBody();
+            assertThat(page.getUsers()).hasSizeLessThanOrEqualTo(2);
+            page.getUsers().forEach(user -> ids.add(user.getId()));
+            pageToken = page.getNextPageToken();
+        } while (pageToken != null);
+
+        assertThat(ids).doesNotHaveDuplicates().isSorted().containsAll(savedIds);
+    }
+
+    @Test
+    public void getPageWrongPageTokenTest() {
+        webTestClient.get().uri(USERS + "?pageToken=not-a-token").exchange()
+            .expectStatus().isBadRequest()
+            .expectBody().jsonPath("$.message").isEqualTo(ErrorMessages.WRONG_PAGE_TOKEN);
+    }
+
+    private User register(User user) {
+        return webTestClient.post().uri(USERS).bodyValue(user).exchange()
+            .expectStatus().isCreated()
+            .expectBody(User.class).returnResult().getResponseBody();
+    }
+
+    private WebTestClient.ResponseSpec getUser(Long id) {
+        return webTestClient.get().uri(USERS + "/" + id).exchange();
+    }
+
+    private static User newUser(LocalDate dateOfBirth) {
+        User user = ModelUtil.getNewUser();
+        user.setEmail("contract" + RUN + "n" + EMAIL_SEQUENCE.incrementAndGet() + "@example.com");
+        user.setDateOfBirth(dateOfBirth);
+        return user;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.userdemo.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LongIntHashMapTest {
+
+    @Test
+    void randomOperationsMatchHashMapTest() {
+        Random random = new Random(42);
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            // Multiples of 1024 collide often in small tables.
+            long key = random.nextBoolean() ? random.nextInt(2000) : random.nextInt(500) * 1024L;
+            int operation = random.nextInt(3);
+            if (operation == 0) {
+                int value = random.nextInt(Integer.MAX_VALUE);
+                assertEquals(expected.getOrDefault(key, LongIntHashMap.NO_VALUE), map.put(key, value));
+                expected.put(key, value);
+            } else if (operation == 1) {
+                assertEquals(expected.getOrDefault(key, LongIntHashMap.NO_VALUE), map.remove(key));
+                expected.remove(key);
+            } else {
+                assertEquals(expected.getOrDefault(key, LongIntHashMap.NO_VALUE), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+    }
+
+    @Test
+    void clearRemovesAllEntriesTest() {
+        LongIntHashMap map = new LongIntHashMap();
+        for (long key = -100; key < 100; key++) {
+            map.put(key, (int) key + 100);
+        }
+
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertEquals(LongIntHashMap.NO_VALUE, map.get(5));
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.userdemo.cache;
+
+import com.example.userdemo.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static com.example.userdemo.ModelUtil.getSavedUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapUserStoreTest {
+    private static final int CAPACITY = 64 * 1024;
+    private static final long DATABASE_ID = 42L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void storedUserIsDecodedTest() {
+        OffHeapUserStore store = OffHeapUserStore.allocate(CAPACITY);
+        User user = user(1L);
+        user.setFirstName("Тарас");
+        user.setAddress(null);
+        user.setVersion(7L);
+
+        store.put(user);
+        User stored = store.get(1L);
+
+        assertEquals(user, stored);
+        assertNotSame(stored, store.get(1L));
+        assertNull(store.get(2L));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void nullVersionAndPhoneNumberAreKeptTest() {
+        OffHeapUserStore store = OffHeapUserStore.allocate(CAPACITY);
+        User user = user(1L);
+        user.setVersion(null);
+        user.setPhoneNumber(null);
+
+        store.put(user);
+
+        assertEquals(user, store.get(1L));
+    }
+
+    @Test
+    void dateOfBirthBeyondIntEpochDaysIsNotStoredTest() {
+        OffHeapUserStore store = OffHeapUserStore.allocate(CAPACITY);
+        store.put(user(1L));
+        User ancient = user(1L);
+        ancient.setDateOfBirth(LocalDate.of(-9_999_999, 1, 1));
+
+        store.put(ancient);
+
+        assertNull(store.get(1L));
+        assertEquals(0, store.size());
+        ancient.setDateOfBirth(LocalDate.ofEpochDay(Integer.MIN_VALUE));
+        store.put(ancient);
+        assertEquals(ancient, store.get(1L));
+    }
+
+    @Test
+    void updateAndRemoveTest() {
+        OffHeapUserStore store = OffHeapUserStore.allocate(CAPACITY);
+        store.put(user(1L));
+        long liveBytes = store.liveBytes();
+        User updated = user(1L);
+        updated.setLastName("Updated");
+        updated.setDateOfBirth(LocalDate.of(1970, 5, 5));
+
+        store.put(updated);
+        assertEquals(updated, store.get(1L));
+        assertEquals(liveBytes - "Test_LastName".length() + "Updated".length(), store.liveBytes());
+        assertTrue(store.usedBytes() > store.liveBytes());
+
+        store.remove(1L);
+        assertNull(store.get(1L));
+        assertEquals(0, store.size());
+        assertEquals(0, store.liveBytes());
+    }
+
+    @Test
+    void fullStoreIsCompactedTest() {
+        OffHeapUserStore store = OffHeapUserStore.allocate(CAPACITY);
+
+        for (int i = 0; i < 10_000; i++) {
+            User user = user(i % 10);
+            user.setVersion((long) i);
+            store.put(user);
+        }
+
+        assertEquals(10, store.size());
+        for (long id = 0; id < 10; id++) {
+            assertEquals(9990 + id, store.get(id).getVersion());
+        }
+        assertTrue(store.usedBytes() <= CAPACITY);
+    }
+
+    @Test
+    void storeIsClearedWhenCompactionIsNotEnoughTest() {
+        OffHeapUserStore store = OffHeapUserStore.allocate(CAPACITY);
+
+        for (long id = 0; id < 5000; id++) {
+            store.put(user(id));
+        }
+
+        assertEquals(user(4999L), store.get(4999L));
+        assertTrue(store.size() < 5000);
+        assertEquals(store.liveBytes(), store.usedBytes() - OffHeapUserStore.HEADER_SIZE);
+    }
+
+    @Test
+    void mappedStoreIsReloadedAfterCloseTest() throws IOException {
+        Path file = directory.resolve("users.cache");
+        OffHeapUserStore store = OffHeapUserStore.map(file, CAPACITY, DATABASE_ID);
+        for (long id = 1; id <= 3; id++) {
+            store.put(user(id));
+        }
+        User updated = user(2L);
+        updated.setEmail("updated@example.com");
+        store.put(updated);
+        store.remove(3L);
+        store.close();
+
+        OffHeapUserStore reopened = OffHeapUserStore.map(file, CAPACITY, DATABASE_ID);
+
+        assertEquals(2, reopened.size());
+        assertEquals(user(1L), reopened.get(1L));
+        assertEquals(updated, reopened.get(2L));
+        assertNull(reopened.get(3L));
+        assertEquals(store.liveBytes(), reopened.liveBytes());
+        reopened.close();
+    }
+
+    @Test
+    void mappedStoreThatWasNotClosedIsIgnoredTest() throws IOException {
+        Path file = directory.resolve("users.cache");
+        OffHeapUserStore store = OffHeapUserStore.map(file, CAPACITY, DATABASE_ID);
+        store.put(user(1L));
+
+        OffHeapUserStore reopened = OffHeapUserStore.map(file, CAPACITY, DATABASE_ID);
+
+        assertEquals(0, reopened.size());
+        assertNull(reopened.get(1L));
+        reopened.close();
+        store.close();
+    }
+
+    @Test
+    void mappedStoreOfAnotherDatabaseIsIgnoredTest() throws IOException {
+        Path file = directory.resolve("users.cache");
+        OffHeapUserStore store = OffHeapUserStore.map(file, CAPACITY, DATABASE_ID);
+        store.put(user(1L));
+        store.close();
+
+        OffHeapUserStore reopened = OffHeapUserStore.map(file, CAPACITY, DATABASE_ID + 1);
+
+        assertEquals(0, reopened.size());
+        assertNull(reopened.get(1L));
+        reopened.close();
+    }
+
+    private static User user(long id) {
+        User user = getSavedUser();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setVersion(0L);
+        return user;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.userdemo.controller;
+
+import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.dto.WriteStatusDto;
+import com.example.userdemo.model.User;
+import com.example.userdemo.repository.UserRepository;
+import com.example.userdemo.service.UserService;
+import com.example.userdemo.service.UserWriteQueue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static com.example.userdemo.ModelUtil.getNewUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "userdemo.writes.async=true",
+    "spring.datasource.url=jdbc:h2:mem:asyncwrites"
+})
+@AutoConfigureMockMvc
+class AsyncWriteTest {
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @SneakyThrows
+    void writesAreAcceptedAndCompletedTest() {
+        User user = getNewUser();
+        user.setEmail("async@example.com");
+
+        WriteStatusDto created = waitForCompletion(accept(post("/v1/users"), user));
+        assertEquals(WriteStatusDto.Status.COMPLETED, created.getStatus());
+        assertNotNull(created.getUserId());
+        mockMvc.perform(get("/v1/users/{id}", created.getUserId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.email").value("async@example.com"));
+
+        user.setFirstName("Updated");
+        WriteStatusDto updated = waitForCompletion(accept(put("/v1/users/{id}", created.getUserId())
+            .header(HttpHeaders.IF_MATCH, "\"" + created.getVersion() + "\""), user));
+        assertEquals(WriteStatusDto.Status.COMPLETED, updated.getStatus());
+        assertEquals(created.getVersion() + 1, updated.getVersion());
+
+        WriteStatusDto stale = waitForCompletion(accept(put("/v1/users/{id}", created.getUserId())
+            .header(HttpHeaders.IF_MATCH, "\"" + created.getVersion() + "\""), user));
+        assertEquals(WriteStatusDto.Status.FAILED, stale.getStatus());
+        assertEquals(412, stale.getHttpStatus());
+
+        WriteStatusDto duplicate = waitForCompletion(accept(post("/v1/users"), user));
+        assertEquals(WriteStatusDto.Status.FAILED, duplicate.getStatus());
+        assertEquals(409, duplicate.getHttpStatus());
+    }
+
+    @Test
+    void patchesOfOneUserInOneBatchSeeEachOtherTest() {
+        User user = getNewUser();
+        user.setEmail("batched@example.com");
+        User created = userService.create(user);
+        // The queue is started only after both writes are queued, so they are applied in one transaction.
+        UserWriteQueue userWriteQueue = new UserWriteQueue(userService, transactionManager,
+            new SimpleMeterRegistry(), 10, 10, Duration.ofMillis(50), Duration.ofMinutes(1));
+
+        WriteStatusDto first = userWriteQueue.update(created.getId(),
+            UserUpdateDto.builder().firstName("Aaaa").build(), null);
+        WriteStatusDto second = userWriteQueue.update(created.getId(),
+            UserUpdateDto.builder().firstName("Bbbb").build(), null);
+        userWriteQueue.start();
+        userWriteQueue.stop();
+
+        assertEquals(created.getVersion() + 1, userWriteQueue.getStatus(first.getId()).getVersion());
+        assertEquals(created.getVersion() + 2, userWriteQueue.getStatus(second.getId()).getVersion());
+        User stored = userRepository.findById(created.getId()).orElseThrow();
+        assertEquals("Bbbb", stored.getFirstName());
+        assertEquals(created.getVersion() + 2, stored.getVersion());
+        User cached = userService.getById(created.getId());
+        assertEquals("Bbbb", cached.getFirstName());
+        assertEquals(created.getVersion() + 2, cached.getVersion());
+    }
+
+    @Test
+    @SneakyThrows
+    void unknownWriteIsNotFoundTest() {
+        mockMvc.perform(get("/v1/users/writes/{id}", UUID.randomUUID()))
+            .andExpect(status().isNotFound());
+    }
+
+    @SneakyThrows
+    private UUID accept(MockHttpServletRequestBuilder request, User user) {
+        MvcResult result = mockMvc.perform(request
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)))
+            .andExpect(status().isAccepted())
+            .andExpect(header().exists(HttpHeaders.LOCATION))
+            .andExpect(jsonPath("$.status").value("QUEUED"))
+            .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), WriteStatusDto.class).getId();
+    }
+
+    @SneakyThrows
+    private WriteStatusDto waitForCompletion(UUID id) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (true) {
+            String body = mockMvc.perform(get("/v1/users/writes/{id}", id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            WriteStatusDto status = objectMapper.readValue(body, WriteStatusDto.class);
+            if (status.getStatus() != WriteStatusDto.Status.QUEUED || System.currentTimeMillis() > deadline) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+    }
+}
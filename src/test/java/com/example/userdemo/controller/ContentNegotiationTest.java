@@ -0,0 +1,147 @@
+package com.example.userdemo.controller;
+
+import com.example.userdemo.model.User;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static com.example.userdemo.ModelUtil.getNewUser;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round-trips users through every negotiated encoding and checks the gzip
+ * compression of large responses on a running server.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ContentNegotiationTest {
+    private static final String SMILE = "application/x-jackson-smile";
+    private static final int LARGE_RESPONSE_USERS = 50;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    private static Stream<Arguments> encodings() {
+        return Stream.of(
+            Arguments.of(MediaType.APPLICATION_JSON_VALUE, Jackson2ObjectMapperBuilder.json().build(), 1),
+            Arguments.of(MediaType.APPLICATION_CBOR_VALUE,
+                Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build(), 2),
+            Arguments.of(SMILE, Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build(), 3));
+    }
+
+    @ParameterizedTest
+    @MethodSource("encodings")
+    @SneakyThrows
+    void roundTripTest(String mediaType, ObjectMapper objectMapper, int day) {
+        User user = getNewUser();
+        user.setEmail("encoding" + day + "@example.com");
+        user.setDateOfBirth(LocalDate.of(1931, 1, day));
+
+        HttpResponse<byte[]> created = send(HttpRequest.newBuilder(uri("/v1/users"))
+            .header(HttpHeaders.CONTENT_TYPE, mediaType)
+            .header(HttpHeaders.ACCEPT, mediaType)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(user))));
+
+        assertThat(created.statusCode()).isEqualTo(201);
+        assertThat(created.headers().firstValue(HttpHeaders.CONTENT_TYPE)).hasValue(mediaType);
+        User createdUser = objectMapper.readValue(created.body(), User.class);
+        assertThat(createdUser).usingRecursiveComparison().ignoringFields("id", "version").isEqualTo(user);
+
+        HttpResponse<byte[]> found = send(HttpRequest.newBuilder(
+                uri("/v1/users/byDateOfBirth?from=" + user.getDateOfBirth() + "&to=" + user.getDateOfBirth()))
+            .header(HttpHeaders.ACCEPT, mediaType)
+            .GET());
+
+        assertThat(found.statusCode()).isEqualTo(200);
+        assertThat(found.headers().firstValue(HttpHeaders.CONTENT_TYPE)).hasValue(mediaType);
+        assertThat(objectMapper.readValue(found.body(), new TypeReference<List<User>>() { }))
+            .usingRecursiveFieldByFieldElementComparatorIgnoringFields("version")
+            .containsExactly(createdUser);
+    }
+
+    @ParameterizedTest
+    @MethodSource("encodings")
+    @SneakyThrows
+    void largeResponseIsCompressedTest(String mediaType, ObjectMapper objectMapper, int day) {
+        LocalDate dateOfBirth = LocalDate.of(1932, 1, day);
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        for (int i = 0; i < LARGE_RESPONSE_USERS; i++) {
+            User user = getNewUser();
+            user.setEmail("compressed" + day + "." + i + "@example.com");
+            user.setDateOfBirth(dateOfBirth);
+            send(HttpRequest.newBuilder(uri("/v1/users"))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(user))));
+        }
+
+        HttpResponse<byte[]> response = send(HttpRequest.newBuilder(
+                uri("/v1/users/byDateOfBirth?from=" + dateOfBirth + "&to=" + dateOfBirth))
+            .header(HttpHeaders.ACCEPT, mediaType)
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+            .GET());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+        try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            assertThat(objectMapper.readValue(body, new TypeReference<List<User>>() { }))
+                .hasSize(LARGE_RESPONSE_USERS)
+                .allMatch(user -> user.getDateOfBirth().equals(dateOfBirth));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void smallResponseIsNotCompressedTest() {
+        HttpResponse<byte[]> response = send(HttpRequest.newBuilder(
+                uri("/v1/users/byDateOfBirth?from=1933-01-01&to=1933-01-01"))
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+            .GET());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).isEmpty();
+        assertThat(new String(response.body())).isEqualTo("[]");
+    }
+
+    @Test
+    @SneakyThrows
+    void jsonIsTheDefaultTest() {
+        HttpResponse<byte[]> response = send(HttpRequest.newBuilder(
+                uri("/v1/users/byDateOfBirth?from=1933-01-01&to=1933-01-01"))
+            .header(HttpHeaders.ACCEPT, "*/*")
+            .GET());
+
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_TYPE)).hasValue(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    @SneakyThrows
+    private HttpResponse<byte[]> send(HttpRequest.Builder request) {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.userdemo.controller;
+
+import com.example.userdemo.constatnt.ErrorMessages;
+import com.example.userdemo.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.example.userdemo.ModelUtil.getNewUser;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Duplicate emails without the email filter, detected only by the unique
+ * constraint when the transaction commits.
+ */
+@SpringBootTest(properties = {
+    "userdemo.emailFilter.enabled=false",
+    "spring.datasource.url=jdbc:h2:mem:duplicateemail"
+})
+@AutoConfigureMockMvc
+class DuplicateEmailTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @SneakyThrows
+    void duplicateEmailIsConflictTest() {
+        User user = getNewUser();
+        user.setEmail("duplicate@example.com");
+
+        mockMvc.perform(post("/v1/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)))
+            .andExpect(status().isCreated());
+        mockMvc.perform(post("/v1/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value(ErrorMessages.USER_CONFLICT));
+        mockMvc.perform(get("/v1/users/by-email").param("email", "duplicate@example.com"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.email").value("duplicate@example.com"));
+    }
+}
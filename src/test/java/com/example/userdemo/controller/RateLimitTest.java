@@ -0,0 +1,62 @@
+package com.example.userdemo.controller;
+
+import com.example.userdemo.config.RateLimitConfig;
+import com.example.userdemo.constatnt.ErrorMessages;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "userdemo.rateLimit.enabled=true",
+    "userdemo.rateLimit.requestsPerSecond=0.01",
+    "userdemo.rateLimit.burst=3",
+    "userdemo.rateLimit.expensive.requestsPerSecond=0.01",
+    "userdemo.rateLimit.expensive.burst=1",
+    "spring.datasource.url=jdbc:h2:mem:ratelimit"
+})
+@AutoConfigureMockMvc
+class RateLimitTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @SneakyThrows
+    void requestsAboveClientRateGetTooManyRequestsTest() {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/v1/users/{id}", Long.MAX_VALUE)).andExpect(status().isNotFound());
+        }
+
+        mockMvc.perform(get("/v1/users/{id}", Long.MAX_VALUE))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"))
+            .andExpect(jsonPath("$.message").value(ErrorMessages.RATE_LIMITED));
+    }
+
+    @Test
+    @SneakyThrows
+    void expensiveEndpointHasSmallerLimitsTest() {
+        mockMvc.perform(get("/v1/users/all")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/users/all"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        assertEquals(4, meterRegistry.get(RateLimitConfig.CONCURRENCY_LIMIT_METRIC)
+            .tag("pool", "expensive").gauge().value());
+        assertEquals(0, meterRegistry.get(RateLimitConfig.CONCURRENCY_IN_FLIGHT_METRIC)
+            .tag("pool", "expensive").gauge().value());
+    }
+}
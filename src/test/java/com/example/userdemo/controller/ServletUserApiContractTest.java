@@ -0,0 +1,8 @@
+package com.example.userdemo.controller;
+
+import com.example.userdemo.UserApiContractTest;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ServletUserApiContractTest extends UserApiContractTest {
+}
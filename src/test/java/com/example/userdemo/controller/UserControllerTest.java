@@ -1,21 +1,34 @@
 package com.example.userdemo.controller;
 
 import com.example.userdemo.ModelUtil;
+import com.example.userdemo.constatnt.ErrorMessages;
+import com.example.userdemo.dto.UserBatchResultDto;
+import com.example.userdemo.dto.UserFilterDto;
+import com.example.userdemo.dto.UserPageDto;
+import com.example.userdemo.dto.UserSummaryDto;
 import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.exception.ConflictException;
 import com.example.userdemo.exception.NotFoundException;
+import com.example.userdemo.exception.PreconditionFailedException;
 import com.example.userdemo.model.User;
 import com.example.userdemo.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static com.example.userdemo.ModelUtil.*;
 import static org.mockito.Mockito.verify;
@@ -23,15 +36,22 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
+@Import(SimpleMeterRegistry.class)
 class UserControllerTest {
 
     @Autowired
@@ -77,6 +97,55 @@ class UserControllerTest {
         verify(userService, never()).create(any(User.class));
     }
 
+    @Test
+    @SneakyThrows
+    void registerConflictTest() {
+        User newUser = ModelUtil.getNewUser();
+
+        when(userService.create(newUser)).thenThrow(new ConflictException("duplicate"));
+
+        mockMvc.perform(post("/v1/users")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(newUser)))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value("duplicate"));
+    }
+
+    @Test
+    @SneakyThrows
+    void registerDataIntegrityViolationTest() {
+        User newUser = ModelUtil.getNewUser();
+
+        when(userService.create(newUser)).thenThrow(new DataIntegrityViolationException("Unique index violation"));
+
+        mockMvc.perform(post("/v1/users")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(newUser)))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value(ErrorMessages.USER_CONFLICT));
+    }
+
+    @Test
+    @SneakyThrows
+    void registerAllTest() {
+        List<User> newUsers = List.of(getNewUser(), getInvalidUser());
+        List<UserBatchResultDto> results = List.of(
+            new UserBatchResultDto(0, UserBatchResultDto.Status.CREATED, 1L, List.of()),
+            new UserBatchResultDto(1, UserBatchResultDto.Status.INVALID, null, List.of("email - some error")));
+        var expectedResult = asJsonString(results);
+
+        when(userService.createAll(newUsers)).thenReturn(results);
+
+        mockMvc.perform(post("/v1/users/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(newUsers)))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(content().json(expectedResult));
+
+        verify(userService).createAll(newUsers);
+    }
+
     @Test
     @SneakyThrows
     void updateFullyTest() {
@@ -86,7 +155,7 @@ class UserControllerTest {
         User savedUser = ModelUtil.getSavedUser();
         var savedJsonUser = asJsonString(savedUser);
 
-        when(userService.update(userId, updatedUser)).thenReturn(savedUser);
+        when(userService.update(userId, updatedUser, null)).thenReturn(savedUser);
 
         mockMvc.perform(put("/v1/users/" + userId)
             .contentType(MediaType.APPLICATION_JSON)
@@ -95,7 +164,7 @@ class UserControllerTest {
             .andExpect(content().contentType(MediaType.APPLICATION_JSON))
             .andExpect(content().json(savedJsonUser));
 
-        verify(userService).update(userId, updatedUser);
+        verify(userService).update(userId, updatedUser, null);
     }
 
     @Test
@@ -110,7 +179,7 @@ class UserControllerTest {
             .andExpect(status().isBadRequest())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
-        verify(userService, never()).update(any(), any(User.class));
+        verify(userService, never()).update(any(), any(User.class), any());
     }
 
     @Test
@@ -121,7 +190,7 @@ class UserControllerTest {
         var jsonUpdateUser = asJsonString(updatedUser);
         var errorMessage = "some error";
 
-        when(userService.update(userId, updatedUser)).thenThrow(new NotFoundException(errorMessage));
+        when(userService.update(userId, updatedUser, null)).thenThrow(new NotFoundException(errorMessage));
 
         mockMvc.perform(put("/v1/users/" + userId)
             .contentType(MediaType.APPLICATION_JSON)
@@ -129,7 +198,7 @@ class UserControllerTest {
             .andExpect(status().isNotFound())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
-        verify(userService).update(userId, updatedUser);
+        verify(userService).update(userId, updatedUser, null);
     }
 
     @Test
@@ -141,7 +210,7 @@ class UserControllerTest {
         User savedUser = ModelUtil.getSavedUser();
         var savedJsonUser = asJsonString(savedUser);
 
-        when(userService.update(userId, userDto)).thenReturn(getSavedUser());
+        when(userService.update(userId, userDto, null)).thenReturn(getSavedUser());
 
         mockMvc.perform(patch("/v1/users/" + userId)
             .contentType(MediaType.APPLICATION_JSON)
@@ -150,7 +219,7 @@ class UserControllerTest {
             .andExpect(content().contentType(MediaType.APPLICATION_JSON))
             .andExpect(content().json(savedJsonUser));
 
-        verify(userService).update(userId, userDto);
+        verify(userService).update(userId, userDto, null);
     }
 
     @Test
@@ -165,7 +234,7 @@ class UserControllerTest {
             .andExpect(status().isBadRequest())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
-        verify(userService, never()).update(any(), any(UserUpdateDto.class));
+        verify(userService, never()).update(any(), any(UserUpdateDto.class), any());
 
     }
 
@@ -177,7 +246,7 @@ class UserControllerTest {
         var jsonUpdateDto = asJsonString(userDto);
         var errorMessage = "some error";
 
-        when(userService.update(userId, userDto)).thenThrow(new NotFoundException(errorMessage));
+        when(userService.update(userId, userDto, null)).thenThrow(new NotFoundException(errorMessage));
 
         mockMvc.perform(patch("/v1/users/" + userId)
             .contentType(MediaType.APPLICATION_JSON)
@@ -185,7 +254,7 @@ class UserControllerTest {
             .andExpect(status().isNotFound())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
-        verify(userService).update(userId, userDto);
+        verify(userService).update(userId, userDto, null);
     }
 
     @Test
@@ -214,6 +283,137 @@ class UserControllerTest {
         verify(userService).delete(userId);
     }
 
+    @Test
+    @SneakyThrows
+    void getByIdTest() {
+        long userId = 1L;
+        User savedUser = getSavedUser();
+
+        when(userService.getById(userId)).thenReturn(savedUser);
+
+        mockMvc.perform(get("/v1/users/" + userId))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(content().json(asJsonString(savedUser)));
+
+        verify(userService).getById(userId);
+    }
+
+    @Test
+    @SneakyThrows
+    void getByIdReturnsETagTest() {
+        long userId = 1L;
+        User savedUser = getSavedUser();
+        savedUser.setVersion(3L);
+
+        when(userService.getById(userId)).thenReturn(savedUser);
+
+        mockMvc.perform(get("/v1/users/" + userId))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+    }
+
+    @Test
+    @SneakyThrows
+    void getByIdNotModifiedTest() {
+        long userId = 1L;
+        User savedUser = getSavedUser();
+        savedUser.setVersion(3L);
+
+        when(userService.getById(userId)).thenReturn(savedUser);
+
+        mockMvc.perform(get("/v1/users/" + userId)
+            .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    @SneakyThrows
+    void updateFullyIfMatchTest() {
+        long userId = 1L;
+        User updatedUser = ModelUtil.getNewUser();
+        User savedUser = ModelUtil.getSavedUser();
+        savedUser.setVersion(3L);
+
+        when(userService.update(userId, updatedUser, 2L)).thenReturn(savedUser);
+
+        mockMvc.perform(put("/v1/users/" + userId)
+            .header(HttpHeaders.IF_MATCH, "\"2\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(updatedUser)))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+
+        verify(userService).update(userId, updatedUser, 2L);
+    }
+
+    @Test
+    @SneakyThrows
+    void updatePartiallyPreconditionFailedTest() {
+        long userId = 1L;
+        UserUpdateDto userDto = getUserUpdateDto();
+
+        when(userService.update(userId, userDto, 2L)).thenThrow(new PreconditionFailedException("some error"));
+
+        mockMvc.perform(patch("/v1/users/" + userId)
+            .header(HttpHeaders.IF_MATCH, "\"2\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(userDto)))
+            .andExpect(status().isPreconditionFailed())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @SneakyThrows
+    void updatePartiallyMalformedIfMatchTest() {
+        long userId = 1L;
+
+        mockMvc.perform(patch("/v1/users/" + userId)
+            .header(HttpHeaders.IF_MATCH, "W/\"2\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(getUserUpdateDto())))
+            .andExpect(status().isPreconditionFailed());
+
+        verify(userService, never()).update(any(), any(UserUpdateDto.class), any());
+    }
+
+    @Test
+    @SneakyThrows
+    void getByEmailTest() {
+        User savedUser = getSavedUser();
+        savedUser.setVersion(2L);
+
+        when(userService.getByEmail(savedUser.getEmail())).thenReturn(savedUser);
+
+        mockMvc.perform(get("/v1/users/by-email").param("email", savedUser.getEmail()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+            .andExpect(content().json(asJsonString(savedUser)));
+    }
+
+    @Test
+    @SneakyThrows
+    void getByEmailNotFoundTest() {
+        when(userService.getByEmail("missing@example.com")).thenThrow(new NotFoundException("some error"));
+
+        mockMvc.perform(get("/v1/users/by-email").param("email", "missing@example.com"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @SneakyThrows
+    void getByIdNotFoundTest() {
+        long userId = 100500L;
+
+        when(userService.getById(userId)).thenThrow(new NotFoundException("some error"));
+
+        mockMvc.perform(get("/v1/users/" + userId))
+            .andExpect(status().isNotFound())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
     @Test
     @SneakyThrows
     void getByDateOfBirthTest() {
@@ -272,6 +472,249 @@ class UserControllerTest {
         verify(userService).getAll();
     }
 
+    @Test
+    @SneakyThrows
+    void getSummariesByDateOfBirthTest() {
+        LocalDate from = LocalDate.of(2023, 1, 1);
+        LocalDate to = LocalDate.of(2023, 12, 31);
+        List<UserSummaryDto> summaries = List.of(getUserSummary(), getUserSummary());
+
+        when(userService.getSummariesByDateOfBirth(from, to)).thenReturn(summaries);
+
+        mockMvc.perform(get("/v1/users/byDateOfBirth")
+            .param("from", "2023-01-01")
+            .param("to", "2023-12-31")
+            .param("fields", "summary"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(content().json(asJsonString(summaries)))
+            .andExpect(jsonPath("$[0].address").doesNotExist())
+            .andExpect(jsonPath("$[0].phoneNumber").doesNotExist());
+
+        verify(userService).getSummariesByDateOfBirth(from, to);
+        verify(userService, never()).getByDateOfBirth(any(), any());
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllSummariesTest() {
+        List<UserSummaryDto> summaries = List.of(getUserSummary(), getUserSummary());
+
+        when(userService.getAllSummaries()).thenReturn(summaries);
+
+        mockMvc.perform(get("/v1/users/all").param("fields", "SUMMARY"))
+            .andExpect(status().isOk())
+            .andExpect(content().json(asJsonString(summaries)))
+            .andExpect(jsonPath("$[0].version").doesNotExist());
+
+        verify(userService).getAllSummaries();
+        verify(userService, never()).getAll();
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllWithAllFieldsTest() {
+        List<User> users = List.of(getSavedUser());
+
+        when(userService.getAll()).thenReturn(users);
+
+        mockMvc.perform(get("/v1/users/all").param("fields", "all"))
+            .andExpect(status().isOk())
+            .andExpect(content().json(asJsonString(users)));
+
+        verify(userService).getAll();
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllWrongFieldsTest() {
+        mockMvc.perform(get("/v1/users/all").param("fields", "address"))
+            .andExpect(status().isBadRequest());
+
+        verify(userService, never()).getAll();
+        verify(userService, never()).getAllSummaries();
+    }
+
+    @Test
+    @SneakyThrows
+    void getPageTest() {
+        UserPageDto page = new UserPageDto(List.of(getSavedUser()), "Mg");
+        var expectedResult = asJsonString(page);
+
+        when(userService.getPage("MQ", 1)).thenReturn(page);
+
+        mockMvc.perform(get("/v1/users")
+            .param("pageToken", "MQ")
+            .param("pageSize", "1"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(content().json(expectedResult));
+
+        verify(userService).getPage("MQ", 1);
+    }
+
+    @Test
+    @SneakyThrows
+    void filterTest() {
+        UserPageDto page = new UserPageDto(List.of(getSavedUser()), "MQ");
+        UserFilterDto filter = UserFilterDto.builder()
+            .lastNameStartsWith("Test")
+            .minAge(20)
+            .hasPhone(true)
+            .sort("lastName,desc")
+            .build();
+
+        when(userService.filter(filter, "Mg", 1)).thenReturn(page);
+
+        mockMvc.perform(get("/v1/users/filter")
+            .param("lastNameStartsWith", "Test")
+            .param("minAge", "20")
+            .param("hasPhone", "true")
+            .param("sort", "lastName,desc")
+            .param("pageToken", "Mg")
+            .param("pageSize", "1"))
+            .andExpect(status().isOk())
+            .andExpect(content().json(asJsonString(page)));
+    }
+
+    @Test
+    @SneakyThrows
+    void searchTest() {
+        UserPageDto page = new UserPageDto(List.of(getSavedUser()), "MQ");
+        var expectedResult = asJsonString(page);
+
+        when(userService.search("test name", null, 1)).thenReturn(page);
+
+        mockMvc.perform(get("/v1/users/search")
+            .param("q", "test name")
+            .param("pageSize", "1"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(content().json(expectedResult));
+    }
+
+    @Test
+    @SneakyThrows
+    void searchBadRequestTest() {
+        when(userService.search("!", null, null)).thenThrow(new IllegalArgumentException(ErrorMessages.WRONG_SEARCH_QUERY));
+
+        mockMvc.perform(get("/v1/users/search")
+            .param("q", "!"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @SneakyThrows
+    void getPageBadRequestTest() {
+        when(userService.getPage("invalid", null)).thenThrow(new IllegalArgumentException("some error"));
+
+        mockMvc.perform(get("/v1/users")
+            .param("pageToken", "invalid"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    void streamAllTest() {
+        User user = getSavedUser();
+        var expectedResult = asJsonString(user) + "\n" + asJsonString(user) + "\n";
+
+        doAnswer(invocation -> {
+            Consumer<User> action = invocation.getArgument(0);
+            action.accept(user);
+            action.accept(user);
+            return null;
+        }).when(userService).streamAll(any(Consumer.class));
+
+        MvcResult mvcResult = mockMvc.perform(get("/v1/users/stream"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andExpect(content().string(expectedResult));
+    }
+
+    @Test
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    void streamByDateOfBirthTest() {
+        LocalDate from = LocalDate.of(2023, 1, 1);
+        LocalDate to = LocalDate.of(2023, 12, 31);
+        User user = getSavedUser();
+        var expectedResult = asJsonString(user) + "\n" + asJsonString(user) + "\n";
+
+        doAnswer(invocation -> {
+            Consumer<User> action = invocation.getArgument(2);
+            action.accept(user);
+            action.accept(user);
+            return null;
+        }).when(userService).streamByDateOfBirth(eq(from), eq(to), any(Consumer.class));
+
+        MvcResult mvcResult = mockMvc.perform(get("/v1/users/byDateOfBirth/stream")
+            .accept(MediaType.APPLICATION_NDJSON)
+            .param("from", "2023-01-01")
+            .param("to", "2023-12-31"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andExpect(content().string(expectedResult));
+    }
+
+    @Test
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    void streamByDateOfBirthAsJsonArrayTest() {
+        LocalDate from = LocalDate.of(2023, 1, 1);
+        LocalDate to = LocalDate.of(2023, 12, 31);
+        List<User> users = List.of(getSavedUser(), getSavedUser());
+        var expectedResult = asJsonString(users);
+
+        doAnswer(invocation -> {
+            Consumer<User> action = invocation.getArgument(2);
+            users.forEach(action);
+            return null;
+        }).when(userService).streamByDateOfBirth(eq(from), eq(to), any(Consumer.class));
+
+        MvcResult mvcResult = mockMvc.perform(get("/v1/users/byDateOfBirth/stream")
+            .accept(MediaType.APPLICATION_JSON)
+            .param("from", "2023-01-01")
+            .param("to", "2023-12-31"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(content().string(expectedResult));
+    }
+
+    @Test
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    void streamByDateOfBirthBadRequestTest() {
+        LocalDate from = LocalDate.of(2023, 12, 31);
+        LocalDate to = LocalDate.of(2023, 1, 1);
+
+        doThrow(new IllegalArgumentException("some error")).when(userService).validateTimePeriod(from, to);
+
+        mockMvc.perform(get("/v1/users/byDateOfBirth/stream")
+            .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON)
+            .param("from", "2023-12-31")
+            .param("to", "2023-01-01"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+        verify(userService, never()).streamByDateOfBirth(any(), any(), any(Consumer.class));
+    }
+
     @SneakyThrows
     private String asJsonString(Object obj) {
         return objectMapper.writeValueAsString(obj);
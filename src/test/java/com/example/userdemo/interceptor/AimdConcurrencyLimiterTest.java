@@ -0,0 +1,70 @@
+package com.example.userdemo.interceptor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AimdConcurrencyLimiterTest {
+    private static final long THRESHOLD = 100;
+
+    private final AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 10, THRESHOLD);
+
+    @Test
+    void requestsAboveLimitAreRejectedTest() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        assertFalse(limiter.tryAcquire());
+        assertEquals(10, limiter.getInFlight());
+
+        limiter.release(THRESHOLD, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void limitDecreasesMultiplicativelyDownToMinimumTest() {
+        limiter.tryAcquire();
+        limiter.release(THRESHOLD + 1, false);
+        assertEquals(9, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.release(0, true);
+        assertEquals(8, limiter.getLimit());
+
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.release(THRESHOLD + 1, false);
+        }
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void limitIncreasesAdditivelyOnlyUnderLoadTest() {
+        limiter.tryAcquire();
+        limiter.release(THRESHOLD + 1, false);
+        limiter.tryAcquire();
+        limiter.release(THRESHOLD + 1, false);
+        assertEquals(8, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.release(0, false);
+        assertEquals(8, limiter.getLimit());
+
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+        limiter.release(0, false);
+        assertEquals(9, limiter.getLimit());
+    }
+
+    @Test
+    void invalidLimitsAreRejectedTest() {
+        assertThrows(IllegalArgumentException.class, () -> new AimdConcurrencyLimiter(0, 10, THRESHOLD));
+        assertThrows(IllegalArgumentException.class, () -> new AimdConcurrencyLimiter(5, 4, THRESHOLD));
+    }
+}
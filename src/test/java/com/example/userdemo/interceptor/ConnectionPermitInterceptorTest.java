@@ -0,0 +1,64 @@
+package com.example.userdemo.interceptor;
+
+import com.example.userdemo.exception.ServiceUnavailableException;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionPermitInterceptorTest {
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final ConnectionPermitInterceptor interceptor = new ConnectionPermitInterceptor(1, Duration.ZERO);
+
+    @Test
+    void permitIsReleasedAfterCompletionTest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        assertTrue(interceptor.preHandle(request, response, null));
+        assertEquals(0, interceptor.availablePermits());
+
+        interceptor.afterCompletion(request, response, null, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertEquals(1, interceptor.availablePermits());
+    }
+
+    @Test
+    void requestIsRejectedWhenNoPermitIsFreeTest() throws Exception {
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        MockHttpServletRequest second = new MockHttpServletRequest();
+        interceptor.preHandle(first, response, null);
+
+        var result = assertThrows(ServiceUnavailableException.class,
+            () -> interceptor.preHandle(second, response, null));
+
+        assertEquals(1, result.getRetryAfterSeconds());
+        interceptor.afterCompletion(second, response, null, result);
+        assertEquals(0, interceptor.availablePermits());
+    }
+
+    @Test
+    void asyncDispatchKeepsPermitOfInitialDispatchTest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        interceptor.preHandle(request, response, null);
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(interceptor.preHandle(request, response, null));
+        assertEquals(0, interceptor.availablePermits());
+
+        interceptor.afterCompletion(request, response, null, null);
+        assertEquals(1, interceptor.availablePermits());
+    }
+
+    @Test
+    void nonPositivePermitsAreRejectedTest() {
+        assertThrows(IllegalArgumentException.class, () -> new ConnectionPermitInterceptor(0, Duration.ZERO));
+    }
+}
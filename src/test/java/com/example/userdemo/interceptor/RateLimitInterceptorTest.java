@@ -0,0 +1,136 @@
+package com.example.userdemo.interceptor;
+
+import com.example.userdemo.constatnt.ErrorMessages;
+import com.example.userdemo.controller.UserController;
+import com.example.userdemo.exception.TooManyRequestsException;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class RateLimitInterceptorTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+    private final AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(1, 2, SECOND);
+    private final AimdConcurrencyLimiter expensiveLimiter = new AimdConcurrencyLimiter(1, 1, SECOND);
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor(
+        new RateLimitInterceptor.Limits(1, 2, limiter),
+        new RateLimitInterceptor.Limits(0.5, 1, expensiveLimiter),
+        1000, now::get);
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final HandlerMethod getById = handler("getById", Long.class);
+    private final HandlerMethod getAll = handler("getAll", String.class);
+
+    @Test
+    void clientIsLimitedPerEndpointTest() {
+        assertTrue(call(getById, "10.0.0.1", "/v1/users/{id}"));
+        assertTrue(call(getById, "10.0.0.1", "/v1/users/{id}"));
+
+        var result = assertThrows(TooManyRequestsException.class,
+            () -> call(getById, "10.0.0.1", "/v1/users/{id}"));
+
+        assertEquals(ErrorMessages.RATE_LIMITED, result.getMessage());
+        assertEquals(1, result.getRetryAfterSeconds());
+        assertTrue(call(getById, "10.0.0.2", "/v1/users/{id}"));
+        assertTrue(call(getById, "10.0.0.1", "/v1/users/{id}/etag"));
+
+        now.addAndGet(SECOND);
+        assertTrue(call(getById, "10.0.0.1", "/v1/users/{id}"));
+    }
+
+    @Test
+    void expensiveEndpointHasItsOwnLimitsTest() {
+        assertTrue(call(getAll, "10.0.0.1", "/v1/users/all"));
+
+        var result = assertThrows(TooManyRequestsException.class,
+            () -> call(getAll, "10.0.0.1", "/v1/users/all"));
+
+        assertEquals(2, result.getRetryAfterSeconds());
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, expensiveLimiter.getInFlight());
+    }
+
+    @Test
+    void requestIsRejectedWhenConcurrencyLimitIsReachedTest() throws Exception {
+        MockHttpServletRequest first = request("10.0.0.1", "/v1/users/all");
+        interceptor.preHandle(first, response, getAll);
+
+        var result = assertThrows(TooManyRequestsException.class,
+            () -> call(getAll, "10.0.0.2", "/v1/users/all"));
+
+        assertEquals(ErrorMessages.SERVICE_BUSY, result.getMessage());
+        assertEquals(1, result.getRetryAfterSeconds());
+        assertTrue(call(getById, "10.0.0.2", "/v1/users/{id}"));
+
+        interceptor.afterCompletion(first, response, getAll, null);
+        interceptor.afterCompletion(first, response, getAll, null);
+        assertEquals(0, expensiveLimiter.getInFlight());
+    }
+
+    @Test
+    void asyncDispatchKeepsPermitOfInitialDispatchTest() throws Exception {
+        MockHttpServletRequest request = request("10.0.0.1", "/v1/users/all");
+        interceptor.preHandle(request, response, getAll);
+        interceptor.afterConcurrentHandlingStarted(request, response, getAll);
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(interceptor.preHandle(request, response, getAll));
+        assertEquals(1, expensiveLimiter.getInFlight());
+
+        interceptor.afterCompletion(request, response, getAll, null);
+        assertEquals(0, expensiveLimiter.getInFlight());
+    }
+
+    @Test
+    void slowRequestsLowerConcurrencyLimitTest() throws Exception {
+        MockHttpServletRequest request = request("10.0.0.1", "/v1/users/{id}");
+        interceptor.preHandle(request, response, getById);
+        now.addAndGet(2 * SECOND);
+
+        interceptor.afterCompletion(request, response, getById, null);
+
+        assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    void handlersOtherThanControllerMethodsAreNotLimitedTest() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(interceptor.preHandle(request("10.0.0.1", "/v1/users/all"), response, new Object()));
+        }
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private boolean call(HandlerMethod handler, String remoteAddr, String pattern) {
+        MockHttpServletRequest request = request(remoteAddr, pattern);
+        boolean admitted = interceptor.preHandle(request, response, handler);
+        interceptor.afterCompletion(request, response, handler, null);
+        return admitted;
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern);
+        request.setRemoteAddr(remoteAddr);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+
+    private static HandlerMethod handler(String name, Class<?>... parameterTypes) {
+        try {
+            return new HandlerMethod(mock(UserController.class),
+                UserController.class.getMethod(name, parameterTypes));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.userdemo.metrics;
+
+import com.example.userdemo.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.example.userdemo.ModelUtil.getInvalidUser;
+import static com.example.userdemo.ModelUtil.getNewUser;
+import static com.example.userdemo.exception.handler.GlobalExceptionHandler.ERRORS_METRIC;
+import static com.example.userdemo.exception.handler.GlobalExceptionHandler.VALIDATION_FAILURES_METRIC;
+import static com.example.userdemo.metrics.RepositoryMetricsAspect.QUERIES_METRIC;
+import static com.example.userdemo.metrics.RepositoryMetricsAspect.ROWS_METRIC;
+import static com.example.userdemo.service.UserServiceImpl.TIMER_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @SneakyThrows
+    void requestsRecordMetricsTest() {
+        User user = getNewUser();
+        user.setEmail("metrics@example.com");
+        user.setDateOfBirth(user.getDateOfBirth().minusYears(50));
+        double notFoundErrors = count(ERRORS_METRIC, "type", "not_found");
+        double validationErrors = count(ERRORS_METRIC, "type", "validation");
+
+        mockMvc.perform(post("/v1/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)))
+            .andExpect(status().isCreated());
+        mockMvc.perform(get("/v1/users/byDateOfBirth")
+                .param("from", user.getDateOfBirth().toString())
+                .param("to", user.getDateOfBirth().toString()))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/v1/users/{id}", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(post("/v1/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(getInvalidUser())))
+            .andExpect(status().isBadRequest());
+
+        assertThat(meterRegistry.get("http.server.requests").tag("uri", "/v1/users/{id}").tag("status", "404")
+            .timer().count()).isPositive();
+        assertThat(meterRegistry.get(TIMER_NAME).tag("method", "getByDateOfBirth").timer().count()).isPositive();
+        assertThat(meterRegistry.get(TIMER_NAME).tag("method", "create").timer().count()).isPositive();
+        assertThat(meterRegistry.get(QUERIES_METRIC).tag("method", "findDetachedByDateOfBirthBetween")
+            .summary().totalAmount()).isPositive();
+        assertThat(meterRegistry.get(ROWS_METRIC).tag("method", "findDetachedByDateOfBirthBetween")
+            .summary().max()).isEqualTo(1);
+        assertThat(meterRegistry.get(ROWS_METRIC).tag("method", "findById").summary().max()).isZero();
+        assertThat(count(ERRORS_METRIC, "type", "not_found")).isEqualTo(notFoundErrors + 1);
+        assertThat(count(ERRORS_METRIC, "type", "validation")).isEqualTo(validationErrors + 1);
+        assertThat(count(VALIDATION_FAILURES_METRIC, "field", "email")).isPositive();
+
+        mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("userdemo_service_seconds_bucket")))
+            .andExpect(content().string(containsString("userdemo_repository_rows_count")))
+            .andExpect(content().string(containsString("userdemo_errors_total{type=\"not_found\"")));
+    }
+
+    private double count(String name, String tagKey, String tagValue) {
+        var counter = Search.in(meterRegistry).name(name).tag(tagKey, tagValue).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.userdemo.reactive;
+
+import com.example.userdemo.UserApiContractTest;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles(ReactiveUserdemoApplication.PROFILE)
+class ReactiveUserApiContractTest extends UserApiContractTest {
+}
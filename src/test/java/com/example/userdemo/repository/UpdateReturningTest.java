@@ -0,0 +1,28 @@
+package com.example.userdemo.repository;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpdateReturningTest {
+    private static final String UPDATE = "update USER_TABLE set version = version + 1 where id = :id";
+
+    @Test
+    void sqlPerDialectTest() {
+        assertThat(UpdateReturning.of(new PostgreSQLDialect()).sql(UPDATE, "id, version"))
+            .isEqualTo(UPDATE + " returning id, version");
+        assertThat(UpdateReturning.of(new H2Dialect()).sql(UPDATE, "id, version"))
+            .isEqualTo("select id, version from final table (" + UPDATE + ")");
+    }
+
+    @Test
+    void unknownDialectIsRejectedTest() {
+        assertThatThrownBy(() -> UpdateReturning.of(new MySQLDialect()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining(MySQLDialect.class.getName());
+    }
+}
@@ -0,0 +1,362 @@
+package com.example.userdemo.repository;
+
+import com.example.userdemo.ModelUtil;
+import com.example.userdemo.config.JpaConfig;
+import com.example.userdemo.dto.UserSummaryDto;
+import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.metrics.StatementCounter;
+import com.example.userdemo.model.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.example.userdemo.ModelUtil.getNewUser;
+import static com.example.userdemo.ModelUtil.getUpdatedUser;
+import static com.example.userdemo.ModelUtil.getUserUpdateDto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({JpaConfig.class, UserRepositoryTest.StatementCaptureConfig.class})
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 20; i++) {
+            User user = getNewUser();
+            user.setEmail("user" + i + "@example.com");
+            user.setDateOfBirth(LocalDate.of(1980 + i, 1, 1));
+            userRepository.save(user);
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void findByDateOfBirthBetweenTest() {
+        List<User> result = userRepository.findByDateOfBirthBetween(LocalDate.of(1985, 1, 1),
+            LocalDate.of(1989, 12, 31));
+
+        assertThat(result).hasSize(5)
+            .allMatch(user -> user.getDateOfBirth().getYear() >= 1985 && user.getDateOfBirth().getYear() <= 1989);
+    }
+
+    @Test
+    void findDetachedByDateOfBirthBetweenTest() {
+        entityManager.clear();
+
+        List<User> result = userRepository.findDetachedByDateOfBirthBetween(LocalDate.of(1985, 1, 1),
+            LocalDate.of(1989, 12, 31));
+
+        assertThat(result).hasSize(5)
+            .allMatch(user -> user.getDateOfBirth().getYear() >= 1985 && user.getDateOfBirth().getYear() <= 1989)
+            .allMatch(user -> user.getVersion() == 0L && user.getAddress().equals(getNewUser().getAddress()))
+            .noneMatch(entityManager::contains);
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void findAllDetachedTest() {
+        entityManager.clear();
+
+        List<User> result = userRepository.findAllDetached();
+
+        assertThat(result).hasSize(20)
+            .usingRecursiveFieldByFieldElementComparator()
+            .containsExactlyInAnyOrderElementsOf(userRepository.findAll());
+        assertThat(result).noneMatch(entityManager::contains);
+    }
+
+    @Test
+    void findSummariesByDateOfBirthBetweenTest() {
+        List<UserSummaryDto> result = userRepository.findSummariesByDateOfBirthBetween(LocalDate.of(1985, 1, 1),
+            LocalDate.of(1989, 12, 31));
+
+        assertThat(result).hasSize(5)
+            .allMatch(summary -> summary.getDateOfBirth().getYear() >= 1985
+                && summary.getDateOfBirth().getYear() <= 1989
+                && summary.getEmail().equals("user" + (summary.getDateOfBirth().getYear() - 1980) + "@example.com"));
+    }
+
+    @Test
+    void findAllSummariesTest() {
+        entityManager.clear();
+
+        List<UserSummaryDto> result = userRepository.findAllSummaries();
+
+        assertThat(result).hasSize(20).allMatch(summary -> summary.getId() != null);
+        assertThat(result).extracting(UserSummaryDto::getFirstName).containsOnly("Test_Name");
+        // Summaries are not entities, so nothing was loaded into the persistence context.
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @ParameterizedTest
+    @MethodSource("testUserUpdateDto")
+    void updatePartiallyTest(UserUpdateDto updateDto, User expected) {
+        Long id = userRepository.save(getNewUser()).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        User result = userRepository.updatePartially(id, null, updateDto);
+
+        expected.setId(id);
+        expected.setVersion(1L);
+        assertThat(result).isEqualTo(expected);
+        assertThat(entityManager.contains(result)).isFalse();
+        assertThat(userRepository.findById(id)).contains(expected);
+    }
+
+    @Test
+    void updatePartiallyNotExistingUserTest() {
+        assertThat(userRepository.updatePartially(100500L, null, getUserUpdateDto())).isNull();
+        assertThat(userRepository.updatePartially(100500L, null, new UserUpdateDto())).isNull();
+    }
+
+    @Test
+    void updatePartiallyWithoutChangesTest() {
+        User savedUser = userRepository.save(getNewUser());
+        entityManager.flush();
+
+        assertThat(userRepository.updatePartially(savedUser.getId(), null, new UserUpdateDto()))
+            .isEqualTo(savedUser);
+    }
+
+    @Test
+    void updateFullyTest() {
+        Long id = userRepository.save(getNewUser()).getId();
+        User updatedUser = getUpdatedUser();
+        entityManager.flush();
+        entityManager.clear();
+
+        Long version = userRepository.updateFullyReturningVersion(id, updatedUser);
+
+        updatedUser.setId(id);
+        updatedUser.setVersion(1L);
+        assertThat(version).isEqualTo(1L);
+        assertThat(userRepository.findById(id)).contains(updatedUser);
+        assertThat(userRepository.updateFullyReturningVersion(id, updatedUser)).isEqualTo(2L);
+    }
+
+    @Test
+    void updateFullyWithVersionTest() {
+        Long id = userRepository.save(getNewUser()).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(userRepository.updateFully(id, 1L, getUpdatedUser())).isZero();
+        assertThat(userRepository.updateFully(id, 0L, getUpdatedUser())).isEqualTo(1);
+        assertThat(userRepository.updateFully(id, 0L, getUpdatedUser())).isZero();
+    }
+
+    @Test
+    void updatePartiallyWithVersionTest() {
+        Long id = userRepository.save(getNewUser()).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(userRepository.updatePartially(id, 1L, getUserUpdateDto())).isNull();
+        assertThat(userRepository.updatePartially(id, 0L, getUserUpdateDto())).extracting(User::getVersion)
+            .isEqualTo(1L);
+        assertThat(userRepository.updatePartially(id, 0L, new UserUpdateDto())).isNull();
+        assertThat(userRepository.updatePartially(id, 1L, new UserUpdateDto())).extracting(User::getVersion)
+            .isEqualTo(1L);
+    }
+
+    @Test
+    void updateFullyNotExistingUserTest() {
+        assertThat(userRepository.updateFullyReturningVersion(100500L, getUpdatedUser())).isNull();
+    }
+
+    @Test
+    void deleteUserByIdTest() {
+        Long id = userRepository.save(getNewUser()).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(userRepository.deleteUserById(id)).isEqualTo(1);
+        assertThat(userRepository.deleteUserById(id)).isZero();
+        assertThat(userRepository.findById(id)).isEmpty();
+    }
+
+    @Test
+    void findExistingEmailsTest() {
+        List<String> result = userRepository.findExistingEmails(List.of("user1@example.com", "new@example.com"));
+
+        assertThat(result).containsExactly("user1@example.com");
+    }
+
+    @Test
+    void findDetachedByEmailTest() {
+        entityManager.clear();
+
+        assertThat(userRepository.findDetachedByEmail("user3@example.com"))
+            .hasValueSatisfying(user -> {
+                assertThat(user.getDateOfBirth()).isEqualTo(LocalDate.of(1983, 1, 1));
+                assertThat(entityManager.contains(user)).isFalse();
+            });
+        assertThat(userRepository.findDetachedByEmail("new@example.com")).isEmpty();
+    }
+
+    @Test
+    void existsByEmailTest() {
+        assertThat(userRepository.existsByEmail("user3@example.com")).isTrue();
+        assertThat(userRepository.existsByEmail("USER3@example.com")).isFalse();
+    }
+
+    @Test
+    void streamAllEmailsTest() {
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            assertThat(emails).hasSize(20).contains("user0@example.com", "user19@example.com");
+        }
+    }
+
+    @Test
+    void findByEmailUsesUniqueIndexTest() {
+        userRepository.findDetachedByEmail("user3@example.com");
+        String plan = explainLastStatement("user3@example.com");
+
+        assertThat(plan).containsIgnoringCase("CONSTRAINT_INDEX")
+            .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void findByDateOfBirthBetweenUsesIndexTest() {
+        LocalDate from = LocalDate.of(1985, 1, 1);
+        LocalDate to = LocalDate.of(1989, 12, 31);
+        userRepository.findDetachedByDateOfBirthBetween(from, to);
+        String plan = explainLastStatement(from, to);
+
+        assertThat(plan).containsIgnoringCase(User.DATE_OF_BIRTH_INDEX)
+            .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void summariesByDateOfBirthUseIndexTest() {
+        LocalDate from = LocalDate.of(1985, 1, 1);
+        LocalDate to = LocalDate.of(1989, 12, 31);
+        userRepository.findSummariesByDateOfBirthBetween(from, to);
+        String plan = explainLastStatement(from, to);
+
+        assertThat(plan).containsIgnoringCase(User.DATE_OF_BIRTH_INDEX)
+            .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void findByFilterTest() {
+        List<User> users = userRepository.findAll();
+        users.get(0).setLastName("O_Brien");
+        users.get(1).setLastName("Obama");
+        users.get(2).setPhoneNumber(null);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(userRepository.findByFilter(UserFilter.builder().lastNamePrefix("O_").build(), 10))
+            .extracting(User::getLastName).containsExactly("O_Brien");
+        assertThat(userRepository.findByFilter(UserFilter.builder().lastName("Obama").build(), 10))
+            .extracting(User::getId).containsExactly(users.get(1).getId());
+        assertThat(userRepository.findByFilter(UserFilter.builder().hasPhone(false).build(), 10))
+            .extracting(User::getId).containsExactly(users.get(2).getId());
+        assertThat(userRepository.findByFilter(UserFilter.builder().firstNamePrefix("Test")
+                .bornAfter(LocalDate.of(1984, 1, 1)).bornOnOrBefore(LocalDate.of(1987, 1, 1))
+                .hasAddress(true).build(), 10))
+            .extracting(user -> user.getDateOfBirth().getYear()).containsExactly(1985, 1986, 1987);
+        assertThat(userRepository.findByFilter(UserFilter.builder().hasAddress(false).build(), 10)).isEmpty();
+    }
+
+    @Test
+    void findByFilterKeysetPaginationTest() {
+        UserFilter.UserFilterBuilder filter = UserFilter.builder()
+            .sort(UserFilter.SortField.LAST_NAME)
+            .descending(true);
+
+        List<User> page = userRepository.findByFilter(filter.build(), 8);
+        User last = page.get(page.size() - 1);
+        List<User> next = userRepository.findByFilter(filter.afterValue(last.getLastName())
+            .afterId(last.getId()).build(), 20);
+
+        // All last names are equal, so the pages are ordered by ID, descending.
+        assertThat(page).hasSize(8).isSortedAccordingTo((a, b) -> Long.compare(b.getId(), a.getId()));
+        assertThat(next).hasSize(12).allMatch(user -> user.getId() < last.getId());
+    }
+
+    @Test
+    void lastNamePrefixFilterUsesIndexTest() {
+        userRepository.findByFilter(UserFilter.builder().lastNamePrefix("Test")
+            .sort(UserFilter.SortField.LAST_NAME).build(), 10);
+        String plan = explainLastStatement("Test%", 10);
+
+        assertThat(plan).containsIgnoringCase(User.LAST_NAME_INDEX)
+            .doesNotContainIgnoringCase("tableScan");
+    }
+
+    /**
+     * Explains the last statement Hibernate prepared, i.e. the SQL generated
+     * for the repository method called last, with the given parameters.
+     */
+    private String explainLastStatement(Object... parameters) {
+        String sql = statementCounter.last();
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+    /**
+     * Registers the statement counter of the metrics as the statement
+     * inspector, so the tests can explain the generated SQL.
+     */
+    @TestConfiguration
+    static class StatementCaptureConfig {
+        @Bean
+        StatementCounter statementCounter() {
+            return new StatementCounter();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+        }
+    }
+
+    private static Stream<Arguments> testUserUpdateDto() {
+        return Stream.of(
+            ModelUtil.getFullyUpdatedUser(),
+            ModelUtil.getUserWithUpdatedFirstName(),
+            ModelUtil.getUserWithUpdatedLastName(),
+            ModelUtil.getUserWithUpdatedEmail(),
+            ModelUtil.getUserWithUpdatedDateOfBirth(),
+            ModelUtil.getUserWithUpdatedAddress(),
+            ModelUtil.getUserUpdateDtoWithNewPhoneNumber());
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.userdemo.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LongLongHashMapTest {
+
+    @Test
+    void randomOperationsMatchHashMapTest() {
+        Random random = new Random(42);
+        LongLongHashMap map = new LongLongHashMap();
+        Map<Long, Long> expected = new HashMap<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            // Multiples of 1024 collide often in small tables.
+            long key = random.nextBoolean() ? random.nextInt(2000) : random.nextInt(500) * 1024L;
+            int operation = random.nextInt(3);
+            if (operation == 0) {
+                long value = random.nextLong(-1, Long.MAX_VALUE);
+                assertEquals(expected.getOrDefault(key, LongLongHashMap.NO_VALUE), map.put(key, value));
+                expected.put(key, value);
+            } else if (operation == 1) {
+                assertEquals(expected.getOrDefault(key, LongLongHashMap.NO_VALUE), map.remove(key));
+                expected.remove(key);
+            } else {
+                assertEquals(expected.getOrDefault(key, LongLongHashMap.NO_VALUE), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.userdemo.search;
+
+import com.example.userdemo.model.User;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserSearchIndexTest {
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        index = new UserSearchIndex(new ByteBuffersDirectory());
+        index.rebuild(Stream.of(
+            user(1L, "John", "Smith", "john.smith@example.com", "12 Baker St"),
+            user(2L, "Johnny", "Walker", "jw@example.com", "1 Main St"),
+            user(3L, "Jon", "Smyth", "jon@example.com", null),
+            user(4L, "Anna", "Kowalski", "anna@example.com", "5 Johnson Ave")));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Test
+    void exactMatchesRankAbovePrefixAndFuzzyMatchesTest() {
+        List<Long> ids = index.search("john", 0, 10).ids();
+        assertEquals(4, ids.size());
+        assertEquals(1L, ids.get(0));
+        assertEquals(3L, ids.get(3));
+        assertEquals(List.of(1L, 3L), index.search("smith", 0, 10).ids());
+        assertEquals(List.of(3L, 1L), index.search("smyth", 0, 10).ids());
+    }
+
+    @Test
+    void fuzzyMatchesTest() {
+        assertEquals(List.of(1L), index.search("smitth", 0, 10).ids());
+        assertEquals(List.of(4L), index.search("kowalsky", 0, 10).ids());
+        // Short words are not matched fuzzily.
+        assertEquals(List.of(), index.search("jxn", 0, 10).ids());
+    }
+
+    @Test
+    void everyWordMustMatchAcrossFieldsTest() {
+        assertEquals(List.of(1L), index.search("John Baker", 0, 10).ids());
+        assertEquals(List.of(4L), index.search("anna johnson", 0, 10).ids());
+        assertEquals(List.of(), index.search("smith kowalski", 0, 10).ids());
+    }
+
+    @Test
+    void paginationTest() {
+        UserSearchIndex.SearchResult first = index.search("jo", 0, 3);
+        UserSearchIndex.SearchResult second = index.search("jo", 3, 3);
+
+        assertEquals(3, first.ids().size());
+        assertTrue(first.hasMore());
+        assertEquals(1, second.ids().size());
+        assertFalse(second.hasMore());
+        assertFalse(first.ids().contains(second.ids().get(0)));
+    }
+
+    @Test
+    void writesAreVisibleToNextSearchTest() {
+        index.put(user(5L, "Zelda", "Hyrule", "zelda@example.com", null));
+        assertEquals(List.of(5L), index.search("zelda", 0, 10).ids());
+
+        index.put(user(5L, "Link", "Hyrule", "link@example.com", null));
+        assertEquals(List.of(), index.search("zelda", 0, 10).ids());
+        assertEquals(List.of(5L), index.search("link", 0, 10).ids());
+
+        index.remove(5L);
+        assertEquals(List.of(), index.search("hyrule", 0, 10).ids());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void outOfOrderWritesKeepNewestVersionTest() {
+        User current = user(5L, "Zelda", "Hyrule", "zelda@example.com", null);
+        current.setVersion(2L);
+        User stale = user(5L, "Link", "Hyrule", "link@example.com", null);
+        stale.setVersion(1L);
+        index.put(current);
+        index.put(stale);
+
+        assertEquals(List.of(5L), index.search("zelda", 0, 10).ids());
+        assertEquals(List.of(), index.search("link", 0, 10).ids());
+    }
+
+    @Test
+    void writeAfterRemoveIsIgnoredTest() {
+        User user = user(5L, "Zelda", "Hyrule", "zelda@example.com", null);
+        user.setVersion(1L);
+        index.put(user);
+
+        // An update committed before the delete, but indexed after it.
+        User delayed = user(5L, "Link", "Hyrule", "link@example.com", null);
+        delayed.setVersion(2L);
+        index.remove(5L);
+        index.put(delayed);
+
+        assertEquals(List.of(), index.search("hyrule", 0, 10).ids());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void invalidSearchesTest() {
+        assertThrows(IllegalArgumentException.class, () -> index.search(" !? ", 0, 10));
+        assertThrows(IllegalArgumentException.class,
+            () -> index.search("john", UserSearchIndex.MAX_RESULTS, 1));
+    }
+
+    @Test
+    void fileIndexTest(@TempDir Path directory) throws IOException {
+        try (UserSearchIndex fileIndex = new UserSearchIndex(FSDirectory.open(directory))) {
+            fileIndex.rebuild(Stream.of(user(1L, "John", "Smith", "john@example.com", null)));
+            fileIndex.put(user(2L, "Jane", "Smith", "jane@example.com", null));
+
+            assertEquals(List.of(1L, 2L), sorted(fileIndex.search("smith", 0, 10).ids()));
+        }
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        return ids.stream().sorted().toList();
+    }
+
+    @Test
+    void searchSeesWritesReturnedBeforeItTest() throws InterruptedException {
+        int threads = 4;
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < 200 && failure.get() == null; i++) {
+                    long id = 100 + i * threads + thread;
+                    String name = "w" + id + "x";
+                    index.put(user(id, name, "Writer", name + "@example.com", null));
+                    if (!index.search(name, 0, 10).ids().contains(id)) {
+                        failure.set("Search missed the write of user " + id);
+                    }
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        assertNull(failure.get());
+    }
+
+    private static User user(Long id, String firstName, String lastName, String email, String address) {
+        return User.builder()
+            .id(id)
+            .firstName(firstName)
+            .lastName(lastName)
+            .email(email)
+            .dateOfBirth(LocalDate.of(1990, 1, 1))
+            .address(address)
+            .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.userdemo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CurrentDateProviderTest {
+    private static final ZoneId ZONE = ZoneId.of("Europe/Kyiv");
+
+    @Test
+    void todayIsCachedForTheDayTest() {
+        MutableClock clock = new MutableClock(LocalDateTime.of(2024, 2, 28, 0, 0));
+        CurrentDateProvider currentDateProvider = new CurrentDateProvider(clock);
+
+        LocalDate today = currentDateProvider.today();
+        clock.advance(Duration.ofHours(23).plusMinutes(59));
+
+        assertEquals(LocalDate.of(2024, 2, 28), today);
+        assertSame(today, currentDateProvider.today());
+    }
+
+    @Test
+    void todayIsRefreshedAtMidnightTest() {
+        MutableClock clock = new MutableClock(LocalDateTime.of(2024, 2, 28, 23, 59, 59));
+        CurrentDateProvider currentDateProvider = new CurrentDateProvider(clock);
+
+        assertEquals(LocalDate.of(2024, 2, 28), currentDateProvider.today());
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals(LocalDate.of(2024, 2, 29), currentDateProvider.today());
+        clock.advance(Duration.ofDays(1));
+        assertEquals(LocalDate.of(2024, 3, 1), currentDateProvider.today());
+    }
+
+    @Test
+    void todayFollowsClockMovedBackwardsTest() {
+        MutableClock clock = new MutableClock(LocalDateTime.of(2024, 3, 1, 0, 0));
+        CurrentDateProvider currentDateProvider = new CurrentDateProvider(clock);
+
+        assertEquals(LocalDate.of(2024, 3, 1), currentDateProvider.today());
+        clock.advance(Duration.ofSeconds(-1));
+        assertEquals(LocalDate.of(2024, 2, 29), currentDateProvider.today());
+    }
+
+    @Test
+    void todayUsesZoneOfClockTest() {
+        Instant instant = Instant.parse("2024-02-28T23:00:00Z");
+
+        assertEquals(LocalDate.of(2024, 2, 29), new CurrentDateProvider(Clock.fixed(instant, ZONE)).today());
+        assertEquals(LocalDate.of(2024, 2, 28),
+            new CurrentDateProvider(Clock.fixed(instant, ZoneId.of("UTC"))).today());
+    }
+
+    @Test
+    void todayIsRefreshedAtMidnightAfterDaylightSavingTimeChangeTest() {
+        MutableClock clock = new MutableClock(LocalDateTime.of(2024, 3, 31, 0, 0));
+        CurrentDateProvider currentDateProvider = new CurrentDateProvider(clock);
+
+        assertEquals(LocalDate.of(2024, 3, 31), currentDateProvider.today());
+        clock.advance(Duration.ofHours(22).plusMinutes(59));
+        assertEquals(LocalDate.of(2024, 3, 31), currentDateProvider.today());
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(LocalDate.of(2024, 4, 1), currentDateProvider.today());
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(LocalDateTime dateTime) {
+            this.instant = dateTime.atZone(ZONE).toInstant();
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
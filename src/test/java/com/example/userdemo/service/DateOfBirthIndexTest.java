@@ -0,0 +1,253 @@
+package com.example.userdemo.service;
+
+import com.example.userdemo.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.example.userdemo.ModelUtil.getSavedUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DateOfBirthIndexTest {
+    private static final LocalDate MIN_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(2100, 1, 1);
+
+    @Test
+    void rangeIsOrderedByDateOfBirthAndIdTest() {
+        DateOfBirthIndex index = new DateOfBirthIndex();
+        index.load(List.of(user(3L, "1990-01-02"), user(1L, "1990-01-02"), user(2L, "1980-05-05"),
+            user(4L, "2000-01-01")));
+
+        assertEquals(List.of(2L, 1L, 3L), ids(index.findByDateOfBirthBetween(LocalDate.of(1980, 5, 5),
+            LocalDate.of(1990, 1, 2))));
+        assertEquals(List.of(1L, 3L), ids(index.findByDateOfBirthBetween(LocalDate.of(1990, 1, 2),
+            LocalDate.of(1990, 1, 2))));
+        assertEquals(List.of(), ids(index.findByDateOfBirthBetween(LocalDate.of(1990, 1, 3),
+            LocalDate.of(1999, 12, 31))));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void updateMovesUserBetweenSegmentsTest() {
+        DateOfBirthIndex index = new DateOfBirthIndex();
+        index.load(List.of(user(1L, "1990-01-01")));
+
+        User moved = user(1L, "1950-06-01");
+        moved.setVersion(1L);
+        index.put(moved);
+
+        assertEquals(List.of(), index.findByDateOfBirthBetween(LocalDate.of(1990, 1, 1), LocalDate.of(1990, 1, 1)));
+        assertEquals(List.of(moved), index.findByDateOfBirthBetween(MIN_DATE, MAX_DATE));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void olderVersionIsIgnoredTest() {
+        DateOfBirthIndex index = new DateOfBirthIndex();
+        User current = user(1L, "1990-01-01");
+        current.setVersion(2L);
+        index.put(current);
+
+        User stale = user(1L, "1970-01-01");
+        stale.setVersion(1L);
+        index.put(stale);
+
+        assertEquals(List.of(current), index.findByDateOfBirthBetween(MIN_DATE, MAX_DATE));
+    }
+
+    @Test
+    void writeAfterRemoveIsIgnoredTest() {
+        DateOfBirthIndex index = new DateOfBirthIndex();
+        User user = user(1L, "1990-01-01");
+        user.setVersion(1L);
+        index.put(user);
+
+        // An update committed before the delete, but indexed after it.
+        User delayed = user(1L, "1970-01-01");
+        delayed.setVersion(2L);
+        index.remove(1L);
+        index.put(delayed);
+
+        assertEquals(List.of(), index.findByDateOfBirthBetween(MIN_DATE, MAX_DATE));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void tombstonesExpireTest() {
+        AtomicLong nanoTime = new AtomicLong();
+        DateOfBirthIndex index = new DateOfBirthIndex(new Tombstones(Duration.ofSeconds(1), nanoTime::get));
+        index.put(user(1L, "1990-01-01"));
+        index.remove(1L);
+        long removed = index.memoryBytes();
+
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+        index.remove(2L);
+
+        // Only the tombstone of the second removal is left.
+        assertEquals(removed, index.memoryBytes());
+        index.put(user(1L, "1990-01-01"));
+        index.put(user(2L, "1990-01-01"));
+        assertEquals(List.of(1L), ids(index.findByDateOfBirthBetween(MIN_DATE, MAX_DATE)));
+    }
+
+    @Test
+    void segmentTableIsSparseTest() {
+        DateOfBirthIndex index = new DateOfBirthIndex();
+        index.put(user(1L, "1990-01-01"));
+        long one = index.memoryBytes();
+        User ancient = user(2L, "1990-01-01");
+        ancient.setDateOfBirth(LocalDate.MIN);
+        index.put(ancient);
+
+        // A second segment, not a table spanning all segments in between.
+        assertTrue(index.memoryBytes() < 2 * one + 64);
+        index.remove(2L);
+        assertEquals(List.of(1L), ids(index.findByDateOfBirthBetween(LocalDate.MIN, LocalDate.MAX)));
+    }
+
+    @Test
+    void datesBeyondIntEpochDaysTest() {
+        DateOfBirthIndex index = new DateOfBirthIndex();
+        User ancient = user(1L, "1990-01-01");
+        ancient.setDateOfBirth(LocalDate.of(-9_999_999, 1, 1));
+        User older = user(2L, "1990-01-01");
+        older.setDateOfBirth(LocalDate.MIN);
+        index.load(List.of(ancient, older, user(3L, "1990-01-01")));
+
+        assertEquals(List.of(1L, 2L, 3L), ids(index.findByDateOfBirthBetween(LocalDate.MIN, LocalDate.MAX)));
+        assertEquals(List.of(1L), ids(index.findByDateOfBirthBetween(LocalDate.of(-9_999_999, 1, 1),
+            LocalDate.of(-9_999_999, 12, 31))));
+        assertEquals(List.of(3L), ids(index.findByDateOfBirthBetween(MIN_DATE, LocalDate.MAX)));
+    }
+
+    @Test
+    void removeAndReturnedCopiesTest() {
+        DateOfBirthIndex index = new DateOfBirthIndex();
+        User user = user(1L, "1990-01-01");
+        index.put(user);
+        index.put(user(2L, "1990-01-01"));
+
+        User found = index.findByDateOfBirthBetween(MIN_DATE, MAX_DATE).get(0);
+        assertEquals(user, found);
+        assertNotSame(user, found);
+        found.setFirstName("Changed");
+        index.remove(1L);
+        index.remove(3L);
+
+        assertEquals(List.of(2L), ids(index.findByDateOfBirthBetween(MIN_DATE, MAX_DATE)));
+        index.remove(2L);
+        assertEquals(0, index.size());
+        assertEquals(List.of(), index.findByDateOfBirthBetween(MIN_DATE, MAX_DATE));
+    }
+
+    @Test
+    void memoryFootprintGrowsWithUsersTest() {
+        DateOfBirthIndex index = new DateOfBirthIndex();
+        long empty = index.memoryBytes();
+        index.load(randomUsers(new Random(1), 1000));
+        long loaded = index.memoryBytes();
+
+        assertTrue(loaded > empty + 1000 * 200L);
+        index.put(user(5000L, "1990-01-01"));
+        assertTrue(index.memoryBytes() > loaded);
+    }
+
+    @Test
+    void randomWritesMatchSortedListTest() {
+        Random random = new Random(42);
+        DateOfBirthIndex index = new DateOfBirthIndex();
+        List<User> expected = new ArrayList<>(randomUsers(random, 500));
+        Set<Long> removed = new HashSet<>();
+        index.load(expected);
+
+        for (int i = 0; i < 5000; i++) {
+            long id = random.nextInt(700);
+            if (random.nextInt(20) == 0) {
+                expected.removeIf(user -> user.getId() == id);
+                removed.add(id);
+                index.remove(id);
+            } else {
+                User user = user(id, randomDate(random).toString());
+                if (!removed.contains(id)) {
+                    expected.removeIf(indexed -> indexed.getId() == id);
+                    expected.add(user);
+                }
+                index.put(user);
+            }
+            LocalDate from = randomDate(random);
+            LocalDate to = from.plusDays(random.nextInt(3000));
+            assertEquals(ids(expected.stream()
+                    .filter(user -> !user.getDateOfBirth().isBefore(from) && !user.getDateOfBirth().isAfter(to))
+                    .sorted(Comparator.comparing(User::getDateOfBirth).thenComparing(User::getId))
+                    .toList()),
+                ids(index.findByDateOfBirthBetween(from, to)));
+        }
+        assertEquals(expected.size(), index.size());
+    }
+
+    @Test
+    void readersSeeEveryMoveAtomicallyTest() throws InterruptedException {
+        DateOfBirthIndex index = new DateOfBirthIndex();
+        int users = 200;
+        index.load(randomUsers(new Random(7), users));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread writer = new Thread(() -> {
+            Random random = new Random(8);
+            while (running.get()) {
+                index.put(user(random.nextInt(users), randomDate(random).toString()));
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 2000 && failure.get() == null; i++) {
+                List<User> all = index.findByDateOfBirthBetween(MIN_DATE, MAX_DATE);
+                Set<Long> ids = new HashSet<>(ids(all));
+                if (all.size() != users || ids.size() != users) {
+                    failure.set("Read " + all.size() + " users with " + ids.size() + " distinct IDs");
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+        assertNull(failure.get());
+    }
+
+    private static List<User> randomUsers(Random random, int size) {
+        List<User> users = new ArrayList<>(size);
+        for (long id = 0; id < size; id++) {
+            users.add(user(id, randomDate(random).toString()));
+        }
+        return users;
+    }
+
+    private static LocalDate randomDate(Random random) {
+        return LocalDate.of(1920, 1, 1).plusDays(random.nextInt(30_000));
+    }
+
+    private static User user(long id, String dateOfBirth) {
+        User user = getSavedUser();
+        user.setId(id);
+        user.setDateOfBirth(LocalDate.parse(dateOfBirth));
+        return user;
+    }
+
+    private static List<Long> ids(List<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.userdemo.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailBloomFilterTest {
+
+    @Test
+    void addedEmailsAreAlwaysFoundTest() {
+        EmailBloomFilter emailFilter = new EmailBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            emailFilter.add("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(emailFilter.mightContain("user" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    void falsePositiveRateIsNearTheConfiguredRateTest() {
+        EmailBloomFilter emailFilter = new EmailBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            emailFilter.add("user" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (emailFilter.mightContain("other" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2000, "False positives: " + falsePositives);
+    }
+
+    @Test
+    void emailsAreNormalizedTest() {
+        EmailBloomFilter emailFilter = new EmailBloomFilter(100, 0.01);
+
+        emailFilter.add(" John.Doe@Example.COM ");
+
+        assertTrue(emailFilter.mightContain("john.doe@example.com"));
+        assertFalse(new EmailBloomFilter(100, 0.01).mightContain("john.doe@example.com"));
+    }
+
+    @Test
+    void invalidSizingIsRejectedTest() {
+        assertThrows(IllegalArgumentException.class, () -> new EmailBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new EmailBloomFilter(100, 1));
+    }
+}
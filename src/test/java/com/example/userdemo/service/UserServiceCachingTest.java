@@ -0,0 +1,87 @@
+package com.example.userdemo.service;
+
+import com.example.userdemo.model.User;
+import com.example.userdemo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.Optional;
+
+import static com.example.userdemo.ModelUtil.getSavedUser;
+import static com.example.userdemo.ModelUtil.getUpdatedUser;
+import static com.example.userdemo.config.CachingConfig.USERS_CACHE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+
+@SpringBootTest
+class UserServiceCachingTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(USERS_CACHE).clear();
+    }
+
+    @Test
+    void getByIdIsCachedTest() {
+        long id = 1L;
+        User savedUser = getSavedUser();
+
+        when(userRepository.findById(id)).thenReturn(Optional.of(savedUser));
+
+        userService.getById(id);
+        var result = userService.getById(id);
+
+        verify(userRepository, times(1)).findById(id);
+        assertEquals(savedUser, result);
+    }
+
+    @Test
+    void updateRefreshesCachedUserTest() {
+        long id = 1L;
+        User updatedUser = getUpdatedUser();
+        updatedUser.setId(id);
+        updatedUser.setVersion(1L);
+
+        when(userRepository.findById(id)).thenReturn(Optional.of(getSavedUser()));
+        when(userRepository.updateFullyReturningVersion(eq(id), any(User.class))).thenReturn(1L);
+
+        userService.getById(id);
+        userService.update(id, getUpdatedUser(), null);
+        var result = userService.getById(id);
+
+        verify(userRepository, times(1)).findById(id);
+        assertEquals(updatedUser, result);
+    }
+
+    @Test
+    void deleteEvictsCachedUserTest() {
+        long id = 1L;
+        User savedUser = getSavedUser();
+
+        when(userRepository.findById(id)).thenReturn(Optional.of(savedUser));
+        when(userRepository.deleteUserById(id)).thenReturn(1);
+
+        userService.getById(id);
+        userService.delete(id);
+        userService.getById(id);
+
+        verify(userRepository, times(2)).findById(id);
+    }
+}
@@ -2,31 +2,56 @@ package com.example.userdemo.service;
 
 import com.example.userdemo.ModelUtil;
 import com.example.userdemo.constatnt.ErrorMessages;
+import com.example.userdemo.dto.UserBatchResultDto;
+import com.example.userdemo.dto.UserFilterDto;
+import com.example.userdemo.dto.UserPageDto;
+import com.example.userdemo.dto.UserSummaryDto;
 import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.exception.ConflictException;
 import com.example.userdemo.exception.NotFoundException;
+import com.example.userdemo.exception.PreconditionFailedException;
 import com.example.userdemo.model.User;
+import com.example.userdemo.repository.UserFilter;
 import com.example.userdemo.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Path;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static com.example.userdemo.ModelUtil.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceImplTest {
@@ -37,6 +62,19 @@ class UserServiceImplTest {
     @Mock
     UserRepository userRepository;
 
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    Validator validator;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userService, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(userService, "maxPageSize", 10);
+        ReflectionTestUtils.setField(userService, "maxBatchSize", 10);
+    }
+
     @Test
     void createTest() {
         User newUser = getNewUser();
@@ -50,21 +88,110 @@ class UserServiceImplTest {
         assertEquals(savedUser, result);
     }
 
+    @Test
+    void createWithNewEmailSkipsLookupTest() {
+        EmailBloomFilter emailFilter = new EmailBloomFilter(100, 0.01);
+        ReflectionTestUtils.setField(userService, "emailFilter", emailFilter);
+        User newUser = getNewUser();
+        User savedUser = getSavedUser();
+
+        when(userRepository.save(newUser)).thenReturn(savedUser);
+
+        var result = userService.create(newUser);
+
+        verify(userRepository, never()).existsByEmail(any());
+        assertEquals(savedUser, result);
+        assertTrue(emailFilter.mightContain(newUser.getEmail()));
+    }
+
+    @Test
+    void createWithExistingEmailThrowsExceptionTest() {
+        EmailBloomFilter emailFilter = new EmailBloomFilter(100, 0.01);
+        ReflectionTestUtils.setField(userService, "emailFilter", emailFilter);
+        User newUser = getNewUser();
+        emailFilter.add(newUser.getEmail().toUpperCase());
+
+        when(userRepository.existsByEmail(newUser.getEmail())).thenReturn(true);
+
+        ConflictException result = assertThrows(ConflictException.class, () -> userService.create(newUser));
+
+        verify(userRepository, never()).save(any());
+        assertEquals(ErrorMessages.EMAIL_ALREADY_EXISTS + newUser.getEmail(), result.getMessage());
+    }
+
+    @Test
+    void createWithFalsePositiveEmailTest() {
+        EmailBloomFilter emailFilter = new EmailBloomFilter(100, 0.01);
+        ReflectionTestUtils.setField(userService, "emailFilter", emailFilter);
+        User newUser = getNewUser();
+        User savedUser = getSavedUser();
+        emailFilter.add(newUser.getEmail());
+
+        when(userRepository.existsByEmail(newUser.getEmail())).thenReturn(false);
+        when(userRepository.save(newUser)).thenReturn(savedUser);
+
+        assertEquals(savedUser, userService.create(newUser));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createAllTest() {
+        User validUser = getNewUser();
+        User invalidUser = getInvalidUser();
+        User duplicateInBatch = getNewUser();
+        User existingUser = getUpdatedUser();
+        ConstraintViolation<User> violation = mock(ConstraintViolation.class);
+        Path path = mock(Path.class);
+
+        when(path.toString()).thenReturn("email");
+        when(violation.getPropertyPath()).thenReturn(path);
+        when(violation.getMessage()).thenReturn("must be valid");
+        when(validator.validate(any(User.class))).thenReturn(Set.of());
+        when(validator.validate(invalidUser)).thenReturn(Set.of(violation));
+        when(userRepository.findExistingEmails(List.of(validUser.getEmail(), existingUser.getEmail())))
+            .thenReturn(List.of(existingUser.getEmail()));
+        when(userRepository.saveAll(List.of(validUser))).thenAnswer(invocation -> {
+            validUser.setId(1L);
+            return List.of(validUser);
+        });
+
+        var result = userService.createAll(List.of(validUser, invalidUser, duplicateInBatch, existingUser));
+
+        assertEquals(List.of(
+            new UserBatchResultDto(0, UserBatchResultDto.Status.CREATED, 1L, List.of()),
+            new UserBatchResultDto(1, UserBatchResultDto.Status.INVALID, null, List.of("email - must be valid")),
+            new UserBatchResultDto(2, UserBatchResultDto.Status.CONFLICT, null, List.of(ErrorMessages.DUPLICATE_EMAIL)),
+            new UserBatchResultDto(3, UserBatchResultDto.Status.CONFLICT, null, List.of(ErrorMessages.DUPLICATE_EMAIL))),
+            result);
+        verify(userRepository).saveAll(List.of(validUser));
+    }
+
+    @Test
+    void createAllTooLargeBatchThrowsExceptionTest() {
+        List<User> users = getSavedUsers(11);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> userService.createAll(users));
+
+        verify(userRepository, never()).saveAll(any());
+        assertEquals(ErrorMessages.WRONG_BATCH_SIZE + 10, exception.getMessage());
+    }
+
     @Test
     void fullUpdateTest() {
         long id = 1L;
         User updatedUser = getUpdatedUser();
-        User savedUser = getSavedUser();
         User expected = getUpdatedUser();
-        expected.setId(savedUser.getId());
+        expected.setId(id);
+        expected.setVersion(3L);
 
-        when(userRepository.findById(id)).thenReturn(Optional.of(savedUser));
-        when(userRepository.save(expected)).thenReturn(expected);
+        when(userRepository.updateFullyReturningVersion(id, updatedUser)).thenReturn(3L);
 
-        var result = userService.update(id, updatedUser);
+        var result = userService.update(id, updatedUser, null);
 
-        verify(userRepository).findById(id);
-        verify(userRepository).save(expected);
+        verify(userRepository).updateFullyReturningVersion(id, updatedUser);
+        verify(userRepository, never()).findById(id);
+        verify(userRepository, never()).save(any(User.class));
         assertEquals(expected, result);
     }
 
@@ -73,24 +200,77 @@ class UserServiceImplTest {
         long id = 100500L;
         User updatedUser = getUpdatedUser();
 
-        when(userRepository.findById(id)).thenReturn(Optional.empty());
+        when(userRepository.updateFullyReturningVersion(id, updatedUser)).thenReturn(null);
 
-        var result = assertThrows(NotFoundException.class, () -> userService.update(id, updatedUser));
+        var result = assertThrows(NotFoundException.class, () -> userService.update(id, updatedUser, null));
 
-        verify(userRepository).findById(id);
+        verify(userRepository).updateFullyReturningVersion(id, updatedUser);
         verify(userRepository, never()).save(any(User.class));
         assertEquals(ErrorMessages.USER_NOT_FOUND_BY_ID + id, result.getMessage());
     }
 
+    @Test
+    void fullUpdateWithVersionTest() {
+        long id = 1L;
+        User updatedUser = getUpdatedUser();
+
+        when(userRepository.updateFully(id, 2L, updatedUser)).thenReturn(1);
+
+        var result = userService.update(id, updatedUser, 2L);
+
+        verify(userRepository, never()).updateFullyReturningVersion(id, updatedUser);
+        assertEquals(3L, result.getVersion());
+    }
+
+    @Test
+    void fullUpdateWithStaleVersionThrowsExceptionTest() {
+        long id = 1L;
+        User updatedUser = getUpdatedUser();
+
+        when(userRepository.updateFully(id, 2L, updatedUser)).thenReturn(0);
+        when(userRepository.existsById(id)).thenReturn(true);
+
+        var result = assertThrows(PreconditionFailedException.class, () -> userService.update(id, updatedUser, 2L));
+
+        assertEquals(ErrorMessages.USER_VERSION_MISMATCH + id, result.getMessage());
+    }
+
+    @Test
+    void fullUpdateWithVersionNotExistingUserThrowsExceptionTest() {
+        long id = 100500L;
+        User updatedUser = getUpdatedUser();
+
+        when(userRepository.updateFully(id, 2L, updatedUser)).thenReturn(0);
+        when(userRepository.existsById(id)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> userService.update(id, updatedUser, 2L));
+    }
+
+    @Test
+    void partialUpdateWithStaleVersionThrowsExceptionTest() {
+        long id = 1L;
+        UserUpdateDto updatedUser = getUserUpdateDto();
+
+        when(userRepository.updatePartially(id, 2L, updatedUser)).thenReturn(null);
+        when(userRepository.existsById(id)).thenReturn(true);
+
+        var result = assertThrows(PreconditionFailedException.class, () -> userService.update(id, updatedUser, 2L));
+
+        verify(userRepository, never()).findById(id);
+        assertEquals(ErrorMessages.USER_VERSION_MISMATCH + id, result.getMessage());
+    }
+
     @ParameterizedTest
     @MethodSource("testUserUpdateDto")
     void partialUpdateTest(UserUpdateDto updateDto, User expected) {
         long id = 1L;
 
-        when(userRepository.findById(id)).thenReturn(Optional.of(getSavedUser()));
+        when(userRepository.updatePartially(id, null, updateDto)).thenReturn(expected);
 
-        var result = userService.update(id, updateDto);
+        var result = userService.update(id, updateDto, null);
 
+        verify(userRepository).updatePartially(id, null, updateDto);
+        verify(userRepository, never()).findById(id);
         assertEquals(expected, result);
     }
 
@@ -99,37 +279,144 @@ class UserServiceImplTest {
         long id = 100500L;
         UserUpdateDto updatedUser = getUserUpdateDto();
 
-        when(userRepository.findById(id)).thenReturn(Optional.empty());
+        when(userRepository.updatePartially(id, null, updatedUser)).thenReturn(null);
 
-        var result = assertThrows(NotFoundException.class, () -> userService.update(id, updatedUser));
+        var result = assertThrows(NotFoundException.class, () -> userService.update(id, updatedUser, null));
 
-        verify(userRepository).findById(id);
+        verify(userRepository, never()).findById(id);
         assertEquals(ErrorMessages.USER_NOT_FOUND_BY_ID + id, result.getMessage());
     }
 
     @Test
     void deleteTest() {
         long id = 1L;
-        User savedUser = getSavedUser();
 
-        when(userRepository.findById(id)).thenReturn(Optional.of(savedUser));
+        when(userRepository.deleteUserById(id)).thenReturn(1);
 
         userService.delete(id);
 
-        verify(userRepository).findById(id);
-        verify(userRepository).delete(savedUser);
+        verify(userRepository).deleteUserById(id);
+        verify(userRepository, never()).findById(id);
     }
 
     @Test
     void deleteNotExistingUserThrowsExceptionTest() {
         long id = 1L;
 
-        when(userRepository.findById(id)).thenReturn(Optional.empty());
+        when(userRepository.deleteUserById(id)).thenReturn(0);
 
         NotFoundException result = assertThrows(NotFoundException.class, () -> userService.delete(id));
 
+        verify(userRepository).deleteUserById(id);
+        assertEquals(ErrorMessages.USER_NOT_FOUND_BY_ID + id, result.getMessage());
+    }
+
+    @Test
+    void getByIdTest() {
+        long id = 1L;
+        User savedUser = getSavedUser();
+
+        when(userRepository.findById(id)).thenReturn(Optional.of(savedUser));
+
+        var result = userService.getById(id);
+
         verify(userRepository).findById(id);
-        verify(userRepository, never()).delete(any(User.class));
+        assertEquals(savedUser, result);
+    }
+
+    @Test
+    void getByEmailTest() {
+        User savedUser = getSavedUser();
+
+        when(userRepository.findDetachedByEmail(savedUser.getEmail())).thenReturn(Optional.of(savedUser));
+
+        assertEquals(savedUser, userService.getByEmail(savedUser.getEmail()));
+    }
+
+    @Test
+    void filterTranslatesAgesAndPagesByKeysetTest() {
+        ReflectionTestUtils.setField(userService, "currentDateProvider", new CurrentDateProvider(
+            Clock.fixed(LocalDate.of(2024, 3, 1).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC)));
+        User first = getSavedUser();
+        User second = getSavedUser();
+        second.setId(7L);
+        second.setDateOfBirth(LocalDate.of(1991, 5, 5));
+        UserFilterDto filter = UserFilterDto.builder()
+            .lastNameStartsWith("Test")
+            .firstName(" ")
+            .minAge(18)
+            .maxAge(40)
+            .hasPhone(true)
+            .sort("dateOfBirth,desc")
+            .build();
+        ArgumentCaptor<UserFilter> captor = ArgumentCaptor.forClass(UserFilter.class);
+        when(userRepository.findByFilter(captor.capture(), eq(3))).thenReturn(List.of(first, second, first));
+
+        UserPageDto page = userService.filter(filter, null, null);
+
+        UserFilter userFilter = captor.getValue();
+        assertNull(userFilter.firstName());
+        assertEquals("Test", userFilter.lastNamePrefix());
+        assertEquals(LocalDate.of(2006, 3, 1), userFilter.bornOnOrBefore());
+        assertEquals(LocalDate.of(1983, 3, 1), userFilter.bornAfter());
+        assertEquals(UserFilter.SortField.DATE_OF_BIRTH, userFilter.sort());
+        assertTrue(userFilter.descending());
+        assertEquals(List.of(first, second), page.getUsers());
+        assertNotNull(page.getNextPageToken());
+
+        when(userRepository.findByFilter(captor.capture(), eq(3))).thenReturn(List.of());
+        userService.filter(filter, page.getNextPageToken(), null);
+
+        assertEquals(7L, captor.getValue().afterId());
+        assertEquals(LocalDate.of(1991, 5, 5), captor.getValue().afterValue());
+        assertThrows(IllegalArgumentException.class, () -> userService.filter(
+            UserFilterDto.builder().sort("dateOfBirth").build(), page.getNextPageToken(), null));
+    }
+
+    @Test
+    void filterRejectsInvalidFiltersTest() {
+        List<UserFilterDto> filters = List.of(
+            UserFilterDto.builder().sort("phoneNumber").build(),
+            UserFilterDto.builder().sort("lastName,up").build(),
+            UserFilterDto.builder().minAge(30).maxAge(20).build(),
+            UserFilterDto.builder().maxAge(-1).build(),
+            UserFilterDto.builder().maxAge(Integer.MAX_VALUE).build(),
+            UserFilterDto.builder().minAge(2_000_000_000).build(),
+            UserFilterDto.builder().firstName("John").firstNameStartsWith("Jo").build());
+
+        for (UserFilterDto filter : filters) {
+            assertThrows(IllegalArgumentException.class, () -> userService.filter(filter, null, null));
+        }
+        verify(userRepository, never()).findByFilter(any(), any(Integer.class));
+    }
+
+    @Test
+    void searchWithoutIndexThrowsExceptionTest() {
+        NotFoundException result = assertThrows(NotFoundException.class,
+            () -> userService.search("test", null, null));
+
+        assertEquals(ErrorMessages.SEARCH_DISABLED, result.getMessage());
+    }
+
+    @Test
+    void getByEmailNotExistingUserThrowsExceptionTest() {
+        String email = "missing@example.com";
+
+        when(userRepository.findDetachedByEmail(email)).thenReturn(Optional.empty());
+
+        NotFoundException result = assertThrows(NotFoundException.class, () -> userService.getByEmail(email));
+
+        assertEquals(ErrorMessages.USER_NOT_FOUND_BY_EMAIL + email, result.getMessage());
+    }
+
+    @Test
+    void getByIdNotExistingUserThrowsExceptionTest() {
+        long id = 100500L;
+
+        when(userRepository.findById(id)).thenReturn(Optional.empty());
+
+        NotFoundException result = assertThrows(NotFoundException.class, () -> userService.getById(id));
+
         assertEquals(ErrorMessages.USER_NOT_FOUND_BY_ID + id, result.getMessage());
     }
 
@@ -139,11 +426,11 @@ class UserServiceImplTest {
         LocalDate to = LocalDate.of(2023, 12, 31);
         List<User> savedUsers = List.of(getSavedUser(), getSavedUser());
 
-        when(userRepository.findByDateOfBirthBetween(from, to)).thenReturn(savedUsers);
+        when(userRepository.findDetachedByDateOfBirthBetween(from, to)).thenReturn(savedUsers);
 
         var result = userService.getByDateOfBirth(from, to);
 
-        verify(userRepository).findByDateOfBirthBetween(from, to);
+        verify(userRepository).findDetachedByDateOfBirthBetween(from, to);
         assertEquals(savedUsers, result);
     }
 
@@ -155,22 +442,152 @@ class UserServiceImplTest {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
             () -> userService.getByDateOfBirth(from, to));
 
-        verify(userRepository, never()).findByDateOfBirthBetween(from, to);
+        verify(userRepository, never()).findDetachedByDateOfBirthBetween(from, to);
         assertEquals(ErrorMessages.WRONG_TIME_PERIOD, exception.getMessage());
     }
 
+    @Test
+    void getSummariesByDateOfBirthTest() {
+        LocalDate from = LocalDate.of(2023, 1, 1);
+        LocalDate to = LocalDate.of(2023, 12, 31);
+        List<UserSummaryDto> summaries = List.of(getUserSummary(), getUserSummary());
+
+        when(userRepository.findSummariesByDateOfBirthBetween(from, to)).thenReturn(summaries);
+
+        var result = userService.getSummariesByDateOfBirth(from, to);
+
+        verify(userRepository).findSummariesByDateOfBirthBetween(from, to);
+        assertEquals(summaries, result);
+    }
+
+    @Test
+    void getSummariesByDateOfBirthInvalidDatesThrowsExceptionTest() {
+        LocalDate from = LocalDate.of(2023, 12, 31);
+        LocalDate to = LocalDate.of(2023, 1, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> userService.getSummariesByDateOfBirth(from, to));
+
+        verify(userRepository, never()).findSummariesByDateOfBirthBetween(from, to);
+    }
+
+    @Test
+    void getAllSummariesTest() {
+        List<UserSummaryDto> summaries = List.of(getUserSummary());
+
+        when(userRepository.findAllSummaries()).thenReturn(summaries);
+
+        assertEquals(summaries, userService.getAllSummaries());
+    }
+
     @Test
     void getAllTest() {
         List<User> savedUsers = List.of(getSavedUser(), getSavedUser());
 
-        when(userRepository.findAll()).thenReturn(savedUsers);
+        when(userRepository.findAllDetached()).thenReturn(savedUsers);
 
         var result = userService.getAll();
 
-        verify(userRepository).findAll();
+        verify(userRepository).findAllDetached();
         assertEquals(savedUsers, result);
     }
 
+    @Test
+    void getFirstPageTest() {
+        List<User> savedUsers = getSavedUsers(3);
+
+        when(userRepository.findByIdGreaterThan(0L, PageRequest.of(0, 3, Sort.by("id")))).thenReturn(savedUsers);
+
+        UserPageDto result = userService.getPage(null, null);
+
+        assertEquals(savedUsers.subList(0, 2), result.getUsers());
+        assertNotNull(result.getNextPageToken());
+    }
+
+    @Test
+    void getNextPageTest() {
+        List<User> firstPage = getSavedUsers(3);
+        List<User> lastPage = List.of(firstPage.get(2));
+
+        when(userRepository.findByIdGreaterThan(0L, PageRequest.of(0, 3, Sort.by("id")))).thenReturn(firstPage);
+        when(userRepository.findByIdGreaterThan(2L, PageRequest.of(0, 3, Sort.by("id")))).thenReturn(lastPage);
+
+        String pageToken = userService.getPage(null, 2).getNextPageToken();
+        UserPageDto result = userService.getPage(pageToken, 2);
+
+        assertEquals(lastPage, result.getUsers());
+        assertNull(result.getNextPageToken());
+    }
+
+    @Test
+    void getPageInvalidTokenThrowsExceptionTest() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> userService.getPage("not a token", null));
+
+        verify(userRepository, never()).findByIdGreaterThan(any(), any());
+        assertEquals(ErrorMessages.WRONG_PAGE_TOKEN, exception.getMessage());
+    }
+
+    @Test
+    void getPageInvalidPageSizeThrowsExceptionTest() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> userService.getPage(null, 11));
+
+        verify(userRepository, never()).findByIdGreaterThan(any(), any());
+        assertEquals(ErrorMessages.WRONG_PAGE_SIZE + 10, exception.getMessage());
+    }
+
+    @Test
+    void streamAllTest() {
+        List<User> savedUsers = getSavedUsers(2);
+        List<User> result = new ArrayList<>();
+
+        when(userRepository.streamAllByOrderByIdAsc()).thenReturn(savedUsers.stream());
+
+        userService.streamAll(result::add);
+
+        assertEquals(savedUsers, result);
+        verify(entityManager).detach(savedUsers.get(0));
+        verify(entityManager).detach(savedUsers.get(1));
+    }
+
+    @Test
+    void streamByDateOfBirthTest() {
+        LocalDate from = LocalDate.of(2023, 1, 1);
+        LocalDate to = LocalDate.of(2023, 12, 31);
+        List<User> savedUsers = getSavedUsers(2);
+        List<User> result = new ArrayList<>();
+
+        when(userRepository.streamByDateOfBirthBetween(from, to)).thenReturn(savedUsers.stream());
+
+        userService.streamByDateOfBirth(from, to, result::add);
+
+        assertEquals(savedUsers, result);
+        verify(entityManager).detach(savedUsers.get(0));
+        verify(entityManager).detach(savedUsers.get(1));
+    }
+
+    @Test
+    void streamByDateOfBirthInvalidDatesThrowsExceptionTest() {
+        LocalDate from = LocalDate.of(2023, 12, 31);
+        LocalDate to = LocalDate.of(2023, 1, 1);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> userService.streamByDateOfBirth(from, to, user -> { }));
+
+        verify(userRepository, never()).streamByDateOfBirthBetween(from, to);
+        assertEquals(ErrorMessages.WRONG_TIME_PERIOD, exception.getMessage());
+    }
+
+    private static List<User> getSavedUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            User user = getSavedUser();
+            user.setId(id);
+            users.add(user);
+        }
+        return users;
+    }
+
     private static Stream<Arguments> testUserUpdateDto() {
         return Stream.of(
             getFullyUpdatedUser(),
@@ -0,0 +1,79 @@
+package com.example.userdemo.service;
+
+import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.exception.PreconditionFailedException;
+import com.example.userdemo.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.example.userdemo.ModelUtil.getNewUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+    "userdemo.index.dateOfBirth=true",
+    "spring.datasource.url=jdbc:h2:mem:dateofbirthindex"
+})
+class UserServiceIndexTest {
+    private static final LocalDate DATE_OF_BIRTH = LocalDate.of(1961, 4, 12);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private DateOfBirthIndex dateOfBirthIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void writesAreVisibleToRangeQueriesTest() {
+        User user = getNewUser();
+        user.setEmail("index@example.com");
+        user.setDateOfBirth(DATE_OF_BIRTH);
+        User created = userService.create(user);
+
+        assertEquals(List.of(created.getId()), ids(userService.getByDateOfBirth(DATE_OF_BIRTH, DATE_OF_BIRTH)));
+        assertEquals("index@example.com",
+            userService.getSummariesByDateOfBirth(DATE_OF_BIRTH, DATE_OF_BIRTH).get(0).getEmail());
+
+        UserUpdateDto update = UserUpdateDto.builder().dateOfBirth(DATE_OF_BIRTH.plusYears(1)).build();
+        userService.update(created.getId(), update, created.getVersion());
+        assertThrows(PreconditionFailedException.class,
+            () -> userService.update(created.getId(), UserUpdateDto.builder().firstName("Stale").build(),
+                created.getVersion()));
+
+        assertEquals(List.of(), userService.getByDateOfBirth(DATE_OF_BIRTH, DATE_OF_BIRTH));
+        List<User> moved = userService.getByDateOfBirth(DATE_OF_BIRTH.plusYears(1), DATE_OF_BIRTH.plusYears(1));
+        assertEquals(List.of(created.getId()), ids(moved));
+        assertEquals(created.getVersion() + 1, moved.get(0).getVersion());
+        assertEquals(userService.getById(created.getId()), moved.get(0));
+
+        userService.delete(created.getId());
+        assertEquals(List.of(), userService.getByDateOfBirth(DATE_OF_BIRTH.plusYears(1), DATE_OF_BIRTH.plusYears(1)));
+    }
+
+    @Test
+    void rolledBackWritesAreNotIndexedTest() {
+        int size = dateOfBirthIndex.size();
+        User user = getNewUser();
+        user.setEmail("rollback@example.com");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.create(user);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(size, dateOfBirthIndex.size());
+    }
+
+    private static List<Long> ids(List<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+}
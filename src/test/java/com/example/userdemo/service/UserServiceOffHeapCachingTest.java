@@ -0,0 +1,55 @@
+package com.example.userdemo.service;
+
+import com.example.userdemo.cache.OffHeapUserStore;
+import com.example.userdemo.model.User;
+import com.example.userdemo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.Optional;
+
+import static com.example.userdemo.ModelUtil.getSavedUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+    "userdemo.cache.offHeap.enabled=true",
+    "userdemo.cache.offHeap.capacity=1MB"
+})
+class UserServiceOffHeapCachingTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OffHeapUserStore offHeapUserStore;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @Test
+    void getByIdIsServedFromOffHeapStoreTest() {
+        long id = 1L;
+        User savedUser = getSavedUser();
+        savedUser.setVersion(0L);
+        when(userRepository.findById(id)).thenReturn(Optional.of(savedUser));
+        when(userRepository.deleteUserById(id)).thenReturn(1);
+
+        userService.getById(id);
+        User result = userService.getById(id);
+
+        verify(userRepository, times(1)).findById(id);
+        assertEquals(savedUser, result);
+        assertNotSame(savedUser, result);
+        assertEquals(savedUser, offHeapUserStore.get(id));
+
+        userService.delete(id);
+        assertNull(offHeapUserStore.get(id));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.userdemo.service;
+
+import com.example.userdemo.dto.UserPageDto;
+import com.example.userdemo.dto.UserUpdateDto;
+import com.example.userdemo.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static com.example.userdemo.ModelUtil.getNewUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:usersearch")
+class UserServiceSearchTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void committedWritesAreSearchableTest() {
+        User created = userService.create(user("Bartholomew", "Quincy", "bart@example.com"));
+
+        assertEquals(List.of(created.getId()), ids(userService.search("bartholomew", null, null)));
+        assertEquals(List.of(created.getId()), ids(userService.search("barthlomew quin", null, null)));
+        assertEquals(created, userService.search("quincy", null, null).getUsers().get(0));
+
+        userService.update(created.getId(), UserUpdateDto.builder().lastName("Zimmerman").build(),
+            created.getVersion());
+        assertEquals(List.of(), ids(userService.search("quincy", null, null)));
+        assertEquals(List.of(created.getId()), ids(userService.search("zimmer", null, null)));
+
+        userService.delete(created.getId());
+        assertEquals(List.of(), ids(userService.search("zimmerman", null, null)));
+    }
+
+    @Test
+    void rolledBackWritesAreNotSearchableTest() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            userService.create(user("Rolledback", "Nobody", "rolledback@example.com"));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of(), ids(userService.search("rolledback", null, null)));
+    }
+
+    @Test
+    void pagesFollowRankTest() {
+        User first = userService.create(user("Pagina", "Pagina", "pagina1@example.com"));
+        User second = userService.create(user("Pagina", "Other", "pagina2@example.com"));
+        User third = userService.create(user("Paginator", "Other", "pagina3@example.com"));
+
+        UserPageDto page = userService.search("pagina", null, 2);
+        assertEquals(List.of(first.getId(), second.getId()), ids(page));
+        UserPageDto next = userService.search("pagina", page.getNextPageToken(), 2);
+        assertEquals(List.of(third.getId()), ids(next));
+        assertNull(next.getNextPageToken());
+
+        assertThrows(IllegalArgumentException.class, () -> userService.search("pagina", null, 0));
+        assertThrows(IllegalArgumentException.class, () -> userService.search("--", null, null));
+    }
+
+    private static User user(String firstName, String lastName, String email) {
+        User user = getNewUser();
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setEmail(email);
+        return user;
+    }
+
+    private static List<Long> ids(UserPageDto page) {
+        return page.getUsers().stream().map(User::getId).toList();
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.userdemo.service;
+
+import com.example.userdemo.constatnt.ErrorMessages;
+import com.example.userdemo.dto.WriteStatusDto;
+import com.example.userdemo.exception.NotFoundException;
+import com.example.userdemo.exception.PreconditionFailedException;
+import com.example.userdemo.exception.ServiceUnavailableException;
+import com.example.userdemo.exception.TooManyRequestsException;
+import com.example.userdemo.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.userdemo.ModelUtil.getNewUser;
+import static com.example.userdemo.ModelUtil.getSavedUser;
+import static com.example.userdemo.service.UserWriteQueue.BATCH_SIZE_METRIC;
+import static com.example.userdemo.service.UserWriteQueue.QUEUED_METRIC;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserWriteQueueTest {
+
+    @Mock
+    UserService userService;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void queuedWritesAreCommittedInOneTransactionTest() {
+        UserWriteQueue userWriteQueue = userWriteQueue(10, 10);
+        User first = user("first@example.com");
+        User second = user("second@example.com");
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(userService.create(first)).thenReturn(saved(1L));
+        when(userService.update(2L, second, 3L)).thenReturn(saved(2L));
+
+        WriteStatusDto created = userWriteQueue.create(first);
+        WriteStatusDto updated = userWriteQueue.update(2L, second, 3L);
+        assertEquals(WriteStatusDto.Status.QUEUED, userWriteQueue.getStatus(created.getId()).getStatus());
+        assertEquals(2, meterRegistry.get(QUEUED_METRIC).gauge().value());
+        userWriteQueue.start();
+        userWriteQueue.stop();
+
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager, times(1)).commit(any());
+        assertEquals(WriteStatusDto.Status.COMPLETED, userWriteQueue.getStatus(created.getId()).getStatus());
+        assertEquals(1L, userWriteQueue.getStatus(created.getId()).getUserId());
+        assertEquals(2L, userWriteQueue.getStatus(updated.getId()).getUserId());
+        assertEquals(0L, userWriteQueue.getStatus(updated.getId()).getVersion());
+        assertEquals(2, meterRegistry.get(BATCH_SIZE_METRIC).summary().max());
+        assertEquals(0, meterRegistry.get(QUEUED_METRIC).gauge().value());
+    }
+
+    @Test
+    void failingWriteDoesNotFailItsBatchTest() {
+        UserWriteQueue userWriteQueue = userWriteQueue(10, 10);
+        User first = user("first@example.com");
+        User duplicate = user("duplicate@example.com");
+        User third = user("third@example.com");
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(userService.create(first)).thenReturn(saved(1L));
+        when(userService.create(duplicate)).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(userService.create(third)).thenReturn(saved(3L));
+        when(userService.update(4L, first, 1L)).thenThrow(new PreconditionFailedException("stale"));
+
+        List<WriteStatusDto> statuses = List.of(userWriteQueue.create(first), userWriteQueue.create(duplicate),
+            userWriteQueue.create(third), userWriteQueue.update(4L, first, 1L));
+        userWriteQueue.start();
+        userWriteQueue.stop();
+
+        verify(transactionManager, times(5)).getTransaction(any());
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(List.of(WriteStatusDto.Status.COMPLETED, WriteStatusDto.Status.FAILED,
+                WriteStatusDto.Status.COMPLETED, WriteStatusDto.Status.FAILED),
+            statuses.stream().map(status -> userWriteQueue.getStatus(status.getId()).getStatus()).toList());
+        WriteStatusDto conflict = userWriteQueue.getStatus(statuses.get(1).getId());
+        assertEquals(409, conflict.getHttpStatus());
+        assertEquals(List.of(ErrorMessages.DUPLICATE_EMAIL), conflict.getErrors());
+        assertEquals(412, userWriteQueue.getStatus(statuses.get(3).getId()).getHttpStatus());
+        assertEquals(3L, userWriteQueue.getStatus(statuses.get(2).getId()).getUserId());
+        assertEquals(1, meterRegistry.get(BATCH_SIZE_METRIC).summary().max());
+    }
+
+    @Test
+    void batchesAreLimitedToBatchSizeTest() {
+        UserWriteQueue userWriteQueue = userWriteQueue(10, 2);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(userService.create(any())).thenReturn(saved(1L));
+
+        for (int i = 0; i < 5; i++) {
+            userWriteQueue.create(user("user" + i + "@example.com"));
+        }
+        userWriteQueue.start();
+        userWriteQueue.stop();
+
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(userService, times(5)).create(any());
+        assertEquals(3, meterRegistry.get(BATCH_SIZE_METRIC).summary().count());
+    }
+
+    @Test
+    void fullQueueRejectsWritesTest() {
+        UserWriteQueue userWriteQueue = userWriteQueue(1, 10);
+
+        userWriteQueue.create(user("first@example.com"));
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+            () -> userWriteQueue.create(user("second@example.com")));
+
+        assertEquals(ErrorMessages.WRITE_QUEUE_FULL, e.getMessage());
+        assertEquals(1, e.getRetryAfterSeconds());
+    }
+
+    @Test
+    void writesSubmittedDuringShutdownAreRejectedTest() throws Exception {
+        UserWriteQueue userWriteQueue = userWriteQueue(10, 10);
+        User first = user("first@example.com");
+        CountDownLatch applying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(userService.create(first)).thenAnswer(invocation -> {
+            applying.countDown();
+            release.await();
+            return saved(1L);
+        });
+
+        userWriteQueue.start();
+        WriteStatusDto queued = userWriteQueue.create(first);
+        assertTrue(applying.await(10, TimeUnit.SECONDS));
+        Thread stopper = new Thread(userWriteQueue::stop);
+        stopper.start();
+        while (userWriteQueue.isRunning()) {
+            Thread.onSpinWait();
+        }
+
+        ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class,
+            () -> userWriteQueue.create(user("second@example.com")));
+        release.countDown();
+        stopper.join();
+
+        assertEquals(ErrorMessages.WRITE_QUEUE_STOPPED, e.getMessage());
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertEquals(WriteStatusDto.Status.COMPLETED, userWriteQueue.getStatus(queued.getId()).getStatus());
+        verify(userService, times(1)).create(any());
+    }
+
+    @Test
+    void queueStopsAfterWebServerTest() {
+        UserWriteQueue userWriteQueue = userWriteQueue(1, 10);
+
+        assertTrue(userWriteQueue.getPhase() < SmartLifecycle.DEFAULT_PHASE - 2048);
+        assertFalse(userWriteQueue.isRunning());
+    }
+
+    @Test
+    void unknownWriteIsNotFoundTest() {
+        UserWriteQueue userWriteQueue = userWriteQueue(1, 10);
+        UUID id = UUID.randomUUID();
+
+        NotFoundException e = assertThrows(NotFoundException.class, () -> userWriteQueue.getStatus(id));
+
+        assertEquals(ErrorMessages.WRITE_NOT_FOUND_BY_ID + id, e.getMessage());
+    }
+
+    @Test
+    void queuedStatusHasNoResultTest() {
+        UserWriteQueue userWriteQueue = userWriteQueue(1, 10);
+
+        WriteStatusDto status = userWriteQueue.create(user("first@example.com"));
+
+        assertNull(status.getUserId());
+        assertNull(status.getHttpStatus());
+    }
+
+    private UserWriteQueue userWriteQueue(int capacity, int batchSize) {
+        return new UserWriteQueue(userService, transactionManager, meterRegistry, capacity, batchSize,
+            Duration.ofMillis(1), Duration.ofMinutes(1));
+    }
+
+    private static User user(String email) {
+        User user = getNewUser();
+        user.setEmail(email);
+        return user;
+    }
+
+    private static User saved(Long id) {
+        User user = getSavedUser();
+        user.setId(id);
+        user.setVersion(0L);
+        return user;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.userdemo.validators;
 
+import com.example.userdemo.service.CurrentDateProvider;
 import jakarta.validation.ConstraintValidatorContext;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,11 +8,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneOffset;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,4 +52,39 @@ class AgeValidatorTest {
         assertFalse(ageValidator.isValid(LocalDate.now().minusYears(minUserAge - 1), context));
     }
 
-}
\ No newline at end of file
+    @Test
+    void isValidMatchesPeriodTest() {
+        int minUserAge = 18;
+        ageValidator.setDefaultUserMinAge(minUserAge);
+        lenient().when(context.getDefaultConstraintMessageTemplate()).thenReturn("message %d");
+        lenient().when(context.buildConstraintViolationWithTemplate(anyString())).thenReturn(constraintViolationBuilder);
+
+        for (LocalDate today = LocalDate.of(2023, 12, 1); today.isBefore(LocalDate.of(2025, 3, 31));
+             today = today.plusDays(1)) {
+            ageValidator.setCurrentDateProvider(fixedDate(today));
+            for (LocalDate dateOfBirth = today.minusYears(minUserAge).minusDays(40);
+                 dateOfBirth.isBefore(today.minusYears(minUserAge).plusDays(40)); dateOfBirth = dateOfBirth.plusDays(1)) {
+                boolean expected = Period.between(dateOfBirth, today).getYears() >= minUserAge;
+                assertEquals(expected, ageValidator.isValid(dateOfBirth, context), dateOfBirth + " on " + today);
+            }
+        }
+    }
+
+    @Test
+    void isValidOnBirthdayTest() {
+        int minUserAge = 18;
+        ageValidator.setDefaultUserMinAge(minUserAge);
+        when(context.getDefaultConstraintMessageTemplate()).thenReturn("message %d");
+        when(context.buildConstraintViolationWithTemplate(anyString())).thenReturn(constraintViolationBuilder);
+        LocalDate dateOfBirth = LocalDate.of(2006, 3, 1);
+
+        ageValidator.setCurrentDateProvider(fixedDate(LocalDate.of(2024, 2, 29)));
+        assertFalse(ageValidator.isValid(dateOfBirth, context));
+        ageValidator.setCurrentDateProvider(fixedDate(LocalDate.of(2024, 3, 1)));
+        assertTrue(ageValidator.isValid(dateOfBirth, context));
+    }
+
+    private static CurrentDateProvider fixedDate(LocalDate date) {
+        return new CurrentDateProvider(Clock.fixed(date.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.userdemo.validators;
+
+import jakarta.validation.ConstraintValidatorContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static com.example.userdemo.constatnt.ValidationConstants.EMAIL_PATTERN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+class EmailValidatorTest {
+    private static final Pattern EMAIL_REGEX = Pattern.compile(EMAIL_PATTERN);
+    private static final String ALPHABET = "aZ09+_.-@.@x\n ";
+    private static final int ITERATIONS = 200_000;
+
+    @InjectMocks
+    private EmailValidator emailValidator;
+    @Mock
+    ConstraintValidatorContext context;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"test@gmail.com", "first.last+tag@mail.example.org", "a_b-c@x-y.io",
+            "1@2.abcd", "..@..ab", "a@b..cd", "a@-.de"})
+    void isValidCorrectEmailTest(String email) {
+        assertTrue(emailValidator.isValid(email, context));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "@gmail.com", "test@", "test@gmail", "test@.com", "test@gmail.c",
+            "test@gmail.comma", "test@gmail.c0m", "te st@gmail.com", "test@@gmail.com", "a@b@c.com",
+            "test@gm_ail.com", "test@gm+ail.com", "test@gmail.com\n", "tést@gmail.com", "test@gmail."})
+    void isValidWrongEmailTest(String email) {
+        assertFalse(emailValidator.isValid(email, context));
+    }
+
+    @Test
+    void isValidNullEmailTest() {
+        assertTrue(emailValidator.isValid(null, context));
+    }
+
+    @Test
+    void isValidEmailMatchesPatternTest() {
+        Random random = new Random(42);
+        int valid = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            String email = i % 2 == 0 ? randomString(random) : mutate(random, randomEmail(random));
+            boolean expected = EMAIL_REGEX.matcher(email).matches();
+            assertEquals(expected, EmailValidator.isValidEmail(email), () -> "Mismatch for '" + email + "'");
+            if (expected) {
+                valid++;
+            }
+        }
+        assertTrue(valid > ITERATIONS / 10, "Too few valid samples: " + valid);
+    }
+
+    @Test
+    void isValidLongEmailTest() {
+        String local = "a.".repeat(500_000);
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            assertTrue(EmailValidator.isValidEmail(local + "a@" + local + "com"));
+            assertFalse(EmailValidator.isValidEmail(local + "a@" + local + "c0m"));
+        });
+    }
+
+    private static String randomString(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int length = random.nextInt(16);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    private static String randomEmail(Random random) {
+        return randomPart(random, "ab9+_.-", 1 + random.nextInt(6)) + '@'
+                + randomPart(random, "cd8.-", 1 + random.nextInt(6)) + '.'
+                + randomPart(random, "eFgH", 2 + random.nextInt(3));
+    }
+
+    private static String mutate(Random random, String email) {
+        if (random.nextInt(3) > 0) {
+            return email;
+        }
+        StringBuilder sb = new StringBuilder(email);
+        int position = random.nextInt(sb.length());
+        switch (random.nextInt(3)) {
+            case 0 -> sb.deleteCharAt(position);
+            case 1 -> sb.insert(position, ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            default -> sb.setCharAt(position, ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    private static String randomPart(Random random, String alphabet, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
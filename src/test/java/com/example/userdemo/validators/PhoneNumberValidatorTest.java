@@ -0,0 +1,146 @@
+package com.example.userdemo.validators;
+
+import jakarta.validation.ConstraintValidatorContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static com.example.userdemo.constatnt.ValidationConstants.PHONE_NUMBER_PATTERN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+class PhoneNumberValidatorTest {
+    private static final Pattern PHONE_NUMBER_REGEX = Pattern.compile(PHONE_NUMBER_PATTERN);
+    private static final String ALPHABET = "0123456789+ ()-.x";
+    private static final int ITERATIONS = 200_000;
+
+    @InjectMocks
+    private PhoneNumberValidator phoneNumberValidator;
+    @Mock
+    ConstraintValidatorContext context;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1234567890", "123-456-7890", "(123) 456-7890", "123.456.7890", "(123)4567890",
+            "+1 (123) 456-7890", "+380 123 456 7890", "+12 1234567890", "123 456 789", "123456789",
+            "+111 636 856 789", "123 45 67 89", "+111 636 85 67 89", "+1123 456 789"})
+    void isValidCorrectPhoneNumberTest(String phoneNumber) {
+        assertTrue(phoneNumberValidator.isValid(phoneNumber, context));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "+", "12345", "123--456-7890", "(123-456-7890", "123) 456-7890",
+            "+1234 123 456 7890", "++1 123 456 7890", "+ 123 456 7890", "123  456 789", "123-45-67-89",
+            "123 456 7890\n", "１２３４５６７８９０", "(123) 456-789x"})
+    void isValidWrongPhoneNumberTest(String phoneNumber) {
+        assertFalse(phoneNumberValidator.isValid(phoneNumber, context));
+    }
+
+    @Test
+    void isValidNullPhoneNumberTest() {
+        assertTrue(phoneNumberValidator.isValid(null, context));
+    }
+
+    @Test
+    void isValidPhoneNumberMatchesPatternTest() {
+        Random random = new Random(42);
+        int valid = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            String phoneNumber = i % 2 == 0
+                    ? randomString(random, 8 + random.nextInt(12))
+                    : mutate(random, randomPhoneNumber(random));
+            boolean expected = PHONE_NUMBER_REGEX.matcher(phoneNumber).matches();
+            assertEquals(expected, PhoneNumberValidator.isValidPhoneNumber(phoneNumber),
+                    () -> "Mismatch for '" + phoneNumber + "'");
+            if (expected) {
+                valid++;
+            }
+        }
+        assertTrue(valid > ITERATIONS / 10, "Too few valid samples: " + valid);
+    }
+
+    @Test
+    void isValidLongPhoneNumberTest() {
+        String phoneNumber = "+1 " + "1".repeat(1_000_000);
+        assertTimeoutPreemptively(Duration.ofSeconds(1),
+                () -> assertFalse(PhoneNumberValidator.isValidPhoneNumber(phoneNumber)));
+    }
+
+    private static String randomPhoneNumber(Random random) {
+        StringBuilder sb = new StringBuilder();
+        if (random.nextBoolean()) {
+            sb.append('+').append(randomDigits(random, 1 + random.nextInt(3)));
+            optional(random, sb, " ");
+        }
+        switch (random.nextInt(3)) {
+            case 0 -> {
+                sb.append(random.nextBoolean() ? "(" + randomDigits(random, 3) + ")" : randomDigits(random, 3));
+                optional(random, sb, "- .");
+                sb.append(randomDigits(random, 3));
+                optional(random, sb, "- .");
+                sb.append(randomDigits(random, 4));
+            }
+            case 1 -> {
+                sb.append(randomDigits(random, 3));
+                optional(random, sb, " ");
+                sb.append(randomDigits(random, 3));
+                optional(random, sb, " ");
+                sb.append(randomDigits(random, 3));
+            }
+            default -> {
+                sb.append(randomDigits(random, 3));
+                for (int i = 0; i < 3; i++) {
+                    optional(random, sb, " ");
+                    sb.append(randomDigits(random, 2));
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void optional(Random random, StringBuilder sb, String choices) {
+        if (random.nextBoolean()) {
+            sb.append(choices.charAt(random.nextInt(choices.length())));
+        }
+    }
+
+    private static String mutate(Random random, String phoneNumber) {
+        if (random.nextInt(3) > 0) {
+            return phoneNumber;
+        }
+        StringBuilder sb = new StringBuilder(phoneNumber);
+        int position = random.nextInt(sb.length());
+        switch (random.nextInt(3)) {
+            case 0 -> sb.deleteCharAt(position);
+            case 1 -> sb.insert(position, ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            default -> sb.setCharAt(position, ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    private static String randomDigits(Random random, int count) {
+        StringBuilder sb = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            sb.append((char) ('0' + random.nextInt(10)));
+        }
+        return sb.toString();
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+}
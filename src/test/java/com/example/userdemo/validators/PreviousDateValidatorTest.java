@@ -1,11 +1,15 @@
 package com.example.userdemo.validators;
 
+import com.example.userdemo.service.CurrentDateProvider;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -21,4 +25,13 @@ class PreviousDateValidatorTest {
         assertFalse(previousDateValidator.isValid(LocalDate.now(), null));
         assertFalse(previousDateValidator.isValid(LocalDate.now().plusDays(1L), null));
     }
-}
\ No newline at end of file
+
+    @Test
+    void isValidUsesCurrentDateProviderTest() {
+        Clock clock = Clock.fixed(Instant.parse("2024-02-28T23:00:00Z"), ZoneId.of("Europe/Kyiv"));
+        previousDateValidator.setCurrentDateProvider(new CurrentDateProvider(clock));
+
+        assertTrue(previousDateValidator.isValid(LocalDate.of(2024, 2, 28), null));
+        assertFalse(previousDateValidator.isValid(LocalDate.of(2024, 2, 29), null));
+    }
+}